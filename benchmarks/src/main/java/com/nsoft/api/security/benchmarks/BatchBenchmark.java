@@ -0,0 +1,126 @@
+package com.nsoft.api.security.benchmarks;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nsoft.api.security.jwt.verifier.AbstractJWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import com.nsoft.api.security.jwt.verifier.JWTProcessor;
+import com.nsoft.api.security.testkit.SigningKey;
+import com.nsoft.api.security.testkit.TokenMinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JWTProcessor#processAll(java.util.Collection)} with invoking {@link
+ * JWTProcessor#process(String)} for every token of the same batch, one after another.
+ * <p>
+ * Every trial mints a fixed batch of distinct valid tokens, read from a local JWKS file like in
+ * {@link ProcessBenchmark}. The verified token cache is left disabled, so that every token of the
+ * batch is verified on every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+
+    private static final String ISSUER = "https://accounts.nsoft.com";
+    private static final String KEY_ID = "benchmark";
+
+    @Param({"HS256", "RS256", "ES256"})
+    public JWSAlgorithm algorithm;
+
+    /**
+     * Number of tokens in the batch
+     */
+    @Param({"16", "256", "4096"})
+    public int batchSize;
+
+    private Path jwksFile;
+    private JWTProcessor processor;
+
+    private List<String> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final SigningKey signingKey = SigningKey.generate(algorithm, KEY_ID);
+        final TokenMinter minter = new TokenMinter(signingKey, ISSUER, 1, 86_400_000, 0);
+
+        batch = new ArrayList<>(batchSize);
+
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(minter.mint(minter.claims().build()));
+        }
+
+        jwksFile = Files.createTempFile("rsp4j-benchmark", ".json");
+        Files.write(jwksFile, new JWKSet(signingKey.getVerificationKey()).toJSONObject(false)
+                .toJSONString()
+                .getBytes(StandardCharsets.UTF_8));
+
+        processor = JWTProcessor.fromConfiguration(new BenchmarkConfiguration());
+
+        for (Optional<JWTClaimsSet> result : processor.processAll(batch)) {
+            if (!result.isPresent()) {
+                throw new IllegalStateException("Valid " + algorithm + " token was rejected");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jwksFile);
+    }
+
+    @Benchmark
+    public List<Optional<JWTClaimsSet>> processAll() {
+        return processor.processAll(batch);
+    }
+
+    @Benchmark
+    public void processEach(Blackhole blackhole) {
+        for (String token : batch) {
+            blackhole.consume(processor.process(token));
+        }
+    }
+
+    private final class BenchmarkConfiguration extends AbstractJWTProcessorConfiguration {
+
+        @Override
+        public String getJWKSUrl() {
+            return jwksFile.toUri().toString();
+        }
+
+        @Override
+        public Optional<String> getIssuer() {
+            return Optional.of(ISSUER);
+        }
+
+        @Override
+        public JWSAlgorithm getSigningAlgorithm() {
+            return algorithm;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.nsoft.api.security.benchmarks;
+
+import com.nsoft.api.security.jwt.verifier.BearerToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BearerToken#extract(String)} for well-formed headers of several token lengths, a
+ * header with surrounding whitespace and a lower case scheme, and a header using another scheme.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BearerTokenBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    public int tokenLength;
+
+    private String bearerHeader;
+    private String lenientHeader;
+    private String basicHeader;
+
+    @Setup
+    public void setUp() {
+        final String token = token(tokenLength);
+
+        bearerHeader = "Bearer " + token;
+        lenientHeader = " \tbearer   " + token + " ";
+        basicHeader = "Basic " + token;
+    }
+
+    @Benchmark
+    public String extractBearer() {
+        return BearerToken.extract(bearerHeader);
+    }
+
+    @Benchmark
+    public String extractLenient() {
+        return BearerToken.extract(lenientHeader);
+    }
+
+    @Benchmark
+    public String extractOtherScheme() {
+        return BearerToken.extract(basicHeader);
+    }
+
+    /**
+     * Creates a token shaped like a JWT, made up of three dot separated Base64URL segments.
+     */
+    private static String token(int length) {
+        final char[] token = new char[length];
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+        for (int i = 0; i < length; i++) {
+            token[i] = alphabet.charAt(i % alphabet.length());
+        }
+
+        Arrays.fill(token, length / 3, length / 3 + 1, '.');
+        Arrays.fill(token, 2 * length / 3, 2 * length / 3 + 1, '.');
+
+        return new String(token);
+    }
+}
@@ -0,0 +1,43 @@
+package com.nsoft.api.security.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with the {@link GCProfiler} always enabled, so every result is accompanied
+ * by its allocation rate. Accepts the regular JMH command line options, for example:
+ * <pre>
+ * mvn -pl benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar ProcessBenchmark -p algorithm=RS256,ES256
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException,
+            IOException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+                || commandLineOptions.shouldListProfilers()
+                || commandLineOptions.shouldListResultFormats()) {
+            // Delegates informational options to the regular JMH launcher
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    private BenchmarkMain() {
+    }
+}
@@ -0,0 +1,156 @@
+package com.nsoft.api.security.benchmarks;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nsoft.api.security.jwt.verifier.AbstractJWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import com.nsoft.api.security.jwt.verifier.JWTProcessor;
+import com.nsoft.api.security.testkit.SigningKey;
+import com.nsoft.api.security.testkit.TokenMinter;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Security;
+import java.security.Signature;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JWTProcessor#process(String)} for every {@link JWSAlgorithm} and several token
+ * sizes, with a valid token and with a token whose signature doesn't verify.
+ * <p>
+ * Keys are generated for every trial and read from a local JWKS file, so no network access is
+ * involved. The verified token cache and the rejection cache are left disabled, so that every
+ * invocation parses and verifies the token.
+ * <p>
+ * The JDK doesn't provide RSASSA-PSS under the names requested by Nimbus for verification, so
+ * BouncyCastle is installed as the last security provider for the {@code PS256}, {@code PS384}
+ * and {@code PS512} trials.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessBenchmark {
+
+    private static final String ISSUER = "https://accounts.nsoft.com";
+    private static final String KEY_ID = "benchmark";
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "ES256", "ES384", "ES512",
+            "PS256", "PS384", "PS512", "EdDSA"})
+    public JWSAlgorithm algorithm;
+
+    /**
+     * Length of an additional claim, inflating the payload of the token
+     */
+    @Param({"0", "1024", "4096"})
+    public int payloadPadding;
+
+    private Path jwksFile;
+    private JWTProcessor processor;
+
+    private String validToken;
+    private String invalidToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (algorithm.name().startsWith("PS")) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+
+        final SigningKey signingKey = SigningKey.generate(algorithm, KEY_ID);
+
+        validToken = new TokenMinter(signingKey, ISSUER, 1, 86_400_000, payloadPadding)
+                .nextToken();
+        invalidToken = tamperWithSignature(validToken);
+
+        jwksFile = Files.createTempFile("rsp4j-benchmark", ".json");
+        Files.write(jwksFile, new JWKSet(signingKey.getVerificationKey()).toJSONObject(false)
+                .toJSONString()
+                .getBytes(StandardCharsets.UTF_8));
+
+        processor = JWTProcessor.fromConfiguration(new BenchmarkConfiguration());
+
+        if (!processor.process(validToken).isPresent()) {
+            throw new IllegalStateException("Valid " + algorithm + " token was rejected");
+        }
+
+        if (processor.process(invalidToken).isPresent()) {
+            throw new IllegalStateException("Invalid " + algorithm + " token was accepted");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jwksFile);
+    }
+
+    @Benchmark
+    public Optional<JWTClaimsSet> processValidToken() {
+        return processor.process(validToken);
+    }
+
+    @Benchmark
+    public Optional<JWTClaimsSet> processInvalidSignature() {
+        return processor.process(invalidToken);
+    }
+
+    /**
+     * Flips a bit in the middle of the signature, keeping the token well-formed.
+     */
+    private static String tamperWithSignature(String token) {
+        final int signatureStart = token.lastIndexOf('.') + 1;
+        final int position = signatureStart + (token.length() - signatureStart) / 2;
+        final char tampered = token.charAt(position) == 'A' ? 'B' : 'A';
+
+        return token.substring(0, position) + tampered + token.substring(position + 1);
+    }
+
+    private final class BenchmarkConfiguration extends AbstractJWTProcessorConfiguration {
+
+        private BenchmarkConfiguration() throws GeneralSecurityException {
+            setMaximumTokenLength(16384);
+
+            if (algorithm.getFamily() == JWSAlgorithm.Family.EDDSA) {
+                // Without a provider, EdDSA tokens are verified with the optional Tink library
+                setSecurityProviders(Collections.singletonMap(JWSAlgorithm.Family.EDDSA,
+                        Signature.getInstance("Ed25519").getProvider()));
+            }
+        }
+
+        @Override
+        public String getJWKSUrl() {
+            return jwksFile.toUri().toString();
+        }
+
+        @Override
+        public Optional<String> getIssuer() {
+            return Optional.of(ISSUER);
+        }
+
+        @Override
+        public JWSAlgorithm getSigningAlgorithm() {
+            return algorithm;
+        }
+    }
+}
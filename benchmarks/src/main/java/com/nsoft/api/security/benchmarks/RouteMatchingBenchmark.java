@@ -0,0 +1,108 @@
+package com.nsoft.api.security.benchmarks;
+
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import com.nsoft.api.security.jwt.verifier.JWTProcessor;
+import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
+import com.nsoft.api.security.spring.filter.internal.error.DefaultErrorHandler;
+import com.nsoft.api.security.spring.filter.route.ProtectedRouteHandler;
+import com.nsoft.api.security.spring.filter.route.ProtectedRouteRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ProtectedRouteHandler#requestNeedsAuthorization} with 10, 1k and 10k registered
+ * routes, for a request matching an exact route, a request matching a wildcard route and a request
+ * which doesn't match any route.
+ * <p>
+ * Half of the registered routes are exact paths and half end with a {@code **} wildcard, and
+ * every route is registered together with its trailing slash variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteMatchingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int routes;
+
+    private ProtectedRouteHandler handler;
+
+    private MockHttpServletRequest exactRequest;
+    private MockHttpServletRequest wildcardRequest;
+    private MockHttpServletRequest unprotectedRequest;
+
+    @Setup
+    public void setUp() {
+        final ProtectedRouteRegistry registry = new ProtectedRouteRegistry(true);
+
+        for (int i = 0; i < routes; i++) {
+            if (i % 2 == 0) {
+                registry.registerRoute("/api/v1/resource" + i);
+            } else {
+                registry.registerRoute("/api/v1/resource" + i + "/**", "GET");
+            }
+        }
+
+        handler = new ProtectedRouteHandler(registry, new NoOpJWTProcessor(),
+                new DefaultErrorHandler());
+
+        exactRequest = request("GET", "/api/v1/resource" + (routes - 2));
+        wildcardRequest = request("GET", "/api/v1/resource" + (routes - 1) + "/items/42");
+        unprotectedRequest = request("GET", "/public/health");
+    }
+
+    @Benchmark
+    public boolean matchExactRoute() {
+        return handler.requestNeedsAuthorization(exactRequest);
+    }
+
+    @Benchmark
+    public boolean matchWildcardRoute() {
+        return handler.requestNeedsAuthorization(wildcardRequest);
+    }
+
+    @Benchmark
+    public boolean matchNoRoute() {
+        return handler.requestNeedsAuthorization(unprotectedRequest);
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        final MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+
+        return request;
+    }
+
+    /**
+     * Route matching never processes tokens, so the handler is given a processor which rejects
+     * every token.
+     */
+    private static final class NoOpJWTProcessor implements JWTProcessor {
+
+        @Override
+        public Optional<JWTClaimsSet> process(String token) {
+            return Optional.empty();
+        }
+
+        @Override
+        public JWTProcessorConfiguration getConfiguration() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.nsoft.api.security.benchmarks;
+
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.SignedJWT;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+import com.nsoft.api.security.jwt.verifier.internal.crypto.VerifierFactory;
+import com.nsoft.api.security.testkit.SigningKey;
+import com.nsoft.api.security.testkit.TokenMinter;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Provider;
+import java.security.Security;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of verifying a token signature with the JDK and the BouncyCastle security
+ * providers, for one algorithm of every family, to help choose the providers passed to {@link
+ * com.nsoft.api.security.jwt.verifier.AbstractJWTProcessorConfiguration#setSecurityProviders(
+ * java.util.Map)}.
+ * <p>
+ * Only the signature is verified, without parsing the token or verifying its claims. The
+ * {@code JDK} provider is the most preferred installed provider supporting the algorithm, which
+ * BouncyCastle, installed as the last provider, never is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityProviderBenchmark {
+
+    private static final String ISSUER = "https://accounts.nsoft.com";
+    private static final String KEY_ID = "benchmark";
+
+    @Param({"HS256", "RS256", "ES256", "EdDSA"})
+    public JWSAlgorithm algorithm;
+
+    @Param({"JDK", "BC"})
+    public String provider;
+
+    private SignedJWT token;
+    private JWSVerifier verifier;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+
+        final SigningKey signingKey = SigningKey.generate(algorithm, KEY_ID);
+        final TokenMinter minter = new TokenMinter(signingKey, ISSUER, 1, 86_400_000, 0);
+
+        token = SignedJWT.parse(minter.nextToken());
+        verifier = new VerifierFactory(Collections.singletonMap(algorithm.getFamily(),
+                provider()))
+                .create(signingKey.getVerificationKey());
+
+        if (!verify()) {
+            throw new IllegalStateException(algorithm + " signature didn't verify with "
+                    + provider);
+        }
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        return verifier.verify(token.getHeader(), token.getSigningInput(), token.getSignature());
+    }
+
+    private Provider provider() {
+        if (provider.equals("BC")) {
+            return Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+        }
+
+        final Provider[] providers = Security.getProviders(service());
+
+        if (providers == null || providers[0].getName().equals(
+                BouncyCastleProvider.PROVIDER_NAME)) {
+            throw new IllegalStateException("No JDK provider supports " + algorithm);
+        }
+
+        return providers[0];
+    }
+
+    private String service() {
+        switch (algorithm.getFamily()) {
+            case HMAC:
+                return "Mac.HmacSHA256";
+            case RSA:
+                return "Signature.SHA256withRSA";
+            case EC:
+                return "Signature.SHA256withECDSA";
+            default:
+                return "Signature.Ed25519";
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package com.nsoft.api.security.jwt.verifier;
 
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.security.Provider;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
 /**
  * An abstract {@link JWTProcessorConfiguration} implementation which contains some default values,
- * such as default timeout durations.
+ * such as default timeout durations and cache sizes.
  *
  * @author Mislav Milicevic
  * @since 2020-01-23
@@ -11,10 +21,60 @@ public abstract class AbstractJWTProcessorConfiguration implements JWTProcessorC
 
     private static final int DEFAULT_CONNECT_TIMEOUT = 1000;
     private static final int DEFAULT_READ_TIMEOUT = 1000;
+    private static final int DEFAULT_TOKEN_CACHE_SIZE = 0;
+    private static final long DEFAULT_TOKEN_CACHE_TIME_TO_LIVE = 300_000;
+    private static final int DEFAULT_REJECTION_CACHE_SIZE = 0;
+    private static final long DEFAULT_REJECTION_CACHE_TIME_TO_LIVE = 30_000;
+    private static final long DEFAULT_JWKS_REFRESH_INTERVAL = 300_000;
+    private static final long DEFAULT_JWKS_REFRESH_JITTER = 30_000;
+    private static final long DEFAULT_JWKS_MAXIMUM_STALENESS = 3_600_000;
+    private static final long DEFAULT_JWKS_MINIMUM_REFETCH_INTERVAL = 10_000;
+    private static final long DEFAULT_JWKS_SNAPSHOT_MAXIMUM_AGE = 86_400_000;
+    private static final long DEFAULT_REVOCATION_REFRESH_INTERVAL = 10_000;
+    private static final int DEFAULT_INTROSPECTION_CACHE_SIZE = 10_000;
+    private static final long DEFAULT_INTROSPECTION_CACHE_TIME_TO_LIVE = 60_000;
+    private static final boolean DEFAULT_TOKEN_PRECHECK_ENABLED = true;
+    private static final int DEFAULT_MAXIMUM_TOKEN_LENGTH = 8192;
+    private static final boolean DEFAULT_METRICS_ENABLED = false;
 
     private int connectTimeout;
     private int readTimeout;
 
+    private int tokenCacheSize = DEFAULT_TOKEN_CACHE_SIZE;
+    private long tokenCacheTimeToLive = DEFAULT_TOKEN_CACHE_TIME_TO_LIVE;
+
+    private int rejectionCacheSize = DEFAULT_REJECTION_CACHE_SIZE;
+    private long rejectionCacheTimeToLive = DEFAULT_REJECTION_CACHE_TIME_TO_LIVE;
+
+    private long jwksRefreshInterval = DEFAULT_JWKS_REFRESH_INTERVAL;
+    private long jwksRefreshJitter = DEFAULT_JWKS_REFRESH_JITTER;
+    private long jwksMaximumStaleness = DEFAULT_JWKS_MAXIMUM_STALENESS;
+    private long jwksMinimumRefetchInterval = DEFAULT_JWKS_MINIMUM_REFETCH_INTERVAL;
+
+    private Path jwksSnapshotFile;
+    private long jwksSnapshotMaximumAge = DEFAULT_JWKS_SNAPSHOT_MAXIMUM_AGE;
+
+    private Path revocationFile;
+    private long revocationRefreshInterval = DEFAULT_REVOCATION_REFRESH_INTERVAL;
+
+    private String introspectionUrl;
+    private String introspectionClientId;
+    private String introspectionClientSecret;
+    private int introspectionCacheSize = DEFAULT_INTROSPECTION_CACHE_SIZE;
+    private long introspectionCacheTimeToLive = DEFAULT_INTROSPECTION_CACHE_TIME_TO_LIVE;
+
+    private ClaimPolicy claimPolicy = ClaimPolicy.DEFAULT;
+    private Map<JWSAlgorithm.Family, Provider> securityProviders = Collections.emptyMap();
+
+    private boolean tokenPrecheckEnabled = DEFAULT_TOKEN_PRECHECK_ENABLED;
+    private int maximumTokenLength = DEFAULT_MAXIMUM_TOKEN_LENGTH;
+
+    private boolean metricsEnabled = DEFAULT_METRICS_ENABLED;
+
+    // Fall back to the lazily created default executor unless set
+    private Executor executor;
+    private Executor asyncExecutor;
+
     public AbstractJWTProcessorConfiguration() {
         this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
     }
@@ -43,4 +103,455 @@ public abstract class AbstractJWTProcessorConfiguration implements JWTProcessorC
     public int getReadTimeout() {
         return readTimeout;
     }
+
+    /**
+     * Sets the maximum number of successfully verified tokens kept in the verified token cache. A
+     * value of 0 disables the cache.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param tokenCacheSize to be set, must not be less than 0
+     * @since 2026-10-18
+     */
+    public void setTokenCacheSize(int tokenCacheSize) {
+        this.tokenCacheSize = tokenCacheSize;
+    }
+
+    @Override
+    public int getTokenCacheSize() {
+        return tokenCacheSize;
+    }
+
+    /**
+     * Sets the maximum duration, in milliseconds, for which a successfully verified token is kept
+     * in the verified token cache.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param tokenCacheTimeToLive to be set, must be greater than 0
+     * @since 2026-10-18
+     */
+    public void setTokenCacheTimeToLive(long tokenCacheTimeToLive) {
+        this.tokenCacheTimeToLive = tokenCacheTimeToLive;
+    }
+
+    @Override
+    public long getTokenCacheTimeToLive() {
+        return tokenCacheTimeToLive;
+    }
+
+    /**
+     * Sets the interval, in milliseconds, at which the {@link JWTProcessor} refreshes the local
+     * JWKS cache in the background.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the refresh interval used by the constructed {@link JWTProcessor} instance.
+     *
+     * @param jwksRefreshInterval to be set, must be greater than 0
+     * @since 2026-10-18
+     */
+    public void setJWKSRefreshInterval(long jwksRefreshInterval) {
+        this.jwksRefreshInterval = jwksRefreshInterval;
+    }
+
+    @Override
+    public long getJWKSRefreshInterval() {
+        return jwksRefreshInterval;
+    }
+
+    /**
+     * Sets the maximum random deviation, in milliseconds, applied to every background JWKS
+     * refresh.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the refresh jitter used by the constructed {@link JWTProcessor} instance.
+     *
+     * @param jwksRefreshJitter to be set, must not be less than 0 and must be less than {@link
+     * #getJWKSRefreshInterval()}
+     * @since 2026-10-18
+     */
+    public void setJWKSRefreshJitter(long jwksRefreshJitter) {
+        this.jwksRefreshJitter = jwksRefreshJitter;
+    }
+
+    @Override
+    public long getJWKSRefreshJitter() {
+        return jwksRefreshJitter;
+    }
+
+    /**
+     * Sets the maximum age, in milliseconds, of the local JWKS cache.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the maximum staleness used by the constructed {@link JWTProcessor} instance.
+     *
+     * @param jwksMaximumStaleness to be set, must not be less than {@link
+     * #getJWKSRefreshInterval()}
+     * @since 2026-10-18
+     */
+    public void setJWKSMaximumStaleness(long jwksMaximumStaleness) {
+        this.jwksMaximumStaleness = jwksMaximumStaleness;
+    }
+
+    @Override
+    public long getJWKSMaximumStaleness() {
+        return jwksMaximumStaleness;
+    }
+
+    /**
+     * Sets the minimum interval, in milliseconds, between two consecutive JWKS fetches caused by
+     * tokens referencing an unknown key ID.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the minimum refetch interval used by the constructed {@link JWTProcessor} instance.
+     *
+     * @param jwksMinimumRefetchInterval to be set, must not be less than 0
+     * @since 2026-10-18
+     */
+    public void setJWKSMinimumRefetchInterval(long jwksMinimumRefetchInterval) {
+        this.jwksMinimumRefetchInterval = jwksMinimumRefetchInterval;
+    }
+
+    @Override
+    public long getJWKSMinimumRefetchInterval() {
+        return jwksMinimumRefetchInterval;
+    }
+
+    /**
+     * Sets the file the last retrieved JSON Web Key Set is persisted to. The file is created if it
+     * doesn't exist.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param jwksSnapshotFile to be set, {@code null} disables persisting the JWKS
+     * @since 2026-10-18
+     */
+    public void setJWKSSnapshotFile(Path jwksSnapshotFile) {
+        this.jwksSnapshotFile = jwksSnapshotFile;
+    }
+
+    @Override
+    public Optional<Path> getJWKSSnapshotFile() {
+        return Optional.ofNullable(jwksSnapshotFile);
+    }
+
+    /**
+     * Sets the maximum age, in milliseconds, of a persisted JSON Web Key Set which is still loaded
+     * when the {@link JWTProcessor} is constructed.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param jwksSnapshotMaximumAge to be set, must be greater than 0
+     * @since 2026-10-18
+     */
+    public void setJWKSSnapshotMaximumAge(long jwksSnapshotMaximumAge) {
+        this.jwksSnapshotMaximumAge = jwksSnapshotMaximumAge;
+    }
+
+    @Override
+    public long getJWKSSnapshotMaximumAge() {
+        return jwksSnapshotMaximumAge;
+    }
+
+    /**
+     * Sets the {@link ClaimPolicy} the claims of a token must satisfy to be accepted.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param claimPolicy to be set, must not be {@code null}
+     * @since 2026-10-18
+     */
+    public void setClaimPolicy(ClaimPolicy claimPolicy) {
+        this.claimPolicy = claimPolicy;
+    }
+
+    @Override
+    public ClaimPolicy getClaimPolicy() {
+        return claimPolicy;
+    }
+
+    /**
+     * Sets the {@link Provider security providers} used to verify token signatures, by algorithm
+     * family.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param securityProviders to be set, must not be {@code null} nor contain {@code null} values
+     * @since 2026-10-18
+     */
+    public void setSecurityProviders(Map<JWSAlgorithm.Family, Provider> securityProviders) {
+        this.securityProviders = securityProviders == null ? null
+                : securityProviders.isEmpty() ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(securityProviders));
+    }
+
+    @Override
+    public Map<JWSAlgorithm.Family, Provider> getSecurityProviders() {
+        return securityProviders;
+    }
+
+    /**
+     * Sets the revocation snapshot file.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param revocationFile to be set, {@code null} disables revocation checks
+     * @since 2026-10-18
+     */
+    public void setRevocationFile(Path revocationFile) {
+        this.revocationFile = revocationFile;
+    }
+
+    @Override
+    public Optional<Path> getRevocationFile() {
+        return Optional.ofNullable(revocationFile);
+    }
+
+    /**
+     * Sets the interval, in milliseconds, at which the revocation snapshot and delta files are
+     * checked for changes.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param revocationRefreshInterval to be set, must be greater than 0
+     * @since 2026-10-18
+     */
+    public void setRevocationRefreshInterval(long revocationRefreshInterval) {
+        this.revocationRefreshInterval = revocationRefreshInterval;
+    }
+
+    @Override
+    public long getRevocationRefreshInterval() {
+        return revocationRefreshInterval;
+    }
+
+    /**
+     * Sets the OAuth 2.0 token introspection endpoint URL.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param introspectionUrl to be set
+     * @since 2026-10-18
+     */
+    public void setIntrospectionUrl(String introspectionUrl) {
+        this.introspectionUrl = introspectionUrl;
+    }
+
+    @Override
+    public Optional<String> getIntrospectionUrl() {
+        return Optional.ofNullable(introspectionUrl);
+    }
+
+    /**
+     * Sets the client identifier used to authenticate to the introspection endpoint.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param introspectionClientId to be set
+     * @since 2026-10-18
+     */
+    public void setIntrospectionClientId(String introspectionClientId) {
+        this.introspectionClientId = introspectionClientId;
+    }
+
+    @Override
+    public Optional<String> getIntrospectionClientId() {
+        return Optional.ofNullable(introspectionClientId);
+    }
+
+    /**
+     * Sets the client secret used to authenticate to the introspection endpoint.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param introspectionClientSecret to be set
+     * @since 2026-10-18
+     */
+    public void setIntrospectionClientSecret(String introspectionClientSecret) {
+        this.introspectionClientSecret = introspectionClientSecret;
+    }
+
+    @Override
+    public Optional<String> getIntrospectionClientSecret() {
+        return Optional.ofNullable(introspectionClientSecret);
+    }
+
+    /**
+     * Sets the maximum number of introspection responses kept in the introspection cache.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param introspectionCacheSize to be set, must not be less than 0
+     * @since 2026-10-18
+     */
+    public void setIntrospectionCacheSize(int introspectionCacheSize) {
+        this.introspectionCacheSize = introspectionCacheSize;
+    }
+
+    @Override
+    public int getIntrospectionCacheSize() {
+        return introspectionCacheSize;
+    }
+
+    /**
+     * Sets the duration, in milliseconds, for which an introspection response is cached.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param introspectionCacheTimeToLive to be set, must be greater than 0
+     * @since 2026-10-18
+     */
+    public void setIntrospectionCacheTimeToLive(long introspectionCacheTimeToLive) {
+        this.introspectionCacheTimeToLive = introspectionCacheTimeToLive;
+    }
+
+    @Override
+    public long getIntrospectionCacheTimeToLive() {
+        return introspectionCacheTimeToLive;
+    }
+
+    /**
+     * Sets the maximum number of recently rejected tokens kept in the rejected token cache. A value
+     * of 0 disables the cache.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param rejectionCacheSize to be set, must not be less than 0
+     * @since 2026-10-18
+     */
+    public void setRejectionCacheSize(int rejectionCacheSize) {
+        this.rejectionCacheSize = rejectionCacheSize;
+    }
+
+    @Override
+    public int getRejectionCacheSize() {
+        return rejectionCacheSize;
+    }
+
+    /**
+     * Sets the duration, in milliseconds, for which a rejected token is kept in the rejected token
+     * cache.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param rejectionCacheTimeToLive to be set, must be greater than 0
+     * @since 2026-10-18
+     */
+    public void setRejectionCacheTimeToLive(long rejectionCacheTimeToLive) {
+        this.rejectionCacheTimeToLive = rejectionCacheTimeToLive;
+    }
+
+    @Override
+    public long getRejectionCacheTimeToLive() {
+        return rejectionCacheTimeToLive;
+    }
+
+    /**
+     * Sets whether tokens are pre-checked before their signature is verified.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param tokenPrecheckEnabled to be set
+     * @since 2026-10-18
+     */
+    public void setTokenPrecheckEnabled(boolean tokenPrecheckEnabled) {
+        this.tokenPrecheckEnabled = tokenPrecheckEnabled;
+    }
+
+    @Override
+    public boolean isTokenPrecheckEnabled() {
+        return tokenPrecheckEnabled;
+    }
+
+    /**
+     * Sets the maximum length, in characters, of a token accepted by the {@link JWTProcessor}.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param maximumTokenLength to be set, must be greater than 0
+     * @since 2026-10-18
+     */
+    public void setMaximumTokenLength(int maximumTokenLength) {
+        this.maximumTokenLength = maximumTokenLength;
+    }
+
+    @Override
+    public int getMaximumTokenLength() {
+        return maximumTokenLength;
+    }
+
+    /**
+     * Sets whether the {@link JWTProcessor} maintains {@link ProcessorMetrics}.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param metricsEnabled to be set
+     * @since 2026-10-18
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Sets the {@link Executor} used by {@link JWTProcessor#processAll(java.util.Collection)} to
+     * verify tokens in parallel.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param executor to be set, must not be {@code null}
+     * @since 2026-10-18
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = requireNonNull(executor, "executor must not be null");
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return executor == null ? ProcessorExecutors.defaultExecutor() : executor;
+    }
+
+    /**
+     * Sets the {@link Executor} used by {@link JWTProcessor#processAsync(String)} to process tokens
+     * which can't be processed without blocking. Since such tasks mostly wait on I/O, an executor
+     * backed by virtual threads is a good fit on Java 21 and later.
+     * <p>
+     * Once the {@link JWTProcessor} is constructed, invocation of this method will have no effect
+     * on the constructed {@link JWTProcessor} instance.
+     *
+     * @param asyncExecutor to be set, must not be {@code null}
+     * @see ProcessorExecutors#newVirtualThreadExecutor()
+     * @since 2026-10-18
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = requireNonNull(asyncExecutor, "asyncExecutor must not be null");
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor == null ? ProcessorExecutors.defaultExecutor() : asyncExecutor;
+    }
 }
@@ -0,0 +1,84 @@
+package com.nsoft.api.security.jwt.verifier;
+
+/**
+ * Extracts Bearer tokens from {@code Authorization} header values as described in RFC 6750.
+ * <p>
+ * The scheme is matched case-insensitively and whitespace surrounding the header value, as well as
+ * additional whitespace between the scheme and the token, is tolerated. The header value is scanned
+ * once and the only allocated object is the returned token.
+ *
+ * @since 2026-10-18
+ */
+public final class BearerToken {
+
+    /**
+     * Name of the HTTP header carrying the Bearer token
+     */
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+
+    private static final String SCHEME = "bearer";
+
+    private BearerToken() {
+    }
+
+    /**
+     * Extracts the Bearer token from the specified {@code Authorization} header value. If the value
+     * is missing, uses another scheme or doesn't contain a well-formed token, {@code null} will be
+     * returned
+     *
+     * @param authorizationHeader {@code Authorization} header value, may be {@code null}
+     * @return extracted token, {@code null} if the header doesn't contain a Bearer token
+     */
+    public static String extract(final String authorizationHeader) {
+        if (authorizationHeader == null) {
+            return null;
+        }
+
+        final int length = authorizationHeader.length();
+        int position = skipWhitespace(authorizationHeader, 0);
+
+        if (!authorizationHeader.regionMatches(true, position, SCHEME, 0, SCHEME.length())) {
+            return null;
+        }
+
+        position += SCHEME.length();
+
+        // The scheme must be separated from the token by at least one space
+        final int tokenStart = skipWhitespace(authorizationHeader, position);
+
+        if (tokenStart == position || tokenStart == length) {
+            return null;
+        }
+
+        int tokenEnd = tokenStart;
+
+        while (tokenEnd < length && isTokenCharacter(authorizationHeader.charAt(tokenEnd))) {
+            tokenEnd++;
+        }
+
+        // b64token may only end with padding characters
+        while (tokenEnd < length && authorizationHeader.charAt(tokenEnd) == '=') {
+            tokenEnd++;
+        }
+
+        if (skipWhitespace(authorizationHeader, tokenEnd) != length) {
+            return null;
+        }
+
+        return authorizationHeader.substring(tokenStart, tokenEnd);
+    }
+
+    private static int skipWhitespace(final String value, int position) {
+        while (position < value.length()
+                && (value.charAt(position) == ' ' || value.charAt(position) == '\t')) {
+            position++;
+        }
+
+        return position;
+    }
+
+    private static boolean isTokenCharacter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~' || c == '+' || c == '/';
+    }
+}
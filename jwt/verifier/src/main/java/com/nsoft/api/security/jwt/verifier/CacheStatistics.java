@@ -0,0 +1,81 @@
+package com.nsoft.api.security.jwt.verifier;
+
+/**
+ * A read-only view of the counters maintained by a cache used internally by a {@link
+ * JWTProcessor}.
+ * <p>
+ * The counters are updated concurrently and are not guaranteed to be consistent with each other at
+ * any given point in time. They are intended for monitoring purposes only.
+ *
+ * @since 2026-10-18
+ */
+public interface CacheStatistics {
+
+    /**
+     * Returns the number of lookups that were served from the cache.
+     *
+     * @return number of cache hits
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups that could not be served from the cache, either because the
+     * entry was never cached or because it has expired.
+     *
+     * @return number of cache misses
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of entries that were evicted from the cache in order to respect the
+     * configured maximum size.
+     *
+     * @return number of size based evictions
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the approximate number of entries currently held by the cache, including entries
+     * which have expired but were not yet removed.
+     *
+     * @return approximate cache size
+     */
+    int getSize();
+
+    /**
+     * Returns a {@link CacheStatistics} instance which reports zero for every counter. Used when
+     * the cache in question is disabled.
+     *
+     * @return {@link CacheStatistics} of a disabled cache
+     */
+    static CacheStatistics disabled() {
+        return DisabledCacheStatistics.INSTANCE;
+    }
+
+    /**
+     * {@link CacheStatistics} reported by disabled caches.
+     */
+    enum DisabledCacheStatistics implements CacheStatistics {
+        INSTANCE;
+
+        @Override
+        public long getHitCount() {
+            return 0;
+        }
+
+        @Override
+        public long getMissCount() {
+            return 0;
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return 0;
+        }
+
+        @Override
+        public int getSize() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.nsoft.api.security.jwt.verifier;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A declarative description of the claims a token must contain to be accepted by a {@link
+ * JWTProcessor}.
+ * <p>
+ * A policy is immutable and is created using a {@link Builder}:
+ * <pre>
+ * ClaimPolicy policy = ClaimPolicy.builder()
+ *         .allowedIssuers("https://accounts.nsoft.com", "https://accounts.nsoft.dev")
+ *         .acceptedAudiences("orders-api")
+ *         .requiredClaims("sub", "exp")
+ *         .maximumTokenAge(3_600_000)
+ *         .build();
+ * </pre>
+ * The policy is compiled once, when the {@link JWTProcessor} is constructed, into a sequence of
+ * checks containing only the constraints which were actually specified, so processing a token
+ * doesn't involve looking up the policy again.
+ *
+ * @since 2026-10-18
+ */
+public final class ClaimPolicy {
+
+    /**
+     * The default clock skew, in milliseconds, tolerated when verifying time claims
+     */
+    public static final long DEFAULT_CLOCK_SKEW = 60_000;
+
+    /**
+     * A policy without constraints besides verifying the expiration and not before times of a
+     * token, if present, allowing for {@link #DEFAULT_CLOCK_SKEW the default clock skew}.
+     */
+    public static final ClaimPolicy DEFAULT = builder().build();
+
+    /**
+     * Value of {@link #getMaximumTokenAge()} if the age of a token isn't limited
+     */
+    public static final long UNLIMITED_TOKEN_AGE = Long.MAX_VALUE;
+
+    private final Set<String> allowedIssuers;
+    private final Set<String> acceptedAudiences;
+    private final Set<String> requiredClaims;
+    private final long maximumTokenAge;
+    private final long clockSkew;
+
+    private ClaimPolicy(Builder builder) {
+        this.allowedIssuers = unmodifiableCopy(builder.allowedIssuers);
+        this.acceptedAudiences = unmodifiableCopy(builder.acceptedAudiences);
+        this.requiredClaims = unmodifiableCopy(builder.requiredClaims);
+        this.maximumTokenAge = builder.maximumTokenAge;
+        this.clockSkew = builder.clockSkew;
+    }
+
+    /**
+     * Creates a new {@link Builder} without any constraints.
+     *
+     * @return new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the issuers of which the token issuer must be one. An empty set accepts any issuer.
+     *
+     * @return allowed issuers, never {@code null}
+     */
+    public Set<String> getAllowedIssuers() {
+        return allowedIssuers;
+    }
+
+    /**
+     * Returns the audiences of which the token audience must contain at least one. An empty set
+     * accepts tokens for any audience, including tokens without an audience.
+     *
+     * @return accepted audiences, never {@code null}
+     */
+    public Set<String> getAcceptedAudiences() {
+        return acceptedAudiences;
+    }
+
+    /**
+     * Returns the names of the claims which must be present in a token.
+     *
+     * @return required claim names, never {@code null}
+     */
+    public Set<String> getRequiredClaims() {
+        return requiredClaims;
+    }
+
+    /**
+     * Returns the maximum time, in milliseconds, since a token was issued at, or {@link
+     * #UNLIMITED_TOKEN_AGE} if the age of a token isn't limited. Tokens without an issued at time
+     * are rejected if the age is limited.
+     *
+     * @return maximum token age
+     */
+    public long getMaximumTokenAge() {
+        return maximumTokenAge;
+    }
+
+    /**
+     * Returns the clock skew, in milliseconds, tolerated when verifying time claims.
+     *
+     * @return tolerated clock skew
+     */
+    public long getClockSkew() {
+        return clockSkew;
+    }
+
+    private static Set<String> unmodifiableCopy(Set<String> set) {
+        return set.isEmpty() ? Collections.emptySet()
+                : Collections.unmodifiableSet(new LinkedHashSet<>(set));
+    }
+
+    /**
+     * A builder of {@link ClaimPolicy} instances. Builders aren't thread safe.
+     *
+     * @since 2026-10-18
+     */
+    public static final class Builder {
+
+        private final Set<String> allowedIssuers = new LinkedHashSet<>();
+        private final Set<String> acceptedAudiences = new LinkedHashSet<>();
+        private final Set<String> requiredClaims = new LinkedHashSet<>();
+        private long maximumTokenAge = UNLIMITED_TOKEN_AGE;
+        private long clockSkew = DEFAULT_CLOCK_SKEW;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds issuers to the set of allowed issuers.
+         *
+         * @param issuers to be allowed, must not be {@code null}
+         * @return this builder
+         */
+        public Builder allowedIssuers(String... issuers) {
+            requireNonNull(issuers, "issuers must not be null");
+
+            return allowedIssuers(Arrays.asList(issuers));
+        }
+
+        /**
+         * Adds issuers to the set of allowed issuers.
+         *
+         * @param issuers to be allowed, must not be {@code null} nor contain {@code null} elements
+         * @return this builder
+         */
+        public Builder allowedIssuers(Collection<String> issuers) {
+            addAll(allowedIssuers, issuers, "issuers");
+            return this;
+        }
+
+        /**
+         * Adds audiences to the set of accepted audiences.
+         *
+         * @param audiences to be accepted, must not be {@code null}
+         * @return this builder
+         */
+        public Builder acceptedAudiences(String... audiences) {
+            requireNonNull(audiences, "audiences must not be null");
+
+            return acceptedAudiences(Arrays.asList(audiences));
+        }
+
+        /**
+         * Adds audiences to the set of accepted audiences.
+         *
+         * @param audiences to be accepted, must not be {@code null} nor contain {@code null}
+         *                  elements
+         * @return this builder
+         */
+        public Builder acceptedAudiences(Collection<String> audiences) {
+            addAll(acceptedAudiences, audiences, "audiences");
+            return this;
+        }
+
+        /**
+         * Adds claims to the set of claims which must be present in a token.
+         *
+         * @param claims names of the required claims, must not be {@code null}
+         * @return this builder
+         */
+        public Builder requiredClaims(String... claims) {
+            requireNonNull(claims, "claims must not be null");
+
+            return requiredClaims(Arrays.asList(claims));
+        }
+
+        /**
+         * Adds claims to the set of claims which must be present in a token.
+         *
+         * @param claims names of the required claims, must not be {@code null} nor contain {@code
+         *               null} elements
+         * @return this builder
+         */
+        public Builder requiredClaims(Collection<String> claims) {
+            addAll(requiredClaims, claims, "claims");
+            return this;
+        }
+
+        /**
+         * Sets the maximum time, in milliseconds, since a token was issued at.
+         *
+         * @param maximumTokenAge to be set, must be greater than 0
+         * @return this builder
+         */
+        public Builder maximumTokenAge(long maximumTokenAge) {
+            if (maximumTokenAge <= 0) {
+                throw new IllegalArgumentException("maximumTokenAge must be greater than 0");
+            }
+
+            this.maximumTokenAge = maximumTokenAge;
+            return this;
+        }
+
+        /**
+         * Sets the clock skew, in milliseconds, tolerated when verifying time claims.
+         *
+         * @param clockSkew to be set, must not be less than 0
+         * @return this builder
+         */
+        public Builder clockSkew(long clockSkew) {
+            if (clockSkew < 0) {
+                throw new IllegalArgumentException("clockSkew must not be less than 0");
+            }
+
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        /**
+         * Creates a new {@link ClaimPolicy} with the constraints specified so far.
+         *
+         * @return new policy
+         */
+        public ClaimPolicy build() {
+            return new ClaimPolicy(this);
+        }
+
+        private static void addAll(Set<String> target, Collection<String> values, String name) {
+            requireNonNull(values, name + " must not be null");
+
+            for (String value : values) {
+                target.add(requireNonNull(value, name + " must not contain null elements"));
+            }
+        }
+    }
+}
@@ -7,17 +7,61 @@ package com.nsoft.api.security.jwt.verifier;
  * @since 2020-01-27
  */
 public enum JWSAlgorithm {
-    HS256,
-    HS384,
-    HS512,
-    RS256,
-    RS384,
-    RS512,
-    ES256,
-    ES384,
-    ES512,
-    PS256,
-    PS384,
-    PS512,
-    EdDSA
+    HS256(Family.HMAC),
+    HS384(Family.HMAC),
+    HS512(Family.HMAC),
+    RS256(Family.RSA),
+    RS384(Family.RSA),
+    RS512(Family.RSA),
+    ES256(Family.EC),
+    ES384(Family.EC),
+    ES512(Family.EC),
+    PS256(Family.RSA),
+    PS384(Family.RSA),
+    PS512(Family.RSA),
+    EdDSA(Family.EDDSA);
+
+    private final Family family;
+
+    JWSAlgorithm(Family family) {
+        this.family = family;
+    }
+
+    /**
+     * Returns the family this algorithm belongs to.
+     *
+     * @return algorithm family
+     * @since 2026-10-18
+     */
+    public Family getFamily() {
+        return family;
+    }
+
+    /**
+     * An enumerator of signing algorithm families, grouping algorithms verified with the same kind
+     * of key.
+     *
+     * @since 2026-10-18
+     */
+    public enum Family {
+        /**
+         * HMAC with SHA-2, verified with a symmetric secret
+         */
+        HMAC,
+
+        /**
+         * RSASSA-PKCS1-v1_5 and RSASSA-PSS, verified with an RSA public key
+         */
+        RSA,
+
+        /**
+         * ECDSA, verified with an EC public key
+         */
+        EC,
+
+        /**
+         * EdDSA, verified with an Ed25519 public key
+         */
+        EDDSA
+    }
 }
@@ -4,9 +4,16 @@ import static java.util.Objects.requireNonNull;
 
 import com.nsoft.api.security.jwt.verifier.exception.ProcessorInstantiationException;
 import com.nsoft.api.security.jwt.verifier.internal.DefaultJWTProcessor;
+import com.nsoft.api.security.jwt.verifier.internal.IntrospectionJWTProcessor;
+import com.nsoft.api.security.jwt.verifier.internal.MultiIssuerJWTProcessor;
 
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 /**
@@ -43,6 +50,68 @@ public interface JWTProcessor {
         return process(requireNonNull(tokenSupplier).get());
     }
 
+    /**
+     * Processes and verifies an OAuth2 access token without blocking the calling thread on I/O.
+     * The returned {@link CompletableFuture} completes with the same result {@link
+     * #process(String)} would return.
+     * <p>
+     * Implementations should complete the future on the calling thread when the token can be
+     * processed without blocking, for example when its result is cached, and use the {@link
+     * JWTProcessorConfiguration#getAsyncExecutor()} executor otherwise. The default implementation
+     * always processes the token on that executor.
+     *
+     * @param token OAuth2 access token, must not be {@code null}
+     * @return future completed with the {@link JWTClaimsSet} if the token is verified successfully
+     */
+    default CompletableFuture<Optional<JWTClaimsSet>> processAsync(String token) {
+        requireNonNull(token);
+
+        return CompletableFuture.supplyAsync(() -> process(token),
+                getConfiguration().getAsyncExecutor());
+    }
+
+    /**
+     * Processes and verifies a batch of OAuth2 access tokens. The returned list contains one
+     * result per token, in the iteration order of the specified collection. Each result is an
+     * {@link Optional<JWTClaimsSet>} if the corresponding token was verified successfully, or an
+     * empty {@link Optional} otherwise.
+     * <p>
+     * Implementations may verify the tokens in parallel on the {@link
+     * JWTProcessorConfiguration#getExecutor()} executor. The default implementation processes the
+     * tokens one by one on the calling thread.
+     *
+     * @param tokens OAuth2 access tokens, must not be {@code null} or contain {@code null} elements
+     * @return verification results in input order
+     */
+    default List<Optional<JWTClaimsSet>> processAll(Collection<String> tokens) {
+        final List<Optional<JWTClaimsSet>> results = new ArrayList<>(requireNonNull(tokens).size());
+
+        for (String token : tokens) {
+            results.add(process(token));
+        }
+
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Prepares the processor for processing tokens. The JSON Web Key Set is retrieved, and tokens
+     * signed with throwaway keys are verified through the same code path processed tokens take,
+     * so that the first processed tokens aren't slowed down by class loading, initialization of
+     * cryptographic providers or interpreted execution.
+     * <p>
+     * This method blocks until the warmup completes and may be invoked again if it fails. The
+     * default implementation does nothing and returns {@code true}.
+     *
+     * @param iterations number of synthetic tokens to verify per signing algorithm, must not be
+     * less than 0
+     * @return {@code true} if the JSON Web Key Set was retrieved and every synthetic token was
+     * verified
+     * @since 2026-10-18
+     */
+    default boolean warmUp(int iterations) {
+        return true;
+    }
+
     /**
      * Returns a configuration that should be used by {@link JWTProcessor} implementors during
      * processor construction and token validation.
@@ -51,6 +120,40 @@ public interface JWTProcessor {
      */
     JWTProcessorConfiguration getConfiguration();
 
+    /**
+     * Returns the statistics of the cache holding successfully verified tokens. If the processor
+     * doesn't cache verified tokens, statistics of a disabled cache are returned.
+     *
+     * @return verified token cache statistics
+     * @see JWTProcessorConfiguration#getTokenCacheSize()
+     */
+    default CacheStatistics getTokenCacheStatistics() {
+        return CacheStatistics.disabled();
+    }
+
+    /**
+     * Returns the statistics of the cache holding recently rejected tokens. If the processor
+     * doesn't cache rejected tokens, statistics of a disabled cache are returned.
+     *
+     * @return rejected token cache statistics
+     * @see JWTProcessorConfiguration#getRejectionCacheSize()
+     */
+    default CacheStatistics getRejectionCacheStatistics() {
+        return CacheStatistics.disabled();
+    }
+
+    /**
+     * Returns the metrics maintained by the processor while processing tokens. If the processor
+     * doesn't maintain metrics, metrics which report zero for every value are returned.
+     *
+     * @return processor metrics
+     * @see JWTProcessorConfiguration#isMetricsEnabled()
+     * @since 2026-10-18
+     */
+    default ProcessorMetrics getMetrics() {
+        return ProcessorMetrics.disabled();
+    }
+
     /**
      * A factory method used to construct a default {@link JWTProcessor} implementation from a
      * {@link JWTProcessorConfiguration}.
@@ -64,4 +167,54 @@ public interface JWTProcessor {
             throw new ProcessorInstantiationException();
         }
     }
+
+    /**
+     * A factory method used to construct a {@link JWTProcessor} which accepts tokens from several
+     * issuers, one per {@link JWTProcessorConfiguration}.
+     * <p>
+     * Every configuration must specify a distinct issuer. The issuer of a token is read before the
+     * token is verified, and the token is processed according to the configuration of that issuer
+     * only, so the cost of processing a token doesn't depend on the number of configurations.
+     * Tokens issued by an unknown issuer are rejected. A separate JWKS and separate caches are
+     * maintained for every issuer, starting with the first token of that issuer.
+     *
+     * @param configurations one configuration per trusted issuer, must not be empty
+     * @return {@link JWTProcessor} accepting tokens from all configured issuers
+     * @since 2026-10-18
+     */
+    static JWTProcessor fromConfigurations(
+            final Collection<? extends JWTProcessorConfiguration> configurations) {
+        try {
+            return new MultiIssuerJWTProcessor(configurations);
+        } catch (MalformedURLException e) {
+            throw new ProcessorInstantiationException();
+        }
+    }
+
+    /**
+     * A factory method used to construct a {@link JWTProcessor} which validates opaque tokens by
+     * introspecting them at the endpoint returned by {@link
+     * JWTProcessorConfiguration#getIntrospectionUrl()}, as specified by RFC 7662.
+     * <p>
+     * A token is accepted if the endpoint reports it as active and the introspection response
+     * satisfies the configured issuer and {@link JWTProcessorConfiguration#getClaimPolicy() claim
+     * policy}, like the claims of a signed token would have to. The returned {@link JWTClaimsSet}
+     * contains the members of the introspection response. Responses are cached
+     * according to {@link JWTProcessorConfiguration#getIntrospectionCacheSize()} and {@link
+     * JWTProcessorConfiguration#getIntrospectionCacheTimeToLive()}, and concurrent lookups of the
+     * same token share a single introspection request, so only a small fraction of processed
+     * tokens reach the endpoint.
+     *
+     * @param configuration configuration specifying the introspection endpoint
+     * @return {@link JWTProcessor} introspecting tokens
+     * @since 2026-10-18
+     */
+    static JWTProcessor fromIntrospectionConfiguration(
+            final JWTProcessorConfiguration configuration) {
+        try {
+            return new IntrospectionJWTProcessor(configuration);
+        } catch (MalformedURLException e) {
+            throw new ProcessorInstantiationException();
+        }
+    }
 }
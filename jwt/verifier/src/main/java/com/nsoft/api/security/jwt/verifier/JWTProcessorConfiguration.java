@@ -1,6 +1,12 @@
 package com.nsoft.api.security.jwt.verifier;
 
+import java.nio.file.Path;
+import java.security.Provider;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * A configuration object used by {@link JWTProcessor} during construction and token verification.
@@ -9,8 +15,22 @@ import java.util.Optional;
  * <ul>
  *     <li>JSON Web Key Set URL</li>
  *     <li>Issuer that should've signed the token being processed</li>
- *     <li>The algorithm that should've been used for token signing</li>
+ *     <li>The algorithms that may have been used for token signing</li>
+ *     <li>Claims a token must contain to be accepted</li>
+ *     <li>Security providers used for signature verification</li>
+ *     <li>Caching behaviour of successfully verified and rejected tokens</li>
+ *     <li>Background refresh behaviour of the JSON Web Key Set</li>
+ *     <li>Persistence of the JSON Web Key Set across restarts</li>
+ *     <li>Revocation of tokens before they expire</li>
+ *     <li>Introspection of opaque tokens and caching of introspection responses</li>
+ *     <li>Pre-verification checks applied before a token signature is verified</li>
+ *     <li>Metrics maintained while processing tokens</li>
+ *     <li>Executors used for batch and asynchronous token processing</li>
  * </ul>
+ * <p>
+ * Settings added since the initial release have default getters returning the same defaults as
+ * {@link AbstractJWTProcessorConfiguration}, so existing implementations keep compiling. They
+ * are changed through the setters of {@link AbstractJWTProcessorConfiguration}.
  *
  * @author Mislav Milicevic
  * @since 2019-10-01
@@ -19,6 +39,11 @@ public interface JWTProcessorConfiguration {
 
     /**
      * Returns the JSON Web Key Set (JWKS) URL (ex. https://accounts.nsoft.com/.well-known/jwks.json)
+     * <p>
+     * A {@code file} URL (ex. file:///etc/rsp4j/jwks.json) may be used to read the keys from the
+     * local file system instead. The file may contain a JWKS, PEM encoded public keys or
+     * certificates, or a symmetric secret, and is reloaded whenever it changes. Refresh related
+     * settings don't apply to such key sets.
      *
      * @return JSON Web Key Set URL
      */
@@ -36,12 +61,27 @@ public interface JWTProcessorConfiguration {
 
     /**
      * Returns the {@link JWSAlgorithm} that needs to match the algorithm used to sign the token
-     * that is being processed.
+     * that is being processed, unless {@link #getSigningAlgorithms()} is overridden.
      *
      * @return required token signing algorithm
      */
     JWSAlgorithm getSigningAlgorithm();
 
+    /**
+     * Returns every {@link JWSAlgorithm} accepted for tokens being processed. Each token is
+     * verified only with keys matching the algorithm in its header, so accepting more than one
+     * algorithm, for example while migrating from one algorithm to another, doesn't make
+     * verification of any single token more expensive.
+     * <p>
+     * The default implementation returns a set containing only {@link #getSigningAlgorithm()}.
+     *
+     * @return accepted token signing algorithms
+     * @since 2026-10-18
+     */
+    default Set<JWSAlgorithm> getSigningAlgorithms() {
+        return Collections.singleton(getSigningAlgorithm());
+    }
+
     /**
      * Returns the connect timeout duration used by the {@link JWTProcessor} when refreshing the
      * local JWKS cache.
@@ -79,4 +119,315 @@ public interface JWTProcessorConfiguration {
      * @param readTimeout to be set, must not be less than 0
      */
     void setReadTimeout(int readTimeout);
+
+    /**
+     * Returns the maximum number of successfully verified tokens kept in the verified token cache.
+     * A value of 0 disables the cache.
+     * <p>
+     * While cached, repeated occurrences of the same token are answered without parsing or
+     * verifying the token again. A cached token is never served after its expiration time or
+     * after the duration returned by {@link #getTokenCacheTimeToLive()}, whichever comes first.
+     *
+     * @return maximum number of cached tokens
+     * @since 2026-10-18
+     */
+    default int getTokenCacheSize() {
+        return 0;
+    }
+
+    /**
+     * Returns the maximum duration, in milliseconds, for which a successfully verified token is
+     * kept in the verified token cache. Tokens which expire sooner are evicted at their expiration
+     * time.
+     *
+     * @return verified token cache time to live
+     * @since 2026-10-18
+     */
+    default long getTokenCacheTimeToLive() {
+        return 300_000;
+    }
+
+    /**
+     * Returns the interval, in milliseconds, at which the {@link JWTProcessor} refreshes the local
+     * JWKS cache in the background.
+     *
+     * @return JWKS refresh interval
+     * @since 2026-10-18
+     */
+    default long getJWKSRefreshInterval() {
+        return 300_000;
+    }
+
+    /**
+     * Returns the maximum random deviation, in milliseconds, applied to every background JWKS
+     * refresh. Jitter prevents multiple instances from refreshing at the exact same time.
+     *
+     * @return JWKS refresh jitter
+     * @since 2026-10-18
+     */
+    default long getJWKSRefreshJitter() {
+        return 30_000;
+    }
+
+    /**
+     * Returns the maximum age, in milliseconds, of the local JWKS cache. While background refreshes
+     * are failing, the last successfully fetched JWKS is used until it reaches this age. Once it
+     * does, the JWKS is fetched while processing the next token.
+     *
+     * @return maximum JWKS staleness
+     * @since 2026-10-18
+     */
+    default long getJWKSMaximumStaleness() {
+        return 3_600_000;
+    }
+
+    /**
+     * Returns the minimum interval, in milliseconds, between two consecutive JWKS fetches caused by
+     * tokens referencing an unknown key ID. Tokens with an unknown key ID received within this
+     * interval are rejected without fetching the JWKS again.
+     *
+     * @return minimum JWKS refetch interval
+     * @since 2026-10-18
+     */
+    default long getJWKSMinimumRefetchInterval() {
+        return 10_000;
+    }
+
+    /**
+     * Returns an {@link Optional} instance which may contain the file the last retrieved JSON Web
+     * Key Set is persisted to. If present, the persisted JWKS is loaded when the {@link
+     * JWTProcessor} is constructed and used until the JWKS is retrieved again, so tokens can be
+     * verified right after a restart, even if the JWKS can't be retrieved at that time.
+     * <p>
+     * If the {@link Optional} instance is empty, the JWKS isn't persisted.
+     *
+     * @return {@link Optional}, can contain the JWKS snapshot file or be empty
+     * @since 2026-10-18
+     */
+    default Optional<Path> getJWKSSnapshotFile() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the maximum age, in milliseconds, of a persisted JSON Web Key Set which is still
+     * loaded when the {@link JWTProcessor} is constructed. Older snapshots are ignored.
+     *
+     * @return maximum JWKS snapshot age
+     * @since 2026-10-18
+     */
+    default long getJWKSSnapshotMaximumAge() {
+        return 86_400_000;
+    }
+
+    /**
+     * Returns the {@link ClaimPolicy} the claims of a token must satisfy, in addition to the issuer
+     * returned by {@link #getIssuer()}, to be accepted. Defaults to {@link ClaimPolicy#DEFAULT}.
+     * <p>
+     * The policy is compiled once when the {@link JWTProcessor} is constructed, so tokens returned
+     * by the processor don't need to be checked against the same constraints again.
+     *
+     * @return claim policy, never {@code null}
+     * @since 2026-10-18
+     */
+    default ClaimPolicy getClaimPolicy() {
+        return ClaimPolicy.DEFAULT;
+    }
+
+    /**
+     * Returns the {@link Provider security providers} used to verify token signatures, by
+     * algorithm family. Signatures of algorithm families without a provider are verified with the
+     * default provider of the JVM.
+     * <p>
+     * The cost of signature verification varies considerably between providers, for example
+     * {@code SunRsaSign}, {@code SunEC} and {@code BC}, and depends on the JVM and the CPU, so
+     * the fastest provider is best chosen by measurement. A provider configured for
+     * {@link JWSAlgorithm.Family#EDDSA} must support the {@code Ed25519} algorithm.
+     *
+     * @return security providers by algorithm family, never {@code null}
+     * @since 2026-10-18
+     */
+    default Map<JWSAlgorithm.Family, Provider> getSecurityProviders() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns an {@link Optional} instance which may contain the revocation snapshot file. Tokens
+     * revoked by the snapshot, or by delta files next to it, are rejected even though they are
+     * otherwise valid.
+     * <p>
+     * A snapshot starts with a {@code rsp4j-revocations 1 <version>} header line, followed by one
+     * revocation per line, either {@code jti <JWT ID>} or {@code sub <issued at> <subject>} with
+     * the issued at time in seconds. Delta files are named after the snapshot followed by {@code
+     * .delta.<version>}, start with a {@code rsp4j-revocations-delta 1 <version>} header, and may
+     * remove revocations using lines prefixed with {@code -}. The files are checked for changes
+     * periodically.
+     * <p>
+     * If the {@link Optional} instance is empty, tokens aren't checked for revocation.
+     *
+     * @return {@link Optional}, can contain the revocation snapshot file or be empty
+     * @since 2026-10-18
+     */
+    default Optional<Path> getRevocationFile() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the interval, in milliseconds, at which the revocation snapshot and delta files are
+     * checked for changes.
+     *
+     * @return revocation refresh interval
+     * @since 2026-10-18
+     */
+    default long getRevocationRefreshInterval() {
+        return 10_000;
+    }
+
+    /**
+     * Returns an {@link Optional} instance which may contain the OAuth 2.0 token introspection
+     * endpoint URL (ex. https://accounts.nsoft.com/oauth2/introspect), as specified by RFC 7662.
+     * <p>
+     * The endpoint is only used by processors constructed with {@link
+     * JWTProcessor#fromIntrospectionConfiguration(JWTProcessorConfiguration)}, which validate
+     * opaque tokens by introspecting them instead of verifying their signature.
+     *
+     * @return {@link Optional}, can contain the introspection endpoint URL or be empty
+     * @since 2026-10-18
+     */
+    default Optional<String> getIntrospectionUrl() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns an {@link Optional} instance which may contain the client identifier used to
+     * authenticate to the introspection endpoint with HTTP Basic authentication. If the {@link
+     * Optional} instance is empty, introspection requests are sent unauthenticated.
+     *
+     * @return {@link Optional}, can contain the introspection client identifier or be empty
+     * @since 2026-10-18
+     */
+    default Optional<String> getIntrospectionClientId() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns an {@link Optional} instance which may contain the client secret used together with
+     * {@link #getIntrospectionClientId()} to authenticate to the introspection endpoint.
+     *
+     * @return {@link Optional}, can contain the introspection client secret or be empty
+     * @since 2026-10-18
+     */
+    default Optional<String> getIntrospectionClientSecret() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the maximum number of introspection responses kept in the introspection cache. A
+     * value of 0 disables the cache, in which case every processed token is introspected.
+     *
+     * @return maximum number of cached introspection responses
+     * @since 2026-10-18
+     */
+    default int getIntrospectionCacheSize() {
+        return 10_000;
+    }
+
+    /**
+     * Returns the duration, in milliseconds, for which an introspection response is cached. A
+     * response for an active token is never cached beyond the expiration time of the token.
+     *
+     * @return introspection cache time to live
+     * @since 2026-10-18
+     */
+    default long getIntrospectionCacheTimeToLive() {
+        return 60_000;
+    }
+
+    /**
+     * Returns the maximum number of recently rejected tokens kept in the rejected token cache. A
+     * value of 0 disables the cache.
+     * <p>
+     * While cached, repeated occurrences of the same rejected token are rejected again without
+     * being parsed. Tokens rejected because no matching key was found or because the JWKS couldn't
+     * be retrieved are never cached, since they may be accepted once the JWKS changes. Neither are
+     * tokens rejected because their not before time hasn't passed yet.
+     *
+     * @return maximum number of cached rejected tokens
+     * @since 2026-10-18
+     */
+    default int getRejectionCacheSize() {
+        return 0;
+    }
+
+    /**
+     * Returns the duration, in milliseconds, for which a rejected token is kept in the rejected
+     * token cache.
+     *
+     * @return rejected token cache time to live
+     * @since 2026-10-18
+     */
+    default long getRejectionCacheTimeToLive() {
+        return 30_000;
+    }
+
+    /**
+     * Returns whether tokens are pre-checked before their signature is verified. The pre-check
+     * rejects oversized and malformed tokens, tokens signed with an unexpected algorithm or an
+     * unknown key, as well as expired and not yet valid tokens, without performing any
+     * cryptographic operations.
+     *
+     * @return {@code true} if the pre-check is enabled
+     * @since 2026-10-18
+     */
+    default boolean isTokenPrecheckEnabled() {
+        return true;
+    }
+
+    /**
+     * Returns the maximum length, in characters, of a token accepted by the {@link JWTProcessor}.
+     * Longer tokens are rejected by the pre-check.
+     *
+     * @return maximum token length
+     * @since 2026-10-18
+     */
+    default int getMaximumTokenLength() {
+        return 8192;
+    }
+
+    /**
+     * Returns whether the {@link JWTProcessor} maintains {@link ProcessorMetrics}, which count
+     * accepted and rejected tokens and JWKS retrievals, and record the duration of every {@link
+     * ProcessingStage}. If disabled, the processor doesn't read the clock while processing tokens.
+     *
+     * @return {@code true} if metrics are enabled
+     * @see JWTProcessor#getMetrics()
+     * @since 2026-10-18
+     */
+    default boolean isMetricsEnabled() {
+        return false;
+    }
+
+    /**
+     * Returns the {@link Executor} used by {@link JWTProcessor#processAll(java.util.Collection)}
+     * to verify tokens in parallel. Defaults to an executor shared by all processors, which is
+     * backed by virtual threads on Java 21 and later, or by a bounded pool of daemon threads.
+     *
+     * @return executor used for batch verification
+     * @since 2026-10-18
+     */
+    default Executor getExecutor() {
+        return ProcessorExecutors.defaultExecutor();
+    }
+
+    /**
+     * Returns the {@link Executor} used by {@link JWTProcessor#processAsync(String)} to process
+     * tokens which can't be processed without blocking, for example because the JSON Web Key Set
+     * has to be retrieved first. Defaults to the same shared executor as {@link #getExecutor()}.
+     *
+     * @return executor used for asynchronous processing
+     * @see ProcessorExecutors#newVirtualThreadExecutor()
+     * @since 2026-10-18
+     */
+    default Executor getAsyncExecutor() {
+        return ProcessorExecutors.defaultExecutor();
+    }
 }
@@ -0,0 +1,43 @@
+package com.nsoft.api.security.jwt.verifier;
+
+/**
+ * A read-only view of the distribution of durations recorded by a {@link JWTProcessor}.
+ * <p>
+ * Durations are recorded concurrently without locking, into buckets whose width grows with the
+ * duration, so percentiles are accurate to within 12.5%. Like {@link CacheStatistics}, the values
+ * are not guaranteed to be consistent with each other at any given point in time.
+ *
+ * @since 2026-10-18
+ */
+public interface LatencyHistogram {
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return number of recorded durations
+     */
+    long getCount();
+
+    /**
+     * Returns the sum of all recorded durations in nanoseconds.
+     *
+     * @return total recorded time
+     */
+    long getTotalTime();
+
+    /**
+     * Returns the longest recorded duration in nanoseconds, 0 if none were recorded.
+     *
+     * @return maximum recorded duration
+     */
+    long getMaximum();
+
+    /**
+     * Returns the duration in nanoseconds which the specified percentage of the recorded durations
+     * doesn't exceed, 0 if none were recorded.
+     *
+     * @param percentile percentage between 0 and 100
+     * @return duration at the specified percentile
+     */
+    long getValueAtPercentile(double percentile);
+}
@@ -0,0 +1,51 @@
+package com.nsoft.api.security.jwt.verifier;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Adapts {@link ProcessorMetrics} to a metrics registry, such as Micrometer. Every meter is
+ * registered once by {@link ProcessorMetrics#registerWith(MetricsRegistrar)} and is expected to
+ * be read by the registry whenever it publishes its values, for example:
+ * <pre>
+ * processor.getMetrics().registerWith(new MetricsRegistrar() {
+ *
+ *     public void registerCounter(String name, Map&lt;String, String&gt; tags,
+ *             LongSupplier count) {
+ *         FunctionCounter.builder(name, count, LongSupplier::getAsLong)
+ *                 .tags(toTags(tags))
+ *                 .register(registry);
+ *     }
+ *
+ *     public void registerHistogram(String name, Map&lt;String, String&gt; tags,
+ *             LatencyHistogram histogram) {
+ *         FunctionTimer.builder(name, histogram, LatencyHistogram::getCount,
+ *                 LatencyHistogram::getTotalTime, TimeUnit.NANOSECONDS)
+ *                 .tags(toTags(tags))
+ *                 .register(registry);
+ *     }
+ * });
+ * </pre>
+ *
+ * @since 2026-10-18
+ */
+public interface MetricsRegistrar {
+
+    /**
+     * Registers a monotonically increasing counter.
+     *
+     * @param name  meter name
+     * @param tags  tags distinguishing meters of the same name, never {@code null}
+     * @param count supplier of the current count
+     */
+    void registerCounter(String name, Map<String, String> tags, LongSupplier count);
+
+    /**
+     * Registers a histogram of durations.
+     *
+     * @param name      meter name
+     * @param tags      tags distinguishing meters of the same name, never {@code null}
+     * @param histogram recorded durations
+     */
+    void registerHistogram(String name, Map<String, String> tags, LatencyHistogram histogram);
+}
@@ -0,0 +1,26 @@
+package com.nsoft.api.security.jwt.verifier;
+
+/**
+ * An enumerator describing the stages a token goes through while being verified by a {@link
+ * JWTProcessor}, each of which has its own {@link LatencyHistogram}.
+ *
+ * @since 2026-10-18
+ */
+public enum ProcessingStage {
+    /**
+     * Parsing the compact serialization of the token
+     */
+    PARSE,
+    /**
+     * Looking up the keys matching the token header, including retrieving the JWKS if needed
+     */
+    KEY_LOOKUP,
+    /**
+     * Verifying the token signature
+     */
+    SIGNATURE_VERIFICATION,
+    /**
+     * Parsing and verifying the token claims, including the revocation check
+     */
+    CLAIMS_VERIFICATION
+}
@@ -0,0 +1,120 @@
+package com.nsoft.api.security.jwt.verifier;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory methods for executors suitable for {@link
+ * AbstractJWTProcessorConfiguration#setAsyncExecutor(java.util.concurrent.Executor)}.
+ * <p>
+ * Virtual threads are looked up reflectively, so this library keeps running on Java 8 while being
+ * able to use them on Java 21 and later.
+ *
+ * @since 2026-10-18
+ */
+public final class ProcessorExecutors {
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR =
+            findVirtualThreadPerTaskExecutorFactory();
+
+    private static final int DEFAULT_POOL_SIZE =
+            Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private ProcessorExecutors() {
+    }
+
+    private static Method findVirtualThreadPerTaskExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the running JVM supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an {@link ExecutorService} which starts a new virtual thread for each task.
+     *
+     * @return virtual thread executor
+     * @throws UnsupportedOperationException if the running JVM doesn't support virtual threads
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads require Java 21 or later");
+        }
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Virtual threads are not available", e);
+        }
+    }
+
+    /**
+     * Creates an {@link ExecutorService} which starts a new virtual thread for each task if the
+     * running JVM supports virtual threads, or a cached thread pool of daemon threads otherwise.
+     *
+     * @return virtual thread executor, or a cached thread pool
+     */
+    public static ExecutorService newVirtualThreadExecutorOrCachedThreadPool() {
+        if (isVirtualThreadSupported()) {
+            return newVirtualThreadExecutor();
+        }
+
+        return Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "rsp4j-async-processor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the executor used by processors whose configuration doesn't specify one. It is
+     * backed by virtual threads if the running JVM supports them, or by a bounded pool of daemon
+     * threads otherwise, so that tasks blocking on the JSON Web Key Set don't occupy the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     */
+    static Executor defaultExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    private static ExecutorService newBoundedDaemonThreadPool() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_POOL_SIZE,
+                DEFAULT_POOL_SIZE, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "rsp4j-processor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Creates the default executor on first use only.
+     */
+    private static final class DefaultExecutor {
+
+        private static final ExecutorService INSTANCE = isVirtualThreadSupported()
+                ? newVirtualThreadExecutor() : newBoundedDaemonThreadPool();
+
+        private DefaultExecutor() {
+        }
+    }
+}
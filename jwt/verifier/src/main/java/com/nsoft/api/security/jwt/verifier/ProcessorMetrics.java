@@ -0,0 +1,184 @@
+package com.nsoft.api.security.jwt.verifier;
+
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * A read-only view of the metrics maintained by a {@link JWTProcessor} while processing tokens.
+ * <p>
+ * Metrics are only maintained if {@link JWTProcessorConfiguration#isMetricsEnabled()} returns
+ * {@code true}. Otherwise, processing a token doesn't even read the clock, and the processor
+ * reports {@link #disabled() disabled metrics} instead. Like {@link CacheStatistics}, the counters
+ * are updated concurrently and are intended for monitoring purposes only.
+ *
+ * @since 2026-10-18
+ */
+public interface ProcessorMetrics {
+
+    /**
+     * Returns the number of accepted tokens, including tokens served from the verified token
+     * cache.
+     *
+     * @return number of accepted tokens
+     */
+    long getAcceptedCount();
+
+    /**
+     * Returns the number of tokens rejected for the specified reason, including tokens served
+     * from the rejected token cache.
+     *
+     * @param reason rejection reason
+     * @return number of rejected tokens
+     */
+    long getRejectedCount(RejectionReason reason);
+
+    /**
+     * Returns the number of successful retrievals of the JSON Web Key Set, including retrievals
+     * answered with {@code 304 Not Modified}.
+     *
+     * @return number of successful JWKS retrievals
+     */
+    long getJWKSFetchCount();
+
+    /**
+     * Returns the number of failed retrievals of the JSON Web Key Set.
+     *
+     * @return number of failed JWKS retrievals
+     */
+    long getJWKSFetchFailureCount();
+
+    /**
+     * Returns the statistics of the verified token cache.
+     *
+     * @return verified token cache statistics
+     */
+    CacheStatistics getTokenCacheStatistics();
+
+    /**
+     * Returns the statistics of the rejected token cache.
+     *
+     * @return rejected token cache statistics
+     */
+    CacheStatistics getRejectionCacheStatistics();
+
+    /**
+     * Returns the durations of the specified processing stage. Tokens served from a cache don't
+     * go through any stage.
+     *
+     * @param stage processing stage
+     * @return durations of the processing stage
+     */
+    LatencyHistogram getLatency(ProcessingStage stage);
+
+    /**
+     * Registers every metric with the specified registrar, using names prefixed with {@code
+     * rsp4j.} and tags distinguishing rejection reasons, outcomes and stages.
+     *
+     * @param registrar adapter of a metrics registry, must not be {@code null}
+     */
+    default void registerWith(MetricsRegistrar registrar) {
+        registrar.registerCounter("rsp4j.tokens.accepted", Collections.emptyMap(),
+                this::getAcceptedCount);
+
+        for (RejectionReason reason : RejectionReason.values()) {
+            registrar.registerCounter("rsp4j.tokens.rejected",
+                    Collections.singletonMap("reason", reason.name().toLowerCase(Locale.ROOT)),
+                    () -> getRejectedCount(reason));
+        }
+
+        registrar.registerCounter("rsp4j.jwks.fetches",
+                Collections.singletonMap("outcome", "success"), this::getJWKSFetchCount);
+        registrar.registerCounter("rsp4j.jwks.fetches",
+                Collections.singletonMap("outcome", "failure"), this::getJWKSFetchFailureCount);
+
+        registrar.registerCounter("rsp4j.cache.hits", Collections.singletonMap("cache", "token"),
+                () -> getTokenCacheStatistics().getHitCount());
+        registrar.registerCounter("rsp4j.cache.misses",
+                Collections.singletonMap("cache", "token"),
+                () -> getTokenCacheStatistics().getMissCount());
+        registrar.registerCounter("rsp4j.cache.hits",
+                Collections.singletonMap("cache", "rejection"),
+                () -> getRejectionCacheStatistics().getHitCount());
+        registrar.registerCounter("rsp4j.cache.misses",
+                Collections.singletonMap("cache", "rejection"),
+                () -> getRejectionCacheStatistics().getMissCount());
+
+        for (ProcessingStage stage : ProcessingStage.values()) {
+            registrar.registerHistogram("rsp4j.processing.duration",
+                    Collections.singletonMap("stage", stage.name().toLowerCase(Locale.ROOT)),
+                    getLatency(stage));
+        }
+    }
+
+    /**
+     * Returns a {@link ProcessorMetrics} instance which reports zero for every metric. Used when
+     * metrics are disabled.
+     *
+     * @return {@link ProcessorMetrics} of a processor without metrics
+     */
+    static ProcessorMetrics disabled() {
+        return DisabledProcessorMetrics.INSTANCE;
+    }
+
+    /**
+     * {@link ProcessorMetrics} reported by processors without metrics.
+     */
+    enum DisabledProcessorMetrics implements ProcessorMetrics, LatencyHistogram {
+        INSTANCE;
+
+        @Override
+        public long getAcceptedCount() {
+            return 0;
+        }
+
+        @Override
+        public long getRejectedCount(RejectionReason reason) {
+            return 0;
+        }
+
+        @Override
+        public long getJWKSFetchCount() {
+            return 0;
+        }
+
+        @Override
+        public long getJWKSFetchFailureCount() {
+            return 0;
+        }
+
+        @Override
+        public CacheStatistics getTokenCacheStatistics() {
+            return CacheStatistics.disabled();
+        }
+
+        @Override
+        public CacheStatistics getRejectionCacheStatistics() {
+            return CacheStatistics.disabled();
+        }
+
+        @Override
+        public LatencyHistogram getLatency(ProcessingStage stage) {
+            return this;
+        }
+
+        @Override
+        public long getCount() {
+            return 0;
+        }
+
+        @Override
+        public long getTotalTime() {
+            return 0;
+        }
+
+        @Override
+        public long getMaximum() {
+            return 0;
+        }
+
+        @Override
+        public long getValueAtPercentile(double percentile) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.nsoft.api.security.jwt.verifier;
+
+/**
+ * An enumerator describing why a {@link JWTProcessor} rejected a token
+ *
+ * @since 2026-10-18
+ */
+public enum RejectionReason {
+    /**
+     * The token is not a well-formed JWT
+     */
+    MALFORMED,
+    /**
+     * The token is signed with an unexpected algorithm or no key matching the token was found
+     */
+    NO_MATCHING_KEY,
+    /**
+     * The token signature is invalid
+     */
+    INVALID_SIGNATURE,
+    /**
+     * The token claims failed verification, for example because the token expired or was issued
+     * by an unexpected issuer
+     */
+    INVALID_CLAIMS,
+    /**
+     * The token doesn't specify an issuer, or one none of the configurations of a multi-issuer
+     * processor expects
+     */
+    UNKNOWN_ISSUER,
+    /**
+     * The token is valid, but was revoked before it expired
+     */
+    REVOKED,
+    /**
+     * The keys needed to verify the token couldn't be retrieved
+     */
+    KEY_SOURCE_UNAVAILABLE,
+    /**
+     * The token couldn't be verified due to an unexpected error
+     */
+    VERIFICATION_ERROR
+}
@@ -0,0 +1,194 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import com.nimbusds.jwt.proc.BadJWTException;
+import com.nsoft.api.security.jwt.verifier.ClaimPolicy;
+import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link ClaimPolicy} compiled into a flat sequence of checks, together with the issuer of the
+ * {@link JWTProcessorConfiguration}.
+ * <p>
+ * Only the constraints which were actually specified become checks, their parameters are resolved
+ * once, and set memberships are tested against {@link HashSet hash sets}. Verifying a token then
+ * consists of running every check in order until one fails.
+ */
+final class ClaimsVerifier {
+
+    private static final String NOT_YET_VALID = "JWT before use time";
+
+    private final long clockSkew;
+    private final long maximumTokenAge;
+    private final ClaimCheck[] checks;
+
+    ClaimsVerifier(JWTProcessorConfiguration configuration) {
+        final ClaimPolicy policy = configuration.getClaimPolicy();
+
+        this.clockSkew = policy.getClockSkew();
+        this.maximumTokenAge = policy.getMaximumTokenAge();
+
+        final List<ClaimCheck> compiled = new ArrayList<>();
+
+        compiled.add(expirationTimeCheck(clockSkew));
+        compiled.add(notBeforeTimeCheck(clockSkew));
+
+        configuration.getIssuer().ifPresent(issuer -> compiled.add(issuerCheck(issuer)));
+
+        if (!policy.getAllowedIssuers().isEmpty()) {
+            compiled.add(allowedIssuersCheck(new HashSet<>(policy.getAllowedIssuers())));
+        }
+
+        if (!policy.getAcceptedAudiences().isEmpty()) {
+            compiled.add(audienceCheck(new HashSet<>(policy.getAcceptedAudiences())));
+        }
+
+        for (String claim : policy.getRequiredClaims()) {
+            compiled.add(requiredClaimCheck(claim));
+        }
+
+        if (maximumTokenAge != ClaimPolicy.UNLIMITED_TOKEN_AGE) {
+            compiled.add(tokenAgeCheck(maximumTokenAge, clockSkew));
+        }
+
+        this.checks = compiled.toArray(new ClaimCheck[0]);
+    }
+
+    /**
+     * Returns the clock skew tolerated when verifying time claims.
+     */
+    long getClockSkew() {
+        return clockSkew;
+    }
+
+    /**
+     * Verifies the claims of a token.
+     *
+     * @throws BadJWTException with the message of the first failed check
+     */
+    void verify(LazyJWTClaimsSet claimsSet, long now) throws BadJWTException {
+        for (ClaimCheck check : checks) {
+            final String failure = check.verify(claimsSet, now);
+
+            if (failure != null) {
+                throw failure == NOT_YET_VALID ? new NotYetValidJWTException()
+                        : new BadJWTException(failure);
+            }
+        }
+    }
+
+    /**
+     * Returns the time after which a token with the specified claims will no longer be accepted,
+     * or {@link LazyJWTClaimsSet#ABSENT} if it doesn't expire.
+     */
+    long getExpirationTime(LazyJWTClaimsSet claimsSet) {
+        final long expirationTime = claimsSet.getExpirationTimeMillis();
+        final long issueTime = claimsSet.getIssueTimeMillis();
+
+        if (maximumTokenAge == ClaimPolicy.UNLIMITED_TOKEN_AGE
+                || issueTime == LazyJWTClaimsSet.ABSENT) {
+            return expirationTime;
+        }
+
+        final long ageLimit = saturatedAdd(issueTime, maximumTokenAge);
+
+        return expirationTime == LazyJWTClaimsSet.ABSENT
+                ? ageLimit
+                : Math.min(expirationTime, ageLimit);
+    }
+
+    private static ClaimCheck expirationTimeCheck(long clockSkew) {
+        return (claimsSet, now) -> {
+            final long expirationTime = claimsSet.getExpirationTimeMillis();
+
+            return expirationTime != LazyJWTClaimsSet.ABSENT
+                    && saturatedAdd(expirationTime, clockSkew) <= now ? "Expired JWT" : null;
+        };
+    }
+
+    private static ClaimCheck notBeforeTimeCheck(long clockSkew) {
+        return (claimsSet, now) -> {
+            final long notBeforeTime = claimsSet.getNotBeforeTimeMillis();
+
+            return notBeforeTime != LazyJWTClaimsSet.ABSENT
+                    && saturatedAdd(notBeforeTime, -clockSkew) > now
+                    ? NOT_YET_VALID : null;
+        };
+    }
+
+    private static ClaimCheck issuerCheck(String issuer) {
+        return (claimsSet, now) ->
+                issuer.equals(claimsSet.getIssuer()) ? null : "Invalid token issuer";
+    }
+
+    private static ClaimCheck allowedIssuersCheck(Set<String> issuers) {
+        return (claimsSet, now) -> {
+            final String issuer = claimsSet.getIssuer();
+
+            return issuer != null && issuers.contains(issuer) ? null : "Invalid token issuer";
+        };
+    }
+
+    private static ClaimCheck audienceCheck(Set<String> audiences) {
+        return (claimsSet, now) -> {
+            for (String audience : claimsSet.getAudience()) {
+                if (audiences.contains(audience)) {
+                    return null;
+                }
+            }
+
+            return "Invalid token audience";
+        };
+    }
+
+    private static ClaimCheck requiredClaimCheck(String claim) {
+        final String failure = "Missing required claim " + claim;
+
+        return (claimsSet, now) -> claimsSet.containsClaim(claim) ? null : failure;
+    }
+
+    private static ClaimCheck tokenAgeCheck(long maximumTokenAge, long clockSkew) {
+        final long maximumAge = saturatedAdd(maximumTokenAge, clockSkew);
+
+        return (claimsSet, now) -> {
+            final long issueTime = claimsSet.getIssueTimeMillis();
+
+            if (issueTime == LazyJWTClaimsSet.ABSENT) {
+                return "Missing issue time";
+            }
+
+            return saturatedAdd(issueTime, maximumAge) < now ? "JWT too old" : null;
+        };
+    }
+
+    static long saturatedAdd(long a, long b) {
+        final long sum = a + b;
+
+        // Overflow only occurs if both operands have the same sign, which differs from the sum
+        return ((a ^ sum) & (b ^ sum)) < 0 ? (a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE) : sum;
+    }
+
+    /**
+     * Thrown when a token is not valid yet, it may be accepted once its not before time passed.
+     */
+    static final class NotYetValidJWTException extends BadJWTException {
+
+        private NotYetValidJWTException() {
+            super(NOT_YET_VALID);
+        }
+    }
+
+    /**
+     * A single check of a compiled policy.
+     */
+    private interface ClaimCheck {
+
+        /**
+         * Returns {@code null} if the claims pass the check, or the failure message otherwise.
+         */
+        String verify(LazyJWTClaimsSet claimsSet, long now);
+    }
+}
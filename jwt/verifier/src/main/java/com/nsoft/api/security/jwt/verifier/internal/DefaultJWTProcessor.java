@@ -1,97 +1,727 @@
 package com.nsoft.api.security.jwt.verifier.internal;
 
-import static com.nsoft.api.security.jwt.verifier.internal.SigningAlgorithmTranslator.toNimbusAlgorithm;
+import static com.nsoft.api.security.jwt.verifier.internal.SigningAlgorithmTranslator.toNimbusAlgorithms;
 import static java.util.Objects.requireNonNull;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
 import com.nimbusds.jose.proc.BadJOSEException;
-import com.nimbusds.jose.proc.JWSKeySelector;
-import com.nimbusds.jose.proc.JWSVerificationKeySelector;
-import com.nimbusds.jose.proc.SecurityContext;
-import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.BadJWTException;
-import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
-import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nsoft.api.security.jwt.verifier.CacheStatistics;
 import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
 import com.nsoft.api.security.jwt.verifier.JWTProcessor;
 import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.ProcessingStage;
+import com.nsoft.api.security.jwt.verifier.ProcessorMetrics;
+import com.nsoft.api.security.jwt.verifier.RejectionReason;
+import com.nsoft.api.security.jwt.verifier.internal.cache.TokenCache;
+import com.nsoft.api.security.jwt.verifier.internal.cache.TokenFingerprint;
+import com.nsoft.api.security.jwt.verifier.internal.crypto.VerifierFactory;
+import com.nsoft.api.security.jwt.verifier.internal.jfr.FlightRecorderEvents;
+import com.nsoft.api.security.jwt.verifier.internal.json.JsonScanner;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.HttpJWKSRetriever;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.JWKSRetriever;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.JWKSSnapshotStore;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.LocalJWKSource;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.RefreshingJWKSource;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.VerificationKeySource;
+import com.nsoft.api.security.jwt.verifier.internal.metrics.MetricsRecorder;
+import com.nsoft.api.security.jwt.verifier.internal.revocation.RevocationStore;
+import com.nsoft.api.security.jwt.verifier.internal.util.Base64UrlUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class DefaultJWTProcessor implements JWTProcessor {
 
-    private final Logger logger = LoggerFactory.getLogger(DefaultJWTProcessor.class);
+    private static final int MINIMUM_PARALLEL_BATCH_SIZE = 32;
 
-    private final ConfigurableJWTProcessor<SecurityContext> processor;
+    private final Logger logger = LoggerFactory.getLogger(DefaultJWTProcessor.class);
 
     private final JWTProcessorConfiguration configuration;
 
+    private final Set<com.nimbusds.jose.JWSAlgorithm> signingAlgorithms;
+    private final VerificationKeySource keySource;
+    private final ClaimsVerifier claimsVerifier;
+    private final RevocationStore revocations;
+
+    private final TokenPrecheck precheck;
+
+    private final Executor executor;
+    private final Executor asyncExecutor;
+
+    private final MetricsRecorder metrics;
+
+    private final TokenCache<LazyJWTClaimsSet> tokenCache;
+    private final long tokenCacheTimeToLive;
+
+    private final TokenCache<RejectionReason> rejectionCache;
+    private final long rejectionCacheTimeToLive;
+
     public DefaultJWTProcessor(final JWTProcessorConfiguration configuration)
             throws MalformedURLException {
+        this(configuration, createMetricsRecorder(configuration));
+    }
+
+    private DefaultJWTProcessor(final JWTProcessorConfiguration configuration,
+            final MetricsRecorder metrics) throws MalformedURLException {
+        this(configuration, createKeySource(configuration, metrics),
+                createRevocationStore(configuration), metrics);
+    }
+
+    /**
+     * Constructs a processor verifying tokens with the keys provided by the specified key source
+     * instead of the key source described by the configuration, checking them for revocation
+     * with the specified store, if any, and recording metrics with the specified recorder, if any.
+     */
+    DefaultJWTProcessor(final JWTProcessorConfiguration configuration,
+            final VerificationKeySource keySource, final RevocationStore revocations,
+            final MetricsRecorder metrics) {
         this.configuration = requireNonNull(configuration, "configuration must not be null");
 
-        requireNonNull(this.configuration.getJWKSUrl(), "getJWKSUrl() must not return null");
-        requireNonNull(this.configuration.getSigningAlgorithm(),
-                "getSigningAlgorithm() must not return null");
+        validateConfiguration(configuration);
+
+        this.tokenCache = configuration.getTokenCacheSize() == 0 ? null
+                : new TokenCache<>(configuration.getTokenCacheSize());
+        this.tokenCacheTimeToLive = configuration.getTokenCacheTimeToLive();
+
+        this.rejectionCache = configuration.getRejectionCacheSize() == 0 ? null
+                : new TokenCache<>(configuration.getRejectionCacheSize());
+        this.rejectionCacheTimeToLive = configuration.getRejectionCacheTimeToLive();
+
+        this.signingAlgorithms = toNimbusAlgorithms(configuration.getSigningAlgorithms());
+        this.keySource = requireNonNull(keySource, "keySource must not be null");
+        this.claimsVerifier = new ClaimsVerifier(configuration);
+        this.revocations = revocations;
 
-        this.processor = new com.nimbusds.jwt.proc.DefaultJWTProcessor<>();
+        this.precheck = !configuration.isTokenPrecheckEnabled() ? null
+                : new TokenPrecheck(
+                        configuration.getMaximumTokenLength(),
+                        toAlgorithmNames(signingAlgorithms),
+                        keySource,
+                        claimsVerifier.getClockSkew());
 
-        final JWKSource<SecurityContext> jwkSource = new RemoteJWKSet<>(
-                new URL(configuration.getJWKSUrl()),
-                new DefaultResourceRetriever(
-                        configuration.getConnectTimeout(),
-                        configuration.getReadTimeout()));
+        this.executor = configuration.getExecutor();
+        this.asyncExecutor = configuration.getAsyncExecutor();
 
-        final JWSKeySelector<SecurityContext> keySelector = new JWSVerificationKeySelector<>(
-                toNimbusAlgorithm(configuration.getSigningAlgorithm()), jwkSource);
+        this.metrics = metrics;
 
-        processor.setJWSKeySelector(keySelector);
-        processor.setJWTClaimsSetVerifier(new JWTClaimsVerifier(configuration));
+        if (metrics != null) {
+            metrics.setCacheStatistics(getTokenCacheStatistics(), getRejectionCacheStatistics());
+        }
+    }
+
+    private static MetricsRecorder createMetricsRecorder(
+            final JWTProcessorConfiguration configuration) {
+        requireNonNull(configuration, "configuration must not be null");
+
+        return configuration.isMetricsEnabled() ? new MetricsRecorder() : null;
+    }
+
+    /**
+     * Creates a key source reading keys from the local file system for {@code file} URLs, or
+     * retrieving them from the remote JWKS otherwise.
+     */
+    private static VerificationKeySource createKeySource(
+            final JWTProcessorConfiguration configuration, final MetricsRecorder metrics)
+            throws MalformedURLException {
+        requireNonNull(configuration, "configuration must not be null");
+        validateConfiguration(configuration);
+
+        final URL jwksUrl = new URL(configuration.getJWKSUrl());
+        final VerifierFactory verifierFactory =
+                new VerifierFactory(configuration.getSecurityProviders());
+
+        if ("file".equals(jwksUrl.getProtocol())) {
+            try {
+                return new LocalJWKSource(Paths.get(jwksUrl.toURI()), verifierFactory);
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                final MalformedURLException exception =
+                        new MalformedURLException("Invalid file URL: " + jwksUrl);
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+
+        final JWKSRetriever retriever = new HttpJWKSRetriever(
+                configuration.getConnectTimeout(),
+                configuration.getReadTimeout());
+
+        return new RefreshingJWKSource(
+                jwksUrl,
+                metrics == null ? retriever : metrics.instrument(retriever),
+                configuration.getJWKSRefreshInterval(),
+                configuration.getJWKSRefreshJitter(),
+                configuration.getJWKSMaximumStaleness(),
+                configuration.getJWKSMinimumRefetchInterval(),
+                configuration.getJWKSSnapshotFile()
+                        .map(file -> new JWKSSnapshotStore(file, jwksUrl,
+                                configuration.getJWKSSnapshotMaximumAge()))
+                        .orElse(null),
+                verifierFactory);
+    }
+
+    private static RevocationStore createRevocationStore(
+            final JWTProcessorConfiguration configuration) {
+        return configuration.getRevocationFile()
+                .map(file -> new RevocationStore(file,
+                        configuration.getRevocationRefreshInterval()))
+                .orElse(null);
+    }
+
+    static void validateConfiguration(final JWTProcessorConfiguration configuration) {
+        requireNonNull(configuration.getJWKSUrl(), "getJWKSUrl() must not return null");
+        requireNonNull(configuration.getSigningAlgorithms(),
+                "getSigningAlgorithms() must not return null");
+        requireNonNull(configuration.getExecutor(), "getExecutor() must not return null");
+        requireNonNull(configuration.getAsyncExecutor(),
+                "getAsyncExecutor() must not return null");
+        requireNonNull(configuration.getJWKSSnapshotFile(),
+                "getJWKSSnapshotFile() must not return null");
+        requireNonNull(configuration.getRevocationFile(),
+                "getRevocationFile() must not return null");
+        requireNonNull(configuration.getClaimPolicy(), "getClaimPolicy() must not return null");
+        requireNonNull(configuration.getSecurityProviders(),
+                "getSecurityProviders() must not return null");
+
+        if (configuration.getSigningAlgorithms().isEmpty()
+                || configuration.getSigningAlgorithms().contains(null)) {
+            throw new IllegalArgumentException(
+                    "getSigningAlgorithms() must return a non-empty set without null elements");
+        }
+
+        if (configuration.getSecurityProviders().containsValue(null)) {
+            throw new IllegalArgumentException(
+                    "getSecurityProviders() must return a map without null values");
+        }
+
+        if (configuration.getTokenCacheSize() < 0) {
+            throw new IllegalArgumentException("getTokenCacheSize() must not return less than 0");
+        }
+
+        if (configuration.getTokenCacheTimeToLive() <= 0) {
+            throw new IllegalArgumentException(
+                    "getTokenCacheTimeToLive() must return a value greater than 0");
+        }
+
+        if (configuration.getRejectionCacheSize() < 0) {
+            throw new IllegalArgumentException(
+                    "getRejectionCacheSize() must not return less than 0");
+        }
+
+        if (configuration.getRejectionCacheTimeToLive() <= 0) {
+            throw new IllegalArgumentException(
+                    "getRejectionCacheTimeToLive() must return a value greater than 0");
+        }
+
+        if (configuration.getJWKSSnapshotMaximumAge() <= 0) {
+            throw new IllegalArgumentException(
+                    "getJWKSSnapshotMaximumAge() must return a value greater than 0");
+        }
+
+        if (configuration.getRevocationRefreshInterval() <= 0) {
+            throw new IllegalArgumentException(
+                    "getRevocationRefreshInterval() must return a value greater than 0");
+        }
+
+        if (configuration.getMaximumTokenLength() <= 0) {
+            throw new IllegalArgumentException(
+                    "getMaximumTokenLength() must return a value greater than 0");
+        }
     }
 
     @Override
     public Optional<JWTClaimsSet> process(String token) {
+        // Don't fingerprint oversized tokens, hashing them is proportional to their length
+        if (precheck != null && precheck.isOversized(token)) {
+            return reject(RejectionReason.MALFORMED, null, 0, null);
+        }
+
+        final long now = System.currentTimeMillis();
+        final TokenFingerprint fingerprint = fingerprint(token);
+        final Optional<JWTClaimsSet> cachedResult = getCachedResult(fingerprint, now);
+
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        return processUncached(token, fingerprint, now);
+    }
+
+    /**
+     * Completes inline if the result is cached or the token can be verified using the cached key
+     * set. Otherwise, the token is processed on the configured asynchronous executor, since
+     * processing it may block on retrieving the JWKS.
+     */
+    @Override
+    public CompletableFuture<Optional<JWTClaimsSet>> processAsync(String token) {
+        requireNonNull(token, "token must not be null");
+
+        if (precheck != null && precheck.isOversized(token)) {
+            return CompletableFuture.completedFuture(
+                    reject(RejectionReason.MALFORMED, null, 0, null));
+        }
+
+        final long now = System.currentTimeMillis();
+        final TokenFingerprint fingerprint = fingerprint(token);
+        final Optional<JWTClaimsSet> cachedResult = getCachedResult(fingerprint, now);
+
+        if (cachedResult != null) {
+            return CompletableFuture.completedFuture(cachedResult);
+        }
+
+        if (keySource.getCachedKeySet(readKeyId(token)) != null) {
+            return CompletableFuture.completedFuture(processUncached(token, fingerprint, now));
+        }
+
+        return CompletableFuture.supplyAsync(
+                () -> processUncached(token, fingerprint, System.currentTimeMillis()),
+                asyncExecutor);
+    }
+
+    /**
+     * Retrieves the key set, then verifies tokens signed with throwaway keys of every configured
+     * algorithm through the same code path regular tokens take, bypassing the caches.
+     */
+    @Override
+    public boolean warmUp(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("iterations must not be less than 0");
+        }
+
         try {
-            return Optional.of(new ImmutableJWTClaimsSet(processor.process(token, null)));
-        } catch (ParseException | JOSEException | BadJOSEException e) {
-            logger.debug("Failed to process incoming token:", e);
-            return Optional.empty();
+            keySource.getKeySet(null);
+        } catch (KeySourceException e) {
+            logger.warn("Failed to retrieve the JWKS during warmup", e);
+            return false;
+        }
+
+        return Warmup.run(configuration, signingAlgorithms, iterations);
+    }
+
+    /**
+     * Processes the token without consulting or populating the caches.
+     */
+    Optional<JWTClaimsSet> processWithoutCaching(String token) {
+        return processUncached(token, null, System.currentTimeMillis());
+    }
+
+    private TokenFingerprint fingerprint(String token) {
+        return tokenCache == null && rejectionCache == null ? null : TokenFingerprint.of(token);
+    }
+
+    /**
+     * Returns the cached result for the specified token, or {@code null} if there is none.
+     */
+    private Optional<JWTClaimsSet> getCachedResult(TokenFingerprint fingerprint, long now) {
+        if (tokenCache != null) {
+            final LazyJWTClaimsSet cachedClaimsSet = tokenCache.get(fingerprint, now);
+
+            if (cachedClaimsSet != null) {
+                // Tokens may have been revoked since they were cached
+                if (isRevoked(cachedClaimsSet)) {
+                    return reject(RejectionReason.REVOKED, fingerprint, now,
+                            new RevokedJWTException());
+                }
+
+                if (metrics != null) {
+                    metrics.accepted();
+                }
+
+                return Optional.of(cachedClaimsSet);
+            }
+        }
+
+        if (rejectionCache != null) {
+            final RejectionReason cachedReason = rejectionCache.get(fingerprint, now);
+
+            if (cachedReason != null) {
+                logger.trace("Rejected previously rejected token: {}", cachedReason);
+
+                if (metrics != null) {
+                    metrics.rejected(cachedReason);
+                }
+
+                return Optional.empty();
+            }
+        }
+
+        return null;
+    }
+
+    private Optional<JWTClaimsSet> processUncached(String token, TokenFingerprint fingerprint,
+            long now) {
+        if (precheck != null) {
+            final RejectionReason reason = precheck.check(token, now);
+
+            if (reason != null) {
+                return reject(reason, fingerprint, now, null);
+            }
         }
+
+        return verify(token, fingerprint, now);
     }
 
+    /**
+     * Verifies the tokens in parallel on the configured executor, with the calling thread
+     * processing one share of the batch itself.
+     * <p>
+     * Tokens are grouped by key ID, so each worker mostly verifies tokens signed with the same key,
+     * and the key set for every distinct key ID is resolved once up front. Tokens referencing a key
+     * ID unknown to the cached key set therefore cause at most one refetch per batch, instead of
+     * every worker racing to trigger it.
+     */
     @Override
-    public JWTProcessorConfiguration getConfiguration() {
-        return configuration;
+    public List<Optional<JWTClaimsSet>> processAll(Collection<String> tokens) {
+        final String[] batch = requireNonNull(tokens, "tokens must not be null")
+                .toArray(new String[0]);
+
+        @SuppressWarnings("unchecked")
+        final Optional<JWTClaimsSet>[] results = new Optional[batch.length];
+
+        if (batch.length < MINIMUM_PARALLEL_BATCH_SIZE) {
+            for (int i = 0; i < batch.length; i++) {
+                results[i] = process(batch[i]);
+            }
+
+            return Collections.unmodifiableList(Arrays.asList(results));
+        }
+
+        final int[] order = groupByKeyId(batch);
+        final int chunkCount = Math.min(batch.length / MINIMUM_PARALLEL_BATCH_SIZE,
+                Runtime.getRuntime().availableProcessors() * 4);
+        final int chunkSize = (batch.length + chunkCount - 1) / chunkCount;
+
+        final List<CompletableFuture<Void>> chunks = new ArrayList<>(chunkCount);
+
+        for (int start = chunkSize; start < batch.length; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(start + chunkSize, batch.length);
+
+            chunks.add(CompletableFuture.runAsync(
+                    () -> processChunk(batch, order, from, to, results), executor));
+        }
+
+        processChunk(batch, order, 0, Math.min(chunkSize, batch.length), results);
+
+        try {
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(results));
     }
 
-    private static class JWTClaimsVerifier extends DefaultJWTClaimsVerifier<SecurityContext> {
+    private void processChunk(String[] batch, int[] order, int from, int to,
+            Optional<JWTClaimsSet>[] results) {
+        for (int i = from; i < to; i++) {
+            results[order[i]] = process(batch[order[i]]);
+        }
+    }
 
-        private final JWTProcessorConfiguration configuration;
+    /**
+     * Returns the indexes of the specified tokens ordered so that tokens with the same key ID are
+     * adjacent, and resolves the key set for every distinct key ID.
+     */
+    private int[] groupByKeyId(String[] batch) {
+        final Map<String, List<Integer>> groups = new LinkedHashMap<>();
 
-        private JWTClaimsVerifier(
-                JWTProcessorConfiguration configuration) {
-            this.configuration = configuration;
+        for (int i = 0; i < batch.length; i++) {
+            groups.computeIfAbsent(readKeyId(batch[i]), keyId -> new ArrayList<>()).add(i);
         }
 
-        @Override
-        public void verify(com.nimbusds.jwt.JWTClaimsSet claimsSet, SecurityContext context)
-                throws BadJWTException {
-            super.verify(claimsSet, context);
+        final int[] order = new int[batch.length];
+        int position = 0;
+
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            try {
+                keySource.getKeySet(group.getKey());
+            } catch (KeySourceException e) {
+                // Rejected individually while processing the batch
+            }
 
-            if (!configuration.getIssuer().isPresent()) {
-                return;
+            for (Integer index : group.getValue()) {
+                order[position++] = index;
             }
+        }
+
+        return order;
+    }
+
+    /**
+     * Returns the {@code kid} header parameter of the specified token, {@code null} if it is
+     * missing or can't be read.
+     */
+    private static String readKeyId(String token) {
+        final int headerEnd = token.indexOf('.');
+
+        if (headerEnd <= 0) {
+            return null;
+        }
+
+        try {
+            final JsonScanner scanner = new JsonScanner(Base64UrlUtil.decode(token, 0, headerEnd));
 
-            if (!claimsSet.getIssuer().equals(configuration.getIssuer().get())) {
-                throw new BadJWTException("Invalid token issuer");
+            while (scanner.nextMember()) {
+                if (scanner.nameEquals("kid")) {
+                    return scanner.stringValue();
+                }
             }
+        } catch (ParseException e) {
+            return null;
+        }
+
+        return null;
+    }
+
+    private Optional<JWTClaimsSet> verify(String token, TokenFingerprint fingerprint, long now) {
+        final Object event = FlightRecorderEvents.beginTokenVerification();
+        final LazyJWTClaimsSet claimsSet;
+        SignedJWT jwt = null;
+
+        try {
+            final long parseStart = metrics == null ? 0 : System.nanoTime();
+            jwt = SignedJWT.parse(token);
+            final long keyLookupStart = stageCompleted(ProcessingStage.PARSE, parseStart);
+
+            claimsSet = verifySignedJWT(jwt, now, keyLookupStart);
+        } catch (ParseException | JOSEException | BadJOSEException e) {
+            final RejectionReason reason = toRejectionReason(e);
+            commitVerificationEvent(event, jwt, reason.name());
+
+            return reject(reason, fingerprint, now, e);
+        }
+
+        commitVerificationEvent(event, jwt, "ACCEPTED");
+
+        if (tokenCache != null && fingerprint != null) {
+            tokenCache.put(fingerprint, claimsSet, getCacheExpirationTime(claimsSet, now));
+        }
+
+        if (metrics != null) {
+            metrics.accepted();
+        }
+
+        return Optional.of(claimsSet);
+    }
+
+    private static void commitVerificationEvent(Object event, SignedJWT jwt, String outcome) {
+        if (event != null) {
+            final JWSHeader header = jwt == null ? null : jwt.getHeader();
+
+            FlightRecorderEvents.commitTokenVerification(event,
+                    header == null ? null : header.getAlgorithm().getName(),
+                    header == null ? null : header.getKeyID(),
+                    outcome);
+        }
+    }
+
+    /**
+     * Records the duration of a stage which started at the specified {@link System#nanoTime()},
+     * and returns the time at which it completed. Doesn't read the clock if metrics are disabled.
+     */
+    private long stageCompleted(ProcessingStage stage, long start) {
+        if (metrics == null) {
+            return 0;
+        }
+
+        final long end = System.nanoTime();
+        metrics.record(stage, end - start);
+
+        return end;
+    }
+
+    private Optional<JWTClaimsSet> reject(RejectionReason reason, TokenFingerprint fingerprint,
+            long now, Exception cause) {
+        if (cause == null) {
+            logger.debug("Rejected incoming token during pre-check ({})", reason);
+        } else {
+            logger.debug("Failed to process incoming token ({}):", reason, cause);
+        }
+
+        if (rejectionCache != null && fingerprint != null && isPermanent(reason, cause)) {
+            rejectionCache.put(fingerprint, reason, now + rejectionCacheTimeToLive);
+        }
+
+        if (metrics != null) {
+            metrics.rejected(reason);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Verifies the signature and claims of a parsed token. The token must be of type {@code JWT}
+     * (or untyped) and signed with one of the configured algorithms. Only the keys provided by the
+     * {@link VerificationKeySource} for the algorithm in the token header are tried.
+     */
+    private LazyJWTClaimsSet verifySignedJWT(SignedJWT jwt, long now, long keyLookupStart)
+            throws ParseException, JOSEException, BadJOSEException {
+        final JWSHeader header = jwt.getHeader();
+
+        if (header.getType() != null && !JOSEObjectType.JWT.equals(header.getType())) {
+            throw new BadJOSEException("Signed JWT rejected: Invalid JOSE type");
+        }
+
+        if (!signingAlgorithms.contains(header.getAlgorithm())) {
+            throw new BadJOSEException("Signed JWT rejected: Another algorithm expected");
+        }
+
+        final List<JWSVerifier> verifiers = keySource.getKeySet(header.getKeyID()).select(header);
+        final long signatureStart = stageCompleted(ProcessingStage.KEY_LOOKUP, keyLookupStart);
+
+        if (verifiers.isEmpty()) {
+            throw new BadJOSEException("Signed JWT rejected: No matching key(s) found");
+        }
+
+        for (JWSVerifier verifier : verifiers) {
+            if (jwt.verify(verifier)) {
+                final long claimsStart =
+                        stageCompleted(ProcessingStage.SIGNATURE_VERIFICATION, signatureStart);
+
+                final LazyJWTClaimsSet claimsSet =
+                        LazyJWTClaimsSet.parse(jwt.getPayload().toBytes());
+                claimsVerifier.verify(claimsSet, now);
+
+                if (isRevoked(claimsSet)) {
+                    throw new RevokedJWTException();
+                }
+
+                stageCompleted(ProcessingStage.CLAIMS_VERIFICATION, claimsStart);
+
+                return claimsSet;
+            }
+        }
+
+        stageCompleted(ProcessingStage.SIGNATURE_VERIFICATION, signatureStart);
+
+        throw new BadJWSException("Signed JWT rejected: Invalid signature");
+    }
+
+    private boolean isRevoked(LazyJWTClaimsSet claimsSet) {
+        return revocations != null && revocations.isRevoked(claimsSet.getJWTId(),
+                claimsSet.getSubject(), claimsSet.getIssueTimeMillis());
+    }
+
+    private static Set<String> toAlgorithmNames(Set<com.nimbusds.jose.JWSAlgorithm> algorithms) {
+        final Set<String> names = new HashSet<>();
+
+        for (com.nimbusds.jose.JWSAlgorithm algorithm : algorithms) {
+            names.add(algorithm.getName());
+        }
+
+        return names;
+    }
+
+    private static RejectionReason toRejectionReason(Exception e) {
+        if (e instanceof ParseException) {
+            return RejectionReason.MALFORMED;
+        }
+
+        if (e instanceof BadJWSException) {
+            return RejectionReason.INVALID_SIGNATURE;
+        }
+
+        if (e instanceof RevokedJWTException) {
+            return RejectionReason.REVOKED;
+        }
+
+        if (e instanceof BadJWTException) {
+            return RejectionReason.INVALID_CLAIMS;
+        }
+
+        if (e instanceof BadJOSEException) {
+            return RejectionReason.NO_MATCHING_KEY;
+        }
+
+        if (e instanceof KeySourceException) {
+            return RejectionReason.KEY_SOURCE_UNAVAILABLE;
+        }
+
+        return RejectionReason.VERIFICATION_ERROR;
+    }
+
+    /**
+     * Returns whether a token rejected for the specified reason would be rejected again regardless
+     * of changes to the JWKS or the passage of time. Tokens which are not valid yet are accepted
+     * once their not before time passed. The pre-check, which is rejecting when there is no cause,
+     * doesn't tell them apart from expired tokens, and is cheap to repeat anyway.
+     */
+    private static boolean isPermanent(RejectionReason reason, Exception cause) {
+        if (reason == RejectionReason.INVALID_CLAIMS) {
+            return cause != null && !(cause instanceof ClaimsVerifier.NotYetValidJWTException);
+        }
+
+        return reason != RejectionReason.NO_MATCHING_KEY
+                && reason != RejectionReason.KEY_SOURCE_UNAVAILABLE;
+    }
+
+    private long getCacheExpirationTime(LazyJWTClaimsSet claimsSet, long now) {
+        final long expirationTime = now + tokenCacheTimeToLive;
+        final long tokenExpirationTime = claimsVerifier.getExpirationTime(claimsSet);
+
+        if (tokenExpirationTime == LazyJWTClaimsSet.ABSENT) {
+            return expirationTime;
+        }
+
+        return Math.min(expirationTime, tokenExpirationTime);
+    }
+
+    @Override
+    public JWTProcessorConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public CacheStatistics getTokenCacheStatistics() {
+        return tokenCache == null ? CacheStatistics.disabled() : tokenCache;
+    }
+
+    @Override
+    public CacheStatistics getRejectionCacheStatistics() {
+        return rejectionCache == null ? CacheStatistics.disabled() : rejectionCache;
+    }
+
+    @Override
+    public ProcessorMetrics getMetrics() {
+        return metrics == null ? ProcessorMetrics.disabled() : metrics;
+    }
+
+    /**
+     * Thrown when a token which is otherwise valid was revoked.
+     */
+    private static final class RevokedJWTException extends BadJWTException {
+
+        private RevokedJWTException() {
+            super("Revoked JWT");
         }
     }
 }
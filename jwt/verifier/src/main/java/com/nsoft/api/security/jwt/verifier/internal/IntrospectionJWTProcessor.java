@@ -0,0 +1,271 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jwt.proc.BadJWTException;
+import com.nsoft.api.security.jwt.verifier.CacheStatistics;
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import com.nsoft.api.security.jwt.verifier.JWTProcessor;
+import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.internal.cache.TokenCache;
+import com.nsoft.api.security.jwt.verifier.internal.cache.TokenFingerprint;
+import com.nsoft.api.security.jwt.verifier.internal.introspection.HttpIntrospectionClient;
+import com.nsoft.api.security.jwt.verifier.internal.introspection.IntrospectionClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link JWTProcessor} which validates opaque tokens by introspecting them at the endpoint
+ * returned by {@link JWTProcessorConfiguration#getIntrospectionUrl()}.
+ * <p>
+ * Active tokens are only accepted if the introspection response satisfies the configured issuer
+ * and {@link JWTProcessorConfiguration#getClaimPolicy() claim policy}, exactly like the claims of a
+ * signed token verified by {@link DefaultJWTProcessor}.
+ * <p>
+ * Responses are cached, those for accepted tokens until the token expires or the configured time
+ * to live passes, whichever comes first, and those for rejected tokens for the configured time to
+ * live. Tokens which are not valid yet aren't cached, since they will be accepted later.
+ * Concurrent lookups of the same uncached token are coalesced into a single introspection request
+ * whose response is shared by every caller. Tokens which couldn't be introspected because the
+ * endpoint was unavailable are rejected without being cached.
+ */
+public class IntrospectionJWTProcessor implements JWTProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(IntrospectionJWTProcessor.class);
+
+    private final JWTProcessorConfiguration configuration;
+    private final IntrospectionClient client;
+    private final ClaimsVerifier claimsVerifier;
+
+    private final int maximumTokenLength;
+    private final Executor asyncExecutor;
+
+    private final TokenCache<Optional<JWTClaimsSet>> cache;
+    private final long cacheTimeToLive;
+
+    private final ConcurrentMap<TokenFingerprint, CompletableFuture<Optional<JWTClaimsSet>>>
+            inFlight = new ConcurrentHashMap<>();
+
+    public IntrospectionJWTProcessor(final JWTProcessorConfiguration configuration)
+            throws MalformedURLException {
+        this(configuration, createClient(configuration));
+    }
+
+    /**
+     * Constructs a processor introspecting tokens with the specified client instead of the
+     * endpoint described by the configuration.
+     */
+    IntrospectionJWTProcessor(final JWTProcessorConfiguration configuration,
+            final IntrospectionClient client) {
+        this.configuration = requireNonNull(configuration, "configuration must not be null");
+
+        validateConfiguration(configuration);
+
+        this.client = requireNonNull(client, "client must not be null");
+        this.claimsVerifier = new ClaimsVerifier(configuration);
+
+        this.maximumTokenLength = configuration.isTokenPrecheckEnabled()
+                ? configuration.getMaximumTokenLength() : Integer.MAX_VALUE;
+        this.asyncExecutor = configuration.getAsyncExecutor();
+
+        this.cache = configuration.getIntrospectionCacheSize() == 0 ? null
+                : new TokenCache<>(configuration.getIntrospectionCacheSize());
+        this.cacheTimeToLive = configuration.getIntrospectionCacheTimeToLive();
+    }
+
+    private static IntrospectionClient createClient(
+            final JWTProcessorConfiguration configuration) throws MalformedURLException {
+        requireNonNull(configuration, "configuration must not be null");
+        validateConfiguration(configuration);
+
+        return new HttpIntrospectionClient(
+                new URL(configuration.getIntrospectionUrl().get()),
+                configuration.getIntrospectionClientId().orElse(null),
+                configuration.getIntrospectionClientSecret().orElse(null),
+                configuration.getConnectTimeout(),
+                configuration.getReadTimeout());
+    }
+
+    static void validateConfiguration(final JWTProcessorConfiguration configuration) {
+        requireNonNull(configuration.getIntrospectionUrl(),
+                "getIntrospectionUrl() must not return null");
+        requireNonNull(configuration.getIntrospectionClientId(),
+                "getIntrospectionClientId() must not return null");
+        requireNonNull(configuration.getIntrospectionClientSecret(),
+                "getIntrospectionClientSecret() must not return null");
+        requireNonNull(configuration.getAsyncExecutor(),
+                "getAsyncExecutor() must not return null");
+        requireNonNull(configuration.getIssuer(), "getIssuer() must not return null");
+        requireNonNull(configuration.getClaimPolicy(), "getClaimPolicy() must not return null");
+
+        if (!configuration.getIntrospectionUrl().isPresent()) {
+            throw new IllegalArgumentException(
+                    "getIntrospectionUrl() must not return an empty Optional");
+        }
+
+        if (configuration.getIntrospectionCacheSize() < 0) {
+            throw new IllegalArgumentException(
+                    "getIntrospectionCacheSize() must not return less than 0");
+        }
+
+        if (configuration.getIntrospectionCacheTimeToLive() <= 0) {
+            throw new IllegalArgumentException(
+                    "getIntrospectionCacheTimeToLive() must return a value greater than 0");
+        }
+
+        if (configuration.getMaximumTokenLength() <= 0) {
+            throw new IllegalArgumentException(
+                    "getMaximumTokenLength() must return a value greater than 0");
+        }
+    }
+
+    @Override
+    public Optional<JWTClaimsSet> process(String token) {
+        requireNonNull(token, "token must not be null");
+
+        if (token.length() > maximumTokenLength) {
+            logger.debug("Rejected oversized incoming token without introspecting it");
+            return Optional.empty();
+        }
+
+        final TokenFingerprint fingerprint = TokenFingerprint.of(token);
+        final Optional<JWTClaimsSet> cachedResult = getCachedResult(fingerprint);
+
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        return introspectCoalesced(token, fingerprint);
+    }
+
+    /**
+     * Completes inline if the response is cached. Otherwise, the token is introspected on the
+     * configured asynchronous executor.
+     */
+    @Override
+    public CompletableFuture<Optional<JWTClaimsSet>> processAsync(String token) {
+        requireNonNull(token, "token must not be null");
+
+        if (token.length() > maximumTokenLength) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        final TokenFingerprint fingerprint = TokenFingerprint.of(token);
+        final Optional<JWTClaimsSet> cachedResult = getCachedResult(fingerprint);
+
+        if (cachedResult != null) {
+            return CompletableFuture.completedFuture(cachedResult);
+        }
+
+        return CompletableFuture.supplyAsync(() -> introspectCoalesced(token, fingerprint),
+                asyncExecutor);
+    }
+
+    /**
+     * Returns the cached result for the specified token, or {@code null} if there is none.
+     */
+    private Optional<JWTClaimsSet> getCachedResult(TokenFingerprint fingerprint) {
+        return cache == null ? null : cache.get(fingerprint, System.currentTimeMillis());
+    }
+
+    /**
+     * Introspects the token, unless the same token is already being introspected by another
+     * thread, in which case the response of that introspection is awaited instead.
+     */
+    private Optional<JWTClaimsSet> introspectCoalesced(String token,
+            TokenFingerprint fingerprint) {
+        final CompletableFuture<Optional<JWTClaimsSet>> introspection = new CompletableFuture<>();
+        final CompletableFuture<Optional<JWTClaimsSet>> pending =
+                inFlight.putIfAbsent(fingerprint, introspection);
+
+        if (pending != null) {
+            return pending.join();
+        }
+
+        try {
+            final Optional<JWTClaimsSet> result = introspect(token, fingerprint);
+            introspection.complete(result);
+
+            return result;
+        } catch (RuntimeException | Error e) {
+            introspection.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(fingerprint, introspection);
+        }
+    }
+
+    private Optional<JWTClaimsSet> introspect(String token, TokenFingerprint fingerprint) {
+        final Optional<LazyJWTClaimsSet> response;
+
+        try {
+            response = client.introspect(token);
+        } catch (IOException e) {
+            logger.warn("Failed to introspect incoming token", e);
+            return Optional.empty();
+        }
+
+        final long now = System.currentTimeMillis();
+        long expiresAt = now + cacheTimeToLive;
+        Optional<JWTClaimsSet> result = Optional.empty();
+
+        if (response.isPresent()) {
+            final LazyJWTClaimsSet claimsSet = response.get();
+            final long expirationTime = claimsSet.getExpirationTimeMillis();
+
+            if (expirationTime != LazyJWTClaimsSet.ABSENT && expirationTime <= now) {
+                logger.debug("Rejected incoming token which expired since it was introspected");
+            } else {
+                try {
+                    claimsVerifier.verify(claimsSet, now);
+
+                    result = Optional.of(claimsSet);
+                    expiresAt = getCacheExpirationTime(claimsSet, expiresAt);
+                } catch (ClaimsVerifier.NotYetValidJWTException e) {
+                    // Not cached, the token is accepted once its not before time passed
+                    logger.debug("Rejected introspected incoming token ({})", e.getMessage());
+                    return result;
+                } catch (BadJWTException e) {
+                    logger.debug("Rejected introspected incoming token ({})", e.getMessage());
+                }
+            }
+        } else {
+            logger.debug("Rejected inactive incoming token");
+        }
+
+        if (cache != null) {
+            cache.put(fingerprint, result, expiresAt);
+        }
+
+        return result;
+    }
+
+    private long getCacheExpirationTime(LazyJWTClaimsSet claimsSet, long expiresAt) {
+        final long tokenExpirationTime = claimsVerifier.getExpirationTime(claimsSet);
+
+        if (tokenExpirationTime == LazyJWTClaimsSet.ABSENT) {
+            return expiresAt;
+        }
+
+        return Math.min(expiresAt, tokenExpirationTime);
+    }
+
+    @Override
+    public JWTProcessorConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public CacheStatistics getTokenCacheStatistics() {
+        return cache == null ? CacheStatistics.disabled() : cache;
+    }
+}
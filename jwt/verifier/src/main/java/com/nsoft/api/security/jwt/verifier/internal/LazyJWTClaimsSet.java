@@ -0,0 +1,564 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import com.nsoft.api.security.jwt.verifier.internal.json.JsonScanner;
+import com.nsoft.api.security.jwt.verifier.internal.json.JsonScanner.ValueType;
+import com.nsoft.api.security.jwt.verifier.internal.json.NameTable;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link JWTClaimsSet} which keeps the decoded JWT payload and only decodes individual claims
+ * when they are first accessed.
+ * <p>
+ * Parsing indexes the top-level members of the payload without materializing their values. The
+ * registered {@code exp}, {@code nbf} and {@code iat} claims are stored as primitive timestamps and
+ * the {@code iss} claim is decoded up front, since both are needed for verification. Well-known
+ * claim names and issuers are interned, so cached claim sets share a single instance of each.
+ * <p>
+ * Decoded claims and typed conversions are memoized. Instances are safe for concurrent use: a claim
+ * accessed concurrently by several threads may be decoded more than once, but every memoized value
+ * is immutable.
+ */
+public final class LazyJWTClaimsSet implements JWTClaimsSet {
+
+    static final long ABSENT = Long.MIN_VALUE;
+
+    private static final String ISSUER_CLAIM = "iss";
+    private static final String SUBJECT_CLAIM = "sub";
+    private static final String AUDIENCE_CLAIM = "aud";
+    private static final String EXPIRATION_TIME_CLAIM = "exp";
+    private static final String NOT_BEFORE_CLAIM = "nbf";
+    private static final String ISSUED_AT_CLAIM = "iat";
+    private static final String JWT_ID_CLAIM = "jti";
+
+    private static final NameTable CLAIM_NAMES = new NameTable(
+            ISSUER_CLAIM, SUBJECT_CLAIM, AUDIENCE_CLAIM, EXPIRATION_TIME_CLAIM, NOT_BEFORE_CLAIM,
+            ISSUED_AT_CLAIM, JWT_ID_CLAIM, "typ", "azp", "scope", "scp", "client_id", "cid", "uid",
+            "sid", "tid", "nonce", "acr", "amr", "auth_time", "name", "given_name", "family_name",
+            "preferred_username", "email", "email_verified", "roles", "groups", "permissions",
+            "tenant");
+
+    private static final int MAXIMUM_INTERNED_ISSUERS = 256;
+    private static final ConcurrentMap<String, String> ISSUERS = new ConcurrentHashMap<>();
+
+    private static final Object UNRESOLVED = new Object();
+
+    private final byte[] payload;
+
+    private final String[] names;
+    private final int[] valueOffsets;
+
+    private final Object[] values;
+    private final Object[] conversions;
+
+    private final String issuer;
+    private final long expirationTime;
+    private final long notBeforeTime;
+    private final long issueTime;
+
+    private volatile Map<String, Object> claims;
+
+    private LazyJWTClaimsSet(byte[] payload, String[] names, int[] valueOffsets, String issuer,
+            long expirationTime, long notBeforeTime, long issueTime) {
+        this.payload = payload;
+        this.names = names;
+        this.valueOffsets = valueOffsets;
+        this.issuer = issuer;
+        this.expirationTime = expirationTime;
+        this.notBeforeTime = notBeforeTime;
+        this.issueTime = issueTime;
+
+        this.values = new Object[names.length];
+        this.conversions = new Object[names.length];
+        Arrays.fill(values, UNRESOLVED);
+    }
+
+    /**
+     * Parses the specified decoded JWT payload. The registered claims are validated the same way
+     * as by {@link com.nimbusds.jwt.JWTClaimsSet#parse(String)}.
+     *
+     * @param payload UTF-8 encoded JSON payload, must not be modified afterwards
+     * @return parsed claims set
+     * @throws ParseException if the payload is not a JSON object or a registered claim has an
+     *                        invalid type
+     */
+    public static LazyJWTClaimsSet parse(final byte[] payload) throws ParseException {
+        requireNonNull(payload, "payload must not be null");
+
+        final JsonScanner scanner = new JsonScanner(payload);
+
+        String[] names = new String[16];
+        int[] valueOffsets = new int[16];
+        int count = 0;
+
+        String issuer = null;
+        long expirationTime = ABSENT;
+        long notBeforeTime = ABSENT;
+        long issueTime = ABSENT;
+
+        while (scanner.nextMember()) {
+            final String name = scanner.name(CLAIM_NAMES);
+
+            if (count == names.length) {
+                names = Arrays.copyOf(names, count * 2);
+                valueOffsets = Arrays.copyOf(valueOffsets, count * 2);
+            }
+
+            names[count] = name;
+            valueOffsets[count] = scanner.valueOffset();
+            count++;
+
+            final ValueType type = scanner.valueType();
+
+            switch (name) {
+                case ISSUER_CLAIM:
+                    requireType(name, type, ValueType.STRING);
+                    issuer = intern(scanner.stringValue());
+                    break;
+                case SUBJECT_CLAIM:
+                case JWT_ID_CLAIM:
+                    requireType(name, type, ValueType.STRING);
+                    break;
+                case AUDIENCE_CLAIM:
+                    if (type != ValueType.ARRAY) {
+                        requireType(name, type, ValueType.STRING);
+                    }
+                    break;
+                case EXPIRATION_TIME_CLAIM:
+                    expirationTime = readTimestamp(scanner, type);
+                    break;
+                case NOT_BEFORE_CLAIM:
+                    notBeforeTime = readTimestamp(scanner, type);
+                    break;
+                case ISSUED_AT_CLAIM:
+                    issueTime = readTimestamp(scanner, type);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return new LazyJWTClaimsSet(payload, Arrays.copyOf(names, count),
+                Arrays.copyOf(valueOffsets, count), issuer, expirationTime, notBeforeTime,
+                issueTime);
+    }
+
+    private static void requireType(String name, ValueType actual, ValueType expected)
+            throws ParseException {
+        if (actual != expected && actual != ValueType.NULL) {
+            throw new ParseException("Unexpected type of JSON object member with key \"" + name
+                    + "\"", 0);
+        }
+    }
+
+    private static long readTimestamp(JsonScanner scanner, ValueType type) throws ParseException {
+        if (type == ValueType.NULL) {
+            return ABSENT;
+        }
+
+        if (type != ValueType.NUMBER) {
+            throw new ParseException("Unexpected type of JSON object member with key \""
+                    + scanner.name() + "\"", 0);
+        }
+
+        return toMillis(scanner.longValue());
+    }
+
+    /**
+     * Converts seconds since the epoch to milliseconds, saturating instead of overflowing. Never
+     * returns {@link #ABSENT}.
+     */
+    static long toMillis(long seconds) {
+        try {
+            return Math.multiplyExact(seconds, 1000);
+        } catch (ArithmeticException e) {
+            return seconds < 0 ? ABSENT + 1 : Long.MAX_VALUE;
+        }
+    }
+
+    private static String intern(String issuer) {
+        if (issuer == null) {
+            return null;
+        }
+
+        final String interned = ISSUERS.get(issuer);
+
+        if (interned != null) {
+            return interned;
+        }
+
+        if (ISSUERS.size() >= MAXIMUM_INTERNED_ISSUERS) {
+            return issuer;
+        }
+
+        final String previous = ISSUERS.putIfAbsent(issuer, issuer);
+        return previous == null ? issuer : previous;
+    }
+
+    /**
+     * Returns the expiration time in milliseconds, {@link #ABSENT} if the claim is not present.
+     */
+    long getExpirationTimeMillis() {
+        return expirationTime;
+    }
+
+    /**
+     * Returns the not before time in milliseconds, {@link #ABSENT} if the claim is not present.
+     */
+    long getNotBeforeTimeMillis() {
+        return notBeforeTime;
+    }
+
+    /**
+     * Returns the issued at time in milliseconds, {@link #ABSENT} if the claim is not present.
+     */
+    long getIssueTimeMillis() {
+        return issueTime;
+    }
+
+    /**
+     * Returns whether the claim with the specified name is present, without converting its value.
+     */
+    boolean containsClaim(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public String getIssuer() {
+        return issuer;
+    }
+
+    @Override
+    public String getSubject() {
+        try {
+            return getStringClaim(SUBJECT_CLAIM);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public List<String> getAudience() {
+        try {
+            final List<String> audience = getStringListClaim(AUDIENCE_CLAIM);
+            return audience == null ? Collections.emptyList() : audience;
+        } catch (ParseException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public Date getExpirationTime() {
+        return toDate(expirationTime);
+    }
+
+    @Override
+    public Date getNotBeforeTime() {
+        return toDate(notBeforeTime);
+    }
+
+    @Override
+    public Date getIssueTime() {
+        return toDate(issueTime);
+    }
+
+    @Override
+    public String getJWTId() {
+        try {
+            return getStringClaim(JWT_ID_CLAIM);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, Object> getClaims() {
+        Map<String, Object> materialized = claims;
+
+        if (materialized == null) {
+            final Map<String, Object> map = new LinkedHashMap<>(names.length * 2);
+
+            for (String name : names) {
+                map.put(name, getClaim(name));
+            }
+
+            materialized = Collections.unmodifiableMap(map);
+            claims = materialized;
+        }
+
+        return materialized;
+    }
+
+    @Override
+    public Object getClaim(String name) {
+        final int index = indexOf(name);
+
+        if (index < 0) {
+            return null;
+        }
+
+        switch (names[index]) {
+            case ISSUER_CLAIM:
+                return issuer;
+            case EXPIRATION_TIME_CLAIM:
+                return toDate(expirationTime);
+            case NOT_BEFORE_CLAIM:
+                return toDate(notBeforeTime);
+            case ISSUED_AT_CLAIM:
+                return toDate(issueTime);
+            case AUDIENCE_CLAIM:
+                final Object audience = value(index);
+                return audience instanceof String ? Collections.singletonList(audience)
+                        : audience;
+            default:
+                return value(index);
+        }
+    }
+
+    @Override
+    public String getStringClaim(String name) throws ParseException {
+        final Object value = getClaim(name);
+
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+
+        throw new ParseException("The " + name + " claim is not a String", 0);
+    }
+
+    @Override
+    public String[] getStringArrayClaim(String name) throws ParseException {
+        final List<String> list = getStringListClaim(name);
+
+        return list == null ? null : list.toArray(new String[0]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> getStringListClaim(String name) throws ParseException {
+        final int index = indexOf(name);
+
+        if (index < 0) {
+            return null;
+        }
+
+        final Object converted = conversions[index];
+
+        if (converted instanceof StringList) {
+            return ((StringList) converted).list;
+        }
+
+        final Object value = getClaim(name);
+
+        if (value == null) {
+            return null;
+        }
+
+        if (!(value instanceof List)) {
+            throw new ParseException("The " + name + " claim is not a list / JSON array", 0);
+        }
+
+        for (Object element : (List<Object>) value) {
+            if (!(element instanceof String)) {
+                throw new ParseException("The " + name + " claim is not a list / JSON array of "
+                        + "strings", 0);
+            }
+        }
+
+        final List<String> list = (List<String>) value;
+        conversions[index] = new StringList(list);
+
+        return list;
+    }
+
+    @Override
+    public URI getURIClaim(String name) throws ParseException {
+        final int index = indexOf(name);
+
+        if (index < 0) {
+            return null;
+        }
+
+        if (conversions[index] instanceof URI) {
+            return (URI) conversions[index];
+        }
+
+        final String value = getStringClaim(name);
+
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            final URI uri = new URI(value);
+            conversions[index] = uri;
+
+            return uri;
+        } catch (URISyntaxException e) {
+            throw new ParseException("The " + name + " claim is not a URI: " + e.getMessage(), 0);
+        }
+    }
+
+    @Override
+    public Boolean getBooleanClaim(String name) throws ParseException {
+        final Object value = getClaim(name);
+
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+
+        throw new ParseException("The " + name + " claim is not a Boolean", 0);
+    }
+
+    @Override
+    public Integer getIntegerClaim(String name) throws ParseException {
+        final int index = indexOf(name);
+
+        if (index >= 0 && conversions[index] instanceof Integer) {
+            return (Integer) conversions[index];
+        }
+
+        final Number value = getNumberClaim(index, name, "Integer");
+
+        if (value == null) {
+            return null;
+        }
+
+        final Integer converted = value.intValue();
+        conversions[index] = converted;
+
+        return converted;
+    }
+
+    @Override
+    public Long getLongClaim(String name) throws ParseException {
+        final Number value = getNumberClaim(indexOf(name), name, "Number");
+
+        if (value == null || value instanceof Long) {
+            return (Long) value;
+        }
+
+        return value.longValue();
+    }
+
+    @Override
+    public Date getDateClaim(String name) throws ParseException {
+        final Object value = getClaim(name);
+
+        if (value == null || value instanceof Date) {
+            return (Date) value;
+        }
+
+        if (value instanceof Number) {
+            return new Date(toMillis(((Number) value).longValue()));
+        }
+
+        throw new ParseException("The " + name + " claim is not a Date", 0);
+    }
+
+    @Override
+    public Float getFloatClaim(String name) throws ParseException {
+        final int index = indexOf(name);
+
+        if (index >= 0 && conversions[index] instanceof Float) {
+            return (Float) conversions[index];
+        }
+
+        final Number value = getNumberClaim(index, name, "Float");
+
+        if (value == null) {
+            return null;
+        }
+
+        final Float converted = value.floatValue();
+        conversions[index] = converted;
+
+        return converted;
+    }
+
+    @Override
+    public Double getDoubleClaim(String name) throws ParseException {
+        final Number value = getNumberClaim(indexOf(name), name, "Double");
+
+        if (value == null || value instanceof Double) {
+            return (Double) value;
+        }
+
+        return value.doubleValue();
+    }
+
+    private Number getNumberClaim(int index, String name, String typeName)
+            throws ParseException {
+        if (index < 0) {
+            return null;
+        }
+
+        final Object value = value(index);
+
+        if (value == null || value instanceof Number) {
+            return (Number) value;
+        }
+
+        throw new ParseException("The " + name + " claim is not a " + typeName, 0);
+    }
+
+    /**
+     * Returns the index of the last member with the specified name, matching the behaviour of
+     * JSON parsers which let later duplicate members override earlier ones.
+     */
+    private int indexOf(String name) {
+        for (int i = names.length - 1; i >= 0; i--) {
+            if (names[i] == name || names[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private Object value(int index) {
+        Object value = values[index];
+
+        if (value == UNRESOLVED) {
+            try {
+                value = JsonScanner.valueAt(payload, valueOffsets[index], payload.length).value();
+            } catch (ParseException e) {
+                // Unreachable, parsing validated the value when it skipped over it
+                throw new IllegalStateException(e);
+            }
+
+            values[index] = value;
+        }
+
+        return value;
+    }
+
+    private static Date toDate(long timestamp) {
+        return timestamp == ABSENT ? null : new Date(timestamp);
+    }
+
+    /**
+     * Marks a list which was already verified to only contain strings.
+     */
+    private static final class StringList {
+
+        private final List<String> list;
+
+        private StringList(List<String> list) {
+            this.list = list;
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nsoft.api.security.jwt.verifier.CacheStatistics;
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import com.nsoft.api.security.jwt.verifier.JWTProcessor;
+import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.LatencyHistogram;
+import com.nsoft.api.security.jwt.verifier.ProcessingStage;
+import com.nsoft.api.security.jwt.verifier.ProcessorMetrics;
+import com.nsoft.api.security.jwt.verifier.RejectionReason;
+import com.nsoft.api.security.jwt.verifier.exception.ProcessorInstantiationException;
+import com.nsoft.api.security.jwt.verifier.internal.json.JsonScanner;
+import com.nsoft.api.security.jwt.verifier.internal.metrics.LogLinearHistogram;
+import com.nsoft.api.security.jwt.verifier.internal.metrics.MetricsRecorder;
+import com.nsoft.api.security.jwt.verifier.internal.util.Base64UrlUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link JWTProcessor} which accepts tokens from several issuers.
+ * <p>
+ * Every configuration describes one issuer and must specify it. The unverified {@code iss} claim
+ * of a token is used to look up the configuration of its issuer, and the token is then processed
+ * by a {@link DefaultJWTProcessor} constructed from that configuration only. Tokens without an
+ * issuer or with an unknown one are rejected as {@link RejectionReason#UNKNOWN_ISSUER} without
+ * being verified. Processors are constructed on first use, and each of them maintains its own
+ * JWKS and caches.
+ */
+public class MultiIssuerJWTProcessor implements JWTProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(MultiIssuerJWTProcessor.class);
+
+    private final JWTProcessorConfiguration configuration;
+    private final Map<String, Tenant> tenants;
+    private final int maximumTokenLength;
+    private final MetricsRecorder metrics;
+
+    public MultiIssuerJWTProcessor(
+            final Collection<? extends JWTProcessorConfiguration> configurations)
+            throws MalformedURLException {
+        requireNonNull(configurations, "configurations must not be null");
+
+        if (configurations.isEmpty()) {
+            throw new IllegalArgumentException("configurations must not be empty");
+        }
+
+        final Map<String, Tenant> tenants = new HashMap<>();
+        int maximumTokenLength = 0;
+        boolean metricsEnabled = false;
+
+        for (JWTProcessorConfiguration configuration : configurations) {
+            requireNonNull(configuration, "configurations must not contain null elements");
+
+            DefaultJWTProcessor.validateConfiguration(configuration);
+            new URL(configuration.getJWKSUrl());
+
+            final String issuer = requireNonNull(configuration.getIssuer(),
+                    "getIssuer() must not return null")
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "getIssuer() must not return an empty Optional"));
+
+            if (tenants.put(issuer, new Tenant(configuration)) != null) {
+                throw new IllegalArgumentException(
+                        "getIssuer() must return a distinct issuer for every configuration");
+            }
+
+            // Only reject oversized tokens up front if every processor would reject them
+            maximumTokenLength = configuration.isTokenPrecheckEnabled()
+                    ? Math.max(maximumTokenLength, configuration.getMaximumTokenLength())
+                    : Integer.MAX_VALUE;
+            metricsEnabled |= configuration.isMetricsEnabled();
+        }
+
+        this.configuration = configurations.iterator().next();
+        this.tenants = tenants;
+        this.maximumTokenLength = maximumTokenLength;
+        this.metrics = metricsEnabled ? new MetricsRecorder() : null;
+    }
+
+    @Override
+    public Optional<JWTClaimsSet> process(String token) {
+        final Tenant tenant = findTenant(token);
+
+        return tenant == null ? Optional.empty() : tenant.getProcessor().process(token);
+    }
+
+    @Override
+    public CompletableFuture<Optional<JWTClaimsSet>> processAsync(String token) {
+        requireNonNull(token, "token must not be null");
+
+        final Tenant tenant = findTenant(token);
+
+        return tenant == null ? CompletableFuture.completedFuture(Optional.empty())
+                : tenant.getProcessor().processAsync(token);
+    }
+
+    /**
+     * Groups the tokens by issuer and lets the processor of every issuer process its group.
+     */
+    @Override
+    public List<Optional<JWTClaimsSet>> processAll(Collection<String> tokens) {
+        requireNonNull(tokens, "tokens must not be null");
+
+        final List<Optional<JWTClaimsSet>> results =
+                new ArrayList<>(Collections.nCopies(tokens.size(), Optional.empty()));
+        final Map<Tenant, List<Integer>> groups = new IdentityHashMap<>();
+        final List<String> tokenList = new ArrayList<>(tokens);
+
+        for (int i = 0; i < tokenList.size(); i++) {
+            final Tenant tenant = findTenant(requireNonNull(tokenList.get(i),
+                    "tokens must not contain null elements"));
+
+            if (tenant != null) {
+                groups.computeIfAbsent(tenant, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (Map.Entry<Tenant, List<Integer>> group : groups.entrySet()) {
+            final List<Integer> indexes = group.getValue();
+            final List<String> groupTokens = new ArrayList<>(indexes.size());
+
+            for (int index : indexes) {
+                groupTokens.add(tokenList.get(index));
+            }
+
+            final List<Optional<JWTClaimsSet>> groupResults =
+                    group.getKey().getProcessor().processAll(groupTokens);
+
+            for (int i = 0; i < indexes.size(); i++) {
+                results.set(indexes.get(i), groupResults.get(i));
+            }
+        }
+
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Constructs the processors of all issuers and warms them up.
+     */
+    @Override
+    public boolean warmUp(int iterations) {
+        boolean warm = true;
+
+        for (Tenant tenant : tenants.values()) {
+            warm &= tenant.getProcessor().warmUp(iterations);
+        }
+
+        return warm;
+    }
+
+    /**
+     * Returns the first of the configurations this processor was constructed from.
+     */
+    @Override
+    public JWTProcessorConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Returns the sum of the verified token cache statistics of all processors constructed so far.
+     */
+    @Override
+    public CacheStatistics getTokenCacheStatistics() {
+        return new CombinedCacheStatistics(JWTProcessor::getTokenCacheStatistics);
+    }
+
+    /**
+     * Returns the sum of the rejected token cache statistics of all processors constructed so far.
+     */
+    @Override
+    public CacheStatistics getRejectionCacheStatistics() {
+        return new CombinedCacheStatistics(JWTProcessor::getRejectionCacheStatistics);
+    }
+
+    /**
+     * Returns the sum of the metrics of all processors constructed so far, including tokens
+     * rejected before being dispatched to any of them, or disabled metrics if no configuration
+     * enables them.
+     */
+    @Override
+    public ProcessorMetrics getMetrics() {
+        return metrics == null ? ProcessorMetrics.disabled() : new CombinedProcessorMetrics();
+    }
+
+    private Tenant findTenant(String token) {
+        if (token.length() > maximumTokenLength) {
+            return reject(RejectionReason.MALFORMED);
+        }
+
+        final String issuer;
+
+        try {
+            issuer = readIssuer(token);
+        } catch (ParseException e) {
+            return reject(RejectionReason.MALFORMED);
+        }
+
+        final Tenant tenant = issuer == null ? null : tenants.get(issuer);
+
+        return tenant == null ? reject(RejectionReason.UNKNOWN_ISSUER) : tenant;
+    }
+
+    private Tenant reject(RejectionReason reason) {
+        logger.debug("Rejected incoming token before dispatching it by issuer ({})", reason);
+
+        if (metrics != null) {
+            metrics.rejected(reason);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the unverified issuer of a token, {@code null} if it doesn't specify one.
+     */
+    private static String readIssuer(String token) throws ParseException {
+        final int headerEnd = token.indexOf('.');
+        final int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+
+        if (headerEnd <= 0 || payloadEnd < 0) {
+            throw new ParseException("Invalid serialized JWT", 0);
+        }
+
+        final JsonScanner scanner =
+                new JsonScanner(Base64UrlUtil.decode(token, headerEnd + 1, payloadEnd));
+
+        while (scanner.nextMember()) {
+            if (scanner.nameEquals("iss")) {
+                return scanner.stringValue();
+            }
+        }
+
+        return null;
+    }
+
+    private static final class Tenant {
+
+        private final JWTProcessorConfiguration configuration;
+
+        private volatile JWTProcessor processor;
+
+        private Tenant(JWTProcessorConfiguration configuration) {
+            this.configuration = configuration;
+        }
+
+        private JWTProcessor getProcessor() {
+            JWTProcessor processor = this.processor;
+
+            if (processor == null) {
+                synchronized (this) {
+                    processor = this.processor;
+
+                    if (processor == null) {
+                        try {
+                            processor = new DefaultJWTProcessor(configuration);
+                        } catch (MalformedURLException e) {
+                            throw new ProcessorInstantiationException();
+                        }
+
+                        this.processor = processor;
+                    }
+                }
+            }
+
+            return processor;
+        }
+    }
+
+    private final class CombinedCacheStatistics implements CacheStatistics {
+
+        private final Function<JWTProcessor, CacheStatistics> statistics;
+
+        private CombinedCacheStatistics(
+                Function<JWTProcessor, CacheStatistics> statistics) {
+            this.statistics = statistics;
+        }
+
+        @Override
+        public long getHitCount() {
+            return sum(CacheStatistics::getHitCount);
+        }
+
+        @Override
+        public long getMissCount() {
+            return sum(CacheStatistics::getMissCount);
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return sum(CacheStatistics::getEvictionCount);
+        }
+
+        @Override
+        public int getSize() {
+            return (int) sum(value -> (long) value.getSize());
+        }
+
+        private long sum(ToLongFunction<CacheStatistics> counter) {
+            long sum = 0;
+
+            for (Tenant tenant : tenants.values()) {
+                final JWTProcessor processor = tenant.processor;
+
+                if (processor != null) {
+                    sum += counter.applyAsLong(statistics.apply(processor));
+                }
+            }
+
+            return sum;
+        }
+    }
+
+    private final class CombinedProcessorMetrics implements ProcessorMetrics {
+
+        @Override
+        public long getAcceptedCount() {
+            return sum(ProcessorMetrics::getAcceptedCount);
+        }
+
+        @Override
+        public long getRejectedCount(RejectionReason reason) {
+            requireNonNull(reason, "reason must not be null");
+
+            return metrics.getRejectedCount(reason)
+                    + sum(tenantMetrics -> tenantMetrics.getRejectedCount(reason));
+        }
+
+        @Override
+        public long getJWKSFetchCount() {
+            return sum(ProcessorMetrics::getJWKSFetchCount);
+        }
+
+        @Override
+        public long getJWKSFetchFailureCount() {
+            return sum(ProcessorMetrics::getJWKSFetchFailureCount);
+        }
+
+        @Override
+        public CacheStatistics getTokenCacheStatistics() {
+            return new CombinedCacheStatistics(
+                    processor -> processor.getMetrics().getTokenCacheStatistics());
+        }
+
+        @Override
+        public CacheStatistics getRejectionCacheStatistics() {
+            return new CombinedCacheStatistics(
+                    processor -> processor.getMetrics().getRejectionCacheStatistics());
+        }
+
+        @Override
+        public LatencyHistogram getLatency(ProcessingStage stage) {
+            requireNonNull(stage, "stage must not be null");
+
+            return new CombinedLatencyHistogram(stage);
+        }
+
+        private long sum(ToLongFunction<ProcessorMetrics> counter) {
+            long sum = 0;
+
+            for (Tenant tenant : tenants.values()) {
+                final JWTProcessor processor = tenant.processor;
+
+                if (processor != null) {
+                    sum += counter.applyAsLong(processor.getMetrics());
+                }
+            }
+
+            return sum;
+        }
+    }
+
+    private final class CombinedLatencyHistogram implements LatencyHistogram {
+
+        private final ProcessingStage stage;
+
+        private CombinedLatencyHistogram(ProcessingStage stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public long getCount() {
+            return sum(LatencyHistogram::getCount);
+        }
+
+        @Override
+        public long getTotalTime() {
+            return sum(LatencyHistogram::getTotalTime);
+        }
+
+        @Override
+        public long getMaximum() {
+            long maximum = 0;
+
+            for (LatencyHistogram histogram : histograms()) {
+                maximum = Math.max(maximum, histogram.getMaximum());
+            }
+
+            return maximum;
+        }
+
+        /**
+         * Merges the buckets of the histograms of all processors, so the percentile is exact up to
+         * the bucket width. Processors with metrics disabled haven't recorded any durations.
+         */
+        @Override
+        public long getValueAtPercentile(double percentile) {
+            final List<LogLinearHistogram> recorded = new ArrayList<>();
+
+            for (LatencyHistogram histogram : histograms()) {
+                if (histogram instanceof LogLinearHistogram) {
+                    recorded.add((LogLinearHistogram) histogram);
+                }
+            }
+
+            return LogLinearHistogram.getValueAtPercentile(recorded, percentile);
+        }
+
+        private long sum(ToLongFunction<LatencyHistogram> counter) {
+            long sum = 0;
+
+            for (LatencyHistogram histogram : histograms()) {
+                sum += counter.applyAsLong(histogram);
+            }
+
+            return sum;
+        }
+
+        private List<LatencyHistogram> histograms() {
+            final List<LatencyHistogram> histograms = new ArrayList<>(tenants.size());
+
+            for (Tenant tenant : tenants.values()) {
+                final JWTProcessor processor = tenant.processor;
+
+                if (processor != null) {
+                    histograms.add(processor.getMetrics().getLatency(stage));
+                }
+            }
+
+            return histograms;
+        }
+    }
+}
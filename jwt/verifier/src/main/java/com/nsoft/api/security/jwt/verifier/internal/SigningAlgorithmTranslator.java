@@ -2,11 +2,25 @@ package com.nsoft.api.security.jwt.verifier.internal;
 
 import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 final class SigningAlgorithmTranslator {
     static com.nimbusds.jose.JWSAlgorithm toNimbusAlgorithm(JWSAlgorithm algorithm) {
         return com.nimbusds.jose.JWSAlgorithm.parse(algorithm.name());
     }
 
+    static Set<com.nimbusds.jose.JWSAlgorithm> toNimbusAlgorithms(Set<JWSAlgorithm> algorithms) {
+        final Set<com.nimbusds.jose.JWSAlgorithm> nimbusAlgorithms = new HashSet<>();
+
+        for (JWSAlgorithm algorithm : algorithms) {
+            nimbusAlgorithms.add(toNimbusAlgorithm(algorithm));
+        }
+
+        return Collections.unmodifiableSet(nimbusAlgorithms);
+    }
+
     private SigningAlgorithmTranslator() {
     }
 }
@@ -0,0 +1,134 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nsoft.api.security.jwt.verifier.RejectionReason;
+import com.nsoft.api.security.jwt.verifier.internal.json.JsonScanner;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.VerificationKeySource;
+import com.nsoft.api.security.jwt.verifier.internal.util.Base64UrlUtil;
+
+import java.text.ParseException;
+import java.util.Set;
+
+/**
+ * Rejects tokens which are certain to fail verification before any cryptographic operation is
+ * performed.
+ * <p>
+ * The pre-check enforces the maximum token length and the three segment JWS compact
+ * serialization, matches the header {@code alg} against the expected algorithms, makes sure the
+ * header {@code kid}, if present, is known to the {@link VerificationKeySource}, and checks the
+ * {@code exp} and {@code nbf} claims. Only the header and payload segments are decoded, and only
+ * the members needed for these checks are read from them.
+ * <p>
+ * Tokens that pass the pre-check still go through full verification.
+ */
+final class TokenPrecheck {
+
+    private final int maximumTokenLength;
+    private final Set<String> algorithms;
+    private final VerificationKeySource keySource;
+    private final long maximumClockSkew;
+
+    TokenPrecheck(int maximumTokenLength, Set<String> algorithms,
+            VerificationKeySource keySource, long maximumClockSkew) {
+        this.maximumTokenLength = maximumTokenLength;
+        this.algorithms = requireNonNull(algorithms, "algorithms must not be null");
+        this.keySource = requireNonNull(keySource, "keySource must not be null");
+        this.maximumClockSkew = maximumClockSkew;
+    }
+
+    /**
+     * Returns whether the token is longer than the maximum token length. Such tokens should be
+     * rejected before any work proportional to their length is done.
+     */
+    boolean isOversized(String token) {
+        return token.length() > maximumTokenLength;
+    }
+
+    /**
+     * Checks the specified token.
+     *
+     * @param token token to check
+     * @param now   current time in milliseconds
+     * @return reason the token is rejected for, or {@code null} if it passed the pre-check
+     */
+    RejectionReason check(String token, long now) {
+        if (isOversized(token)) {
+            return RejectionReason.MALFORMED;
+        }
+
+        final int headerEnd = token.indexOf('.');
+        final int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+
+        if (headerEnd <= 0 || payloadEnd < 0 || payloadEnd == token.length() - 1
+                || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return RejectionReason.MALFORMED;
+        }
+
+        try {
+            final RejectionReason headerRejection =
+                    checkHeader(Base64UrlUtil.decode(token, 0, headerEnd));
+
+            if (headerRejection != null) {
+                return headerRejection;
+            }
+
+            return checkPayload(Base64UrlUtil.decode(token, headerEnd + 1, payloadEnd), now);
+        } catch (ParseException e) {
+            return RejectionReason.MALFORMED;
+        } catch (KeySourceException e) {
+            return RejectionReason.KEY_SOURCE_UNAVAILABLE;
+        }
+    }
+
+    private RejectionReason checkHeader(byte[] header)
+            throws ParseException, KeySourceException {
+        final JsonScanner scanner = new JsonScanner(header);
+
+        String headerAlgorithm = null;
+        String keyId = null;
+
+        while (scanner.nextMember()) {
+            if (scanner.nameEquals("alg")) {
+                headerAlgorithm = scanner.stringValue();
+            } else if (scanner.nameEquals("kid")) {
+                keyId = scanner.stringValue();
+            }
+        }
+
+        if (headerAlgorithm == null) {
+            return RejectionReason.MALFORMED;
+        }
+
+        if (!algorithms.contains(headerAlgorithm)) {
+            return RejectionReason.NO_MATCHING_KEY;
+        }
+
+        if (keyId != null && !keySource.getKeySet(keyId).containsKeyId(keyId)) {
+            return RejectionReason.NO_MATCHING_KEY;
+        }
+
+        return null;
+    }
+
+    private RejectionReason checkPayload(byte[] payload, long now) throws ParseException {
+        final JsonScanner scanner = new JsonScanner(payload);
+
+        while (scanner.nextMember()) {
+            if (scanner.nameEquals("exp")) {
+                if (ClaimsVerifier.saturatedAdd(LazyJWTClaimsSet.toMillis(scanner.longValue()),
+                        maximumClockSkew) <= now) {
+                    return RejectionReason.INVALID_CLAIMS;
+                }
+            } else if (scanner.nameEquals("nbf")) {
+                if (ClaimsVerifier.saturatedAdd(LazyJWTClaimsSet.toMillis(scanner.longValue()),
+                        -maximumClockSkew) > now) {
+                    return RejectionReason.INVALID_CLAIMS;
+                }
+            }
+        }
+
+        return null;
+    }
+}
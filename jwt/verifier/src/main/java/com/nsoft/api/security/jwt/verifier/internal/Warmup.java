@@ -0,0 +1,182 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.Ed25519Signer;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.SignedJWT;
+import com.nsoft.api.security.jwt.verifier.ClaimPolicy;
+import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.internal.crypto.VerifierFactory;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.VerificationKeySet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Exercises the token verification code path with tokens signed by throwaway keys, so the classes
+ * involved are loaded and the hot methods are compiled before the first real token arrives.
+ * <p>
+ * A key is generated for every configured algorithm, and a small number of distinct tokens signed
+ * with it are verified repeatedly by a {@link DefaultJWTProcessor} which shares the configuration
+ * of the processor being warmed up, but only knows the throwaway key.
+ */
+final class Warmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(Warmup.class);
+
+    private static final String KEY_ID = "rsp4j-warmup";
+    private static final int DISTINCT_TOKENS = 8;
+
+    /**
+     * Runs the warmup.
+     *
+     * @return {@code true} if every synthetic token was verified successfully
+     */
+    static boolean run(JWTProcessorConfiguration configuration, Set<JWSAlgorithm> algorithms,
+            int iterations) {
+        boolean verified = true;
+
+        for (JWSAlgorithm algorithm : algorithms) {
+            final JWK key;
+            final JWSSigner signer;
+
+            try {
+                key = generateKey(algorithm);
+
+                if (key == null) {
+                    logger.debug("Skipping warmup of unsupported algorithm {}", algorithm);
+                    continue;
+                }
+
+                signer = createSigner(key);
+            } catch (JOSEException | LinkageError e) {
+                logger.debug("Skipping warmup of algorithm {}", algorithm, e);
+                continue;
+            }
+
+            final VerificationKeySet keySet = VerificationKeySet.from(new JWKSet(key),
+                    new VerifierFactory(configuration.getSecurityProviders()));
+            final DefaultJWTProcessor processor =
+                    new DefaultJWTProcessor(configuration, keyId -> keySet, null, null);
+
+            final String[] tokens;
+
+            try {
+                tokens = signTokens(configuration, algorithm, signer);
+            } catch (JOSEException e) {
+                logger.debug("Skipping warmup of algorithm {}", algorithm, e);
+                continue;
+            }
+
+            for (int i = 0; i < iterations; i++) {
+                if (!processor.processWithoutCaching(tokens[i % tokens.length]).isPresent()) {
+                    verified = false;
+                }
+            }
+        }
+
+        return verified;
+    }
+
+    private static JWK generateKey(JWSAlgorithm algorithm) throws JOSEException {
+        if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+            return new RSAKeyGenerator(RSAKeyGenerator.MIN_KEY_SIZE_BITS).keyID(KEY_ID).generate();
+        }
+
+        if (JWSAlgorithm.Family.EC.contains(algorithm)) {
+            return new ECKeyGenerator(Curve.forJWSAlgorithm(algorithm).iterator().next())
+                    .keyID(KEY_ID)
+                    .generate();
+        }
+
+        if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+            return new OctetSequenceKeyGenerator(MACSigner.getMinRequiredSecretLength(algorithm))
+                    .keyID(KEY_ID)
+                    .generate();
+        }
+
+        if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+            return new OctetKeyPairGenerator(Curve.Ed25519).keyID(KEY_ID).generate();
+        }
+
+        return null;
+    }
+
+    private static JWSSigner createSigner(JWK key) throws JOSEException {
+        if (key instanceof RSAKey) {
+            return new RSASSASigner((RSAKey) key);
+        }
+
+        if (key instanceof ECKey) {
+            return new ECDSASigner((ECKey) key);
+        }
+
+        if (key instanceof OctetKeyPair) {
+            return new Ed25519Signer((OctetKeyPair) key);
+        }
+
+        return new MACSigner((OctetSequenceKey) key);
+    }
+
+    private static String[] signTokens(JWTProcessorConfiguration configuration,
+            JWSAlgorithm algorithm, JWSSigner signer) throws JOSEException {
+        final long now = System.currentTimeMillis();
+        final String[] tokens = new String[DISTINCT_TOKENS];
+        final ClaimPolicy policy = configuration.getClaimPolicy();
+
+        for (int i = 0; i < tokens.length; i++) {
+            final com.nimbusds.jwt.JWTClaimsSet.Builder claims =
+                    new com.nimbusds.jwt.JWTClaimsSet.Builder();
+
+            for (String claim : policy.getRequiredClaims()) {
+                claims.claim(claim, "warmup");
+            }
+
+            // Registered claims are set last, so they replace the placeholder values above
+            claims.issueTime(new Date(now))
+                    .notBeforeTime(new Date(now))
+                    .expirationTime(new Date(now + 3_600_000))
+                    .subject("warmup-" + i)
+                    .jwtID("warmup-" + i);
+
+            if (configuration.getIssuer().isPresent()) {
+                claims.issuer(configuration.getIssuer().get());
+            } else if (!policy.getAllowedIssuers().isEmpty()) {
+                claims.issuer(policy.getAllowedIssuers().iterator().next());
+            }
+
+            if (!policy.getAcceptedAudiences().isEmpty()) {
+                claims.audience(policy.getAcceptedAudiences().iterator().next());
+            }
+
+            final SignedJWT jwt = new SignedJWT(
+                    new JWSHeader.Builder(algorithm).keyID(KEY_ID).build(), claims.build());
+            jwt.sign(signer);
+
+            tokens[i] = jwt.serialize();
+        }
+
+        return tokens;
+    }
+
+    private Warmup() {
+    }
+}
@@ -0,0 +1,222 @@
+package com.nsoft.api.security.jwt.verifier.internal.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nsoft.api.security.jwt.verifier.CacheStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, lock-striped cache of values keyed by {@link TokenFingerprint}.
+ * <p>
+ * Every entry carries its own absolute expiration time. Expired entries are treated as absent and
+ * removed lazily on lookup. When a stripe reaches its share of the maximum size, its least recently
+ * used entry is evicted.
+ * <p>
+ * Lookups only contend with other lookups that land on the same stripe. The number of stripes is
+ * derived from the number of available processors and the maximum size.
+ *
+ * @param <V> cached value type
+ */
+public final class TokenCache<V> implements CacheStatistics {
+
+    private static final int MAXIMUM_SEGMENTS = 1 << 16;
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new cache which holds at most (approximately) {@code maximumSize} entries.
+     *
+     * @param maximumSize maximum number of entries, must be greater than 0
+     */
+    public TokenCache(final int maximumSize) {
+        this(maximumSize, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenCache(final int maximumSize, final int concurrencyLevel) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be greater than 0");
+        }
+
+        // Every segment must be able to hold at least one entry
+        final int segmentCount = Math.min(
+                Math.min(ceilingPowerOfTwo(Math.max(1, concurrencyLevel)), MAXIMUM_SEGMENTS),
+                Integer.highestOneBit(maximumSize));
+        final int segmentCapacity = (maximumSize + segmentCount - 1) / segmentCount;
+
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity, evictions);
+        }
+    }
+
+    /**
+     * Returns the value associated with the specified fingerprint, or {@code null} if there is no
+     * such value or the value expired before {@code now}.
+     *
+     * @param fingerprint token fingerprint, must not be {@code null}
+     * @param now current time in milliseconds since the epoch
+     * @return cached value or {@code null}
+     */
+    public V get(final TokenFingerprint fingerprint, final long now) {
+        requireNonNull(fingerprint, "fingerprint must not be null");
+
+        final V value = segmentFor(fingerprint).get(fingerprint, now);
+
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Associates a value with the specified fingerprint until {@code expiresAt}.
+     *
+     * @param fingerprint token fingerprint, must not be {@code null}
+     * @param value value to cache, must not be {@code null}
+     * @param expiresAt absolute expiration time in milliseconds since the epoch
+     */
+    public void put(final TokenFingerprint fingerprint, final V value, final long expiresAt) {
+        requireNonNull(fingerprint, "fingerprint must not be null");
+        requireNonNull(value, "value must not be null");
+
+        segmentFor(fingerprint).put(fingerprint, value, expiresAt);
+    }
+
+    /**
+     * Removes all entries from the cache. Statistics are retained.
+     */
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public int getSize() {
+        int size = 0;
+
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    private Segment<V> segmentFor(final TokenFingerprint fingerprint) {
+        // Use the high bits so that keys within a segment still spread across the whole table
+        return segments.length == 1 ? segments[0]
+                : segments[fingerprint.hashCode() >>> segmentShift];
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment<V> extends ReentrantLock {
+
+        private final LinkedHashMap<TokenFingerprint, Entry<V>> entries;
+
+        private Segment(final int capacity, final LongAdder evictions) {
+            this.entries = new LinkedHashMap<TokenFingerprint, Entry<V>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TokenFingerprint, Entry<V>> eldest) {
+                    if (size() <= capacity) {
+                        return false;
+                    }
+
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        private V get(final TokenFingerprint fingerprint, final long now) {
+            lock();
+            try {
+                final Entry<V> entry = entries.get(fingerprint);
+
+                if (entry == null) {
+                    return null;
+                }
+
+                if (entry.expiresAt <= now) {
+                    entries.remove(fingerprint);
+                    return null;
+                }
+
+                return entry.value;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void put(final TokenFingerprint fingerprint, final V value, final long expiresAt) {
+            lock();
+            try {
+                entries.put(fingerprint, new Entry<>(value, expiresAt));
+            } finally {
+                unlock();
+            }
+        }
+
+        private void clear() {
+            lock();
+            try {
+                entries.clear();
+            } finally {
+                unlock();
+            }
+        }
+
+        private int size() {
+            lock();
+            try {
+                return entries.size();
+            } finally {
+                unlock();
+            }
+        }
+    }
+}
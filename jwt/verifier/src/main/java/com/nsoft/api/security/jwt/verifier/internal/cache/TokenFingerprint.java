@@ -0,0 +1,76 @@
+package com.nsoft.api.security.jwt.verifier.internal.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A SHA-256 fingerprint of a raw token, used as a cache key instead of the token itself.
+ * <p>
+ * A cache hit bypasses signature verification, so the fingerprint has to be collision resistant.
+ * The 256-bit digest is stored as four {@code long} values to keep equality checks cheap.
+ */
+public final class TokenFingerprint {
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal
+            .withInitial(TokenFingerprint::createDigest);
+
+    private final long h0;
+    private final long h1;
+    private final long h2;
+    private final long h3;
+
+    private TokenFingerprint(long h0, long h1, long h2, long h3) {
+        this.h0 = h0;
+        this.h1 = h1;
+        this.h2 = h2;
+        this.h3 = h3;
+    }
+
+    /**
+     * Computes the fingerprint of the specified token.
+     *
+     * @param token raw token, must not be {@code null}
+     * @return token fingerprint
+     */
+    public static TokenFingerprint of(final String token) {
+        requireNonNull(token, "token must not be null");
+
+        final MessageDigest digest = DIGEST.get();
+        final ByteBuffer hash = ByteBuffer
+                .wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+
+        return new TokenFingerprint(hash.getLong(), hash.getLong(), hash.getLong(),
+                hash.getLong());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the runtime", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof TokenFingerprint)) {
+            return false;
+        }
+
+        final TokenFingerprint that = (TokenFingerprint) o;
+        return h0 == that.h0 && h1 == that.h1 && h2 == that.h2 && h3 == that.h3;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (h0 ^ (h0 >>> 32));
+    }
+}
@@ -0,0 +1,175 @@
+package com.nsoft.api.security.jwt.verifier.internal.crypto;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeyLengthException;
+import com.nimbusds.jose.crypto.impl.MACProvider;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.crypto.Mac;
+
+/**
+ * A {@link JWSVerifier} for the {@code HS256}, {@code HS384} and {@code HS512} algorithms which
+ * reuses initialized {@link Mac} instances.
+ * <p>
+ * Looking up and initializing a {@link Mac} is considerably more expensive than computing a MAC
+ * over a token, so initialized instances are borrowed from a small pool per algorithm and returned
+ * once the MAC is computed. If the pool is empty, an initialized prototype is cloned instead.
+ * Unlike thread-local instances, pooled ones are released together with the verifier once its key
+ * is rotated, and are shared by virtual threads, each of which only runs a single task. The
+ * computed MAC is compared with the Base64URL encoded signature of the token directly, without
+ * decoding the signature first, in time which doesn't depend on the contents of either.
+ * <p>
+ * As with {@link com.nimbusds.jose.crypto.MACVerifier}, tokens with critical header parameters
+ * are rejected, since none are understood.
+ */
+public final class HMACVerifier extends MACProvider implements JWSVerifier {
+
+    private static final JWSAlgorithm[] ALGORITHMS = {
+            JWSAlgorithm.HS256, JWSAlgorithm.HS384, JWSAlgorithm.HS512
+    };
+
+    private static final int POOL_SIZE =
+            Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    // POOL_SIZE slots per algorithm, a slot holds an idle instance or null
+    private final AtomicReferenceArray<Mac> pool =
+            new AtomicReferenceArray<>(ALGORITHMS.length * POOL_SIZE);
+    private final AtomicReferenceArray<Mac> prototypes =
+            new AtomicReferenceArray<>(ALGORITHMS.length);
+
+    public HMACVerifier(final byte[] secret) throws KeyLengthException {
+        super(secret, SUPPORTED_ALGORITHMS);
+    }
+
+    @Override
+    public boolean verify(final JWSHeader header, final byte[] signingInput,
+            final Base64URL signature) throws JOSEException {
+        if (header.getCriticalParams() != null && !header.getCriticalParams().isEmpty()) {
+            return false;
+        }
+
+        final int index = indexOf(header.getAlgorithm());
+        final Mac mac = borrow(index);
+        final byte[] computed = mac.doFinal(signingInput);
+
+        release(index, mac);
+
+        return matches(computed, signature.toString());
+    }
+
+    private Mac borrow(final int index) throws JOSEException {
+        final int first = index * POOL_SIZE;
+        final int offset = (int) (Thread.currentThread().getId() % POOL_SIZE);
+
+        for (int i = 0; i < POOL_SIZE; i++) {
+            final Mac mac = pool.getAndSet(first + (offset + i) % POOL_SIZE, null);
+
+            if (mac != null) {
+                return mac;
+            }
+        }
+
+        return newMac(index);
+    }
+
+    /**
+     * Returns a reset instance to the pool, or drops it if the pool is full.
+     */
+    private void release(final int index, final Mac mac) {
+        final int first = index * POOL_SIZE;
+
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (pool.compareAndSet(first + i, null, mac)) {
+                return;
+            }
+        }
+    }
+
+    private Mac newMac(final int index) throws JOSEException {
+        Mac prototype = prototypes.get(index);
+
+        if (prototype == null) {
+            prototypes.compareAndSet(index, null, createMac(ALGORITHMS[index]));
+            prototype = prototypes.get(index);
+        }
+
+        try {
+            // The prototype is never used, so its state doesn't change while it is cloned
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return createMac(ALGORITHMS[index]);
+        }
+    }
+
+    private Mac createMac(final JWSAlgorithm algorithm) throws JOSEException {
+        final String jcaAlgorithm = getJCAAlgorithmName(algorithm);
+        final Provider provider = getJCAContext().getProvider();
+
+        try {
+            final Mac mac = provider == null ? Mac.getInstance(jcaAlgorithm)
+                    : Mac.getInstance(jcaAlgorithm, provider);
+            mac.init(getSecretKey());
+
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Couldn't create " + jcaAlgorithm + " MAC: " + e.getMessage(),
+                    e);
+        }
+    }
+
+    private static int indexOf(final JWSAlgorithm algorithm) throws JOSEException {
+        for (int i = 0; i < ALGORITHMS.length; i++) {
+            if (ALGORITHMS[i].equals(algorithm)) {
+                return i;
+            }
+        }
+
+        throw new JOSEException("Unsupported HMAC algorithm " + algorithm);
+    }
+
+    /**
+     * Compares the MAC with the unpadded Base64URL encoded signature in constant time. The MAC is
+     * encoded without table lookups, so no memory access depends on its contents either.
+     */
+    static boolean matches(final byte[] mac, final String signature) {
+        if (signature.length() != (mac.length * 4 + 2) / 3) {
+            return false;
+        }
+
+        int difference = 0;
+        int position = 0;
+
+        for (int i = 0; i < mac.length; i += 3) {
+            final int remaining = mac.length - i;
+            final int bits = (mac[i] & 0xFF) << 16
+                    | (remaining > 1 ? (mac[i + 1] & 0xFF) << 8 : 0)
+                    | (remaining > 2 ? mac[i + 2] & 0xFF : 0);
+            final int characters = remaining >= 3 ? 4 : remaining + 1;
+
+            for (int j = 0; j < characters; j++) {
+                final int value = (bits >>> (18 - 6 * j)) & 0x3F;
+
+                difference |= signature.charAt(position++) ^ encode(value);
+            }
+        }
+
+        return difference == 0;
+    }
+
+    /**
+     * Returns the Base64URL character of the specified 6-bit value, without branching on it.
+     */
+    private static int encode(final int value) {
+        return value + 'A'
+                + (((25 - value) >> 8) & ('a' - 'A' - 26))
+                + (((51 - value) >> 8) & ('0' - 'a' - 26))
+                + (((61 - value) >> 8) & ('-' - '0' - 10))
+                + (((62 - value) >> 8) & ('_' - '-' - 1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.nsoft.api.security.jwt.verifier.internal.crypto;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.impl.EdDSAProvider;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+
+/**
+ * A {@link JWSVerifier} for the {@code EdDSA} algorithm with {@code Ed25519} keys which verifies
+ * signatures with the {@code Ed25519} signature algorithm of a JCA {@link Provider}, such as the
+ * {@code SunEC} provider of Java 15 and later, or BouncyCastle.
+ * <p>
+ * {@link com.nimbusds.jose.crypto.Ed25519Verifier} always uses the optional Tink library instead
+ * of a JCA provider, so this verifier is used whenever a provider is configured for EdDSA.
+ */
+public final class JCAEd25519Verifier extends EdDSAProvider implements JWSVerifier {
+
+    private static final String ALGORITHM = "Ed25519";
+
+    // DER encoded SubjectPublicKeyInfo prefix of an Ed25519 public key (RFC 8410)
+    private static final byte[] PUBLIC_KEY_PREFIX = {
+            0x30, 0x2A, 0x30, 0x05, 0x06, 0x03, 0x2B, 0x65, 0x70, 0x03, 0x21, 0x00
+    };
+
+    private static final int PUBLIC_KEY_LENGTH = 32;
+
+    private final Provider provider;
+    private final PublicKey publicKey;
+
+    public JCAEd25519Verifier(final OctetKeyPair key, final Provider provider)
+            throws JOSEException {
+        requireNonNull(key, "key must not be null");
+        this.provider = requireNonNull(provider, "provider must not be null");
+
+        if (!Curve.Ed25519.equals(key.getCurve())) {
+            throw new JOSEException("Unsupported EdDSA curve " + key.getCurve());
+        }
+
+        final byte[] x = key.getDecodedX();
+
+        if (x.length != PUBLIC_KEY_LENGTH) {
+            throw new JOSEException("Invalid Ed25519 public key length " + x.length);
+        }
+
+        final byte[] encoded =
+                Arrays.copyOf(PUBLIC_KEY_PREFIX, PUBLIC_KEY_PREFIX.length + x.length);
+        System.arraycopy(x, 0, encoded, PUBLIC_KEY_PREFIX.length, x.length);
+
+        try {
+            this.publicKey = KeyFactory.getInstance(ALGORITHM, provider)
+                    .generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Provider " + provider.getName() + " doesn't support "
+                    + ALGORITHM + ": " + e.getMessage(), e);
+        }
+
+        getJCAContext().setProvider(provider);
+    }
+
+    @Override
+    public boolean verify(final JWSHeader header, final byte[] signingInput,
+            final Base64URL signature) throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported EdDSA algorithm " + header.getAlgorithm());
+        }
+
+        if (header.getCriticalParams() != null && !header.getCriticalParams().isEmpty()) {
+            return false;
+        }
+
+        try {
+            final Signature verifier = Signature.getInstance(ALGORITHM, provider);
+            verifier.initVerify(publicKey);
+            verifier.update(signingInput);
+
+            return verifier.verify(signature.decode());
+        } catch (SignatureException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Couldn't verify " + ALGORITHM + " signature: "
+                    + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.nsoft.api.security.jwt.verifier.internal.crypto;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+
+import java.security.Provider;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Creates the {@link JWSVerifier} of a {@link JWK}, using the {@link Provider security provider}
+ * configured for the algorithm family of the key, or the default provider of the JVM if none is
+ * configured.
+ */
+public final class VerifierFactory {
+
+    /**
+     * A factory which uses the default provider for every algorithm family.
+     */
+    public static final VerifierFactory DEFAULT = new VerifierFactory(Collections.emptyMap());
+
+    private final Map<JWSAlgorithm.Family, Provider> providers;
+
+    public VerifierFactory(final Map<JWSAlgorithm.Family, Provider> providers) {
+        requireNonNull(providers, "providers must not be null");
+
+        this.providers = providers.isEmpty()
+                ? Collections.emptyMap()
+                : new EnumMap<>(providers);
+    }
+
+    /**
+     * Creates the verifier of the specified key.
+     *
+     * @param jwk key, must not be {@code null}
+     * @return verifier, or {@code null} if the key type isn't supported
+     * @throws JOSEException if the key can't be used with its provider
+     */
+    public JWSVerifier create(final JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey) {
+            final RSASSAVerifier verifier = new RSASSAVerifier((RSAKey) jwk);
+            verifier.getJCAContext().setProvider(providers.get(JWSAlgorithm.Family.RSA));
+            return verifier;
+        }
+
+        if (jwk instanceof ECKey) {
+            final ECDSAVerifier verifier = new ECDSAVerifier((ECKey) jwk);
+            verifier.getJCAContext().setProvider(providers.get(JWSAlgorithm.Family.EC));
+            return verifier;
+        }
+
+        if (jwk instanceof OctetSequenceKey) {
+            final HMACVerifier verifier = new HMACVerifier(((OctetSequenceKey) jwk).toByteArray());
+            verifier.getJCAContext().setProvider(providers.get(JWSAlgorithm.Family.HMAC));
+            return verifier;
+        }
+
+        if (jwk instanceof OctetKeyPair) {
+            final Provider provider = providers.get(JWSAlgorithm.Family.EDDSA);
+
+            return provider == null
+                    ? new Ed25519Verifier((OctetKeyPair) jwk)
+                    : new JCAEd25519Verifier((OctetKeyPair) jwk, provider);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.nsoft.api.security.jwt.verifier.internal.introspection;
+
+import static com.nsoft.api.security.jwt.verifier.internal.util.HttpUtil.drain;
+import static com.nsoft.api.security.jwt.verifier.internal.util.HttpUtil.read;
+import static java.util.Objects.requireNonNull;
+
+import com.nsoft.api.security.jwt.verifier.internal.LazyJWTClaimsSet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * An {@link IntrospectionClient} posting tokens to an RFC 7662 introspection endpoint.
+ * <p>
+ * The client authenticates with HTTP Basic authentication if a client identifier is specified.
+ * Response bodies are always read to the end and closed, and connections are never explicitly
+ * disconnected, so the JDK keeps the underlying connections alive and reuses them for subsequent
+ * requests instead of opening a new connection per introspected token.
+ */
+public final class HttpIntrospectionClient implements IntrospectionClient {
+
+    private static final int MAXIMUM_CONTENT_LENGTH = 64 * 1024;
+
+    private final URL url;
+    private final String authorization;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    public HttpIntrospectionClient(final URL url, final String clientId,
+            final String clientSecret, final int connectTimeout, final int readTimeout) {
+        this.url = requireNonNull(url, "url must not be null");
+
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException("connectTimeout must not be less than 0");
+        }
+
+        if (readTimeout < 0) {
+            throw new IllegalArgumentException("readTimeout must not be less than 0");
+        }
+
+        this.authorization = clientId == null ? null
+                : basicAuthorization(clientId, clientSecret == null ? "" : clientSecret);
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public Optional<LazyJWTClaimsSet> introspect(final String token) throws IOException {
+        final URLConnection urlConnection = url.openConnection();
+
+        if (!(urlConnection instanceof HttpURLConnection)) {
+            throw new IOException("Unsupported introspection URL protocol: " + url.getProtocol());
+        }
+
+        final byte[] body = ("token=" + formEncode(token) + "&token_type_hint=access_token")
+                .getBytes(StandardCharsets.US_ASCII);
+
+        final HttpURLConnection connection = (HttpURLConnection) urlConnection;
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setUseCaches(false);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+        connection.setRequestProperty("Accept", "application/json");
+
+        if (authorization != null) {
+            connection.setRequestProperty("Authorization", authorization);
+        }
+
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+
+        final int statusCode = connection.getResponseCode();
+
+        if (statusCode != HttpURLConnection.HTTP_OK) {
+            drain(connection.getErrorStream());
+            throw new IOException("Unexpected HTTP status code " + statusCode
+                    + " while introspecting token at " + url);
+        }
+
+        return parse(read(connection.getInputStream(), MAXIMUM_CONTENT_LENGTH));
+    }
+
+    /**
+     * Parses an introspection response. Only responses with an {@code active} member of {@code
+     * true} describe an active token.
+     */
+    static Optional<LazyJWTClaimsSet> parse(final String content) throws IOException {
+        try {
+            final LazyJWTClaimsSet response =
+                    LazyJWTClaimsSet.parse(content.getBytes(StandardCharsets.UTF_8));
+
+            if (!Boolean.TRUE.equals(response.getClaim("active"))) {
+                return Optional.empty();
+            }
+
+            return Optional.of(response);
+        } catch (ParseException e) {
+            throw new IOException("Invalid introspection response", e);
+        }
+    }
+
+    /**
+     * Encodes the client credentials as specified by RFC 6749, section 2.3.1.
+     */
+    private static String basicAuthorization(final String clientId, final String clientSecret) {
+        final String credentials = formEncode(clientId) + ":" + formEncode(clientSecret);
+
+        return "Basic " + Base64.getEncoder()
+                .encodeToString(credentials.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String formEncode(final String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
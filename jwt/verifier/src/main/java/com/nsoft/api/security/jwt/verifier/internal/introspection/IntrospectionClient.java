@@ -0,0 +1,23 @@
+package com.nsoft.api.security.jwt.verifier.internal.introspection;
+
+import com.nsoft.api.security.jwt.verifier.internal.LazyJWTClaimsSet;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Asks an authorization server whether a token is active, as specified by RFC 7662.
+ */
+@FunctionalInterface
+public interface IntrospectionClient {
+
+    /**
+     * Introspects the specified token.
+     *
+     * @param token opaque token
+     * @return claims of the token if it is active, an empty {@link Optional} otherwise
+     * @throws IOException if the authorization server couldn't be reached or returned an invalid
+     *                     response
+     */
+    Optional<LazyJWTClaimsSet> introspect(String token) throws IOException;
+}
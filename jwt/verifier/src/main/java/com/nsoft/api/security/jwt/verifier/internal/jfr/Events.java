@@ -0,0 +1,69 @@
+package com.nsoft.api.security.jwt.verifier.internal.jfr;
+
+import jdk.jfr.EventType;
+
+import java.net.URL;
+
+/**
+ * Creates and commits the event classes, which is only done after {@link FlightRecorderEvents}
+ * found {@code jdk.jfr} on the running JVM.
+ * <p>
+ * Whether an event is enabled is checked through its {@link EventType}, so no event is allocated
+ * unless it is recorded.
+ */
+final class Events {
+
+    private static final EventType TOKEN_VERIFICATION =
+            EventType.getEventType(TokenVerificationEvent.class);
+    private static final EventType JWKS_FETCH = EventType.getEventType(JWKSFetchEvent.class);
+
+    private Events() {
+    }
+
+    static Object beginTokenVerification() {
+        if (!TOKEN_VERIFICATION.isEnabled()) {
+            return null;
+        }
+
+        final TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitTokenVerification(Object event, String algorithm, String keyId,
+            String outcome) {
+        final TokenVerificationEvent verification = (TokenVerificationEvent) event;
+        verification.end();
+
+        if (verification.shouldCommit()) {
+            verification.algorithm = algorithm;
+            verification.keyId = keyId;
+            verification.outcome = outcome;
+            verification.commit();
+        }
+    }
+
+    static Object beginJWKSFetch() {
+        if (!JWKS_FETCH.isEnabled()) {
+            return null;
+        }
+
+        final JWKSFetchEvent event = new JWKSFetchEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitJWKSFetch(Object event, URL url, int statusCode, long bytes,
+            boolean cached) {
+        final JWKSFetchEvent fetch = (JWKSFetchEvent) event;
+        fetch.end();
+
+        if (fetch.shouldCommit()) {
+            fetch.url = url.toString();
+            fetch.statusCode = statusCode;
+            fetch.bytes = bytes;
+            fetch.cached = cached;
+            fetch.commit();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.nsoft.api.security.jwt.verifier.internal.jfr;
+
+import java.net.URL;
+
+/**
+ * Emits Java Flight Recorder events, if the running JVM supports them.
+ * <p>
+ * This library targets Java 8, which may lack the {@code jdk.jfr} API, so this class never
+ * references it directly. The event classes are only loaded once {@code jdk.jfr} was found on the
+ * running JVM, and events are passed around as plain {@link Object objects} so that callers don't
+ * link against them either.
+ * <p>
+ * A {@code begin} method returns {@code null} unless the event is enabled in a running recording,
+ * and {@code commit} methods return immediately for {@code null} events, so emitting events costs
+ * little more than a field read when nothing is being recorded.
+ */
+public final class FlightRecorderEvents {
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private FlightRecorderEvents() {
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begins a token verification event.
+     *
+     * @return event to be committed, {@code null} if the event isn't recorded
+     */
+    public static Object beginTokenVerification() {
+        return AVAILABLE ? Events.beginTokenVerification() : null;
+    }
+
+    /**
+     * Commits a token verification event.
+     *
+     * @param event     event returned by {@link #beginTokenVerification()}, may be {@code null}
+     * @param algorithm signing algorithm of the token, {@code null} if unknown
+     * @param keyId     key ID of the token, {@code null} if unknown
+     * @param outcome   {@code ACCEPTED}, or the name of the rejection reason
+     */
+    public static void commitTokenVerification(Object event, String algorithm, String keyId,
+            String outcome) {
+        if (event != null) {
+            Events.commitTokenVerification(event, algorithm, keyId, outcome);
+        }
+    }
+
+    /**
+     * Begins a JWKS fetch event.
+     *
+     * @return event to be committed, {@code null} if the event isn't recorded
+     */
+    public static Object beginJWKSFetch() {
+        return AVAILABLE ? Events.beginJWKSFetch() : null;
+    }
+
+    /**
+     * Commits a JWKS fetch event.
+     *
+     * @param event      event returned by {@link #beginJWKSFetch()}, may be {@code null}
+     * @param url        JWKS URL
+     * @param statusCode HTTP status code, 0 if no response was received
+     * @param bytes      size of the response body
+     * @param cached     whether the server answered with {@code 304 Not Modified}, so the cached
+     *                   key set was kept
+     */
+    public static void commitJWKSFetch(Object event, URL url, int statusCode, long bytes,
+            boolean cached) {
+        if (event != null) {
+            Events.commitJWKSFetch(event, url, statusCode, bytes, cached);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.nsoft.api.security.jwt.verifier.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for every HTTP request retrieving a JSON Web Key Set, including failed requests.
+ */
+@Name("com.nsoft.rsp4j.JWKSFetch")
+@Label("JWKS Fetch")
+@Category({"rsp4j", "JWT"})
+@Description("Retrieval of a JSON Web Key Set")
+@StackTrace(false)
+final class JWKSFetchEvent extends jdk.jfr.Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Status Code")
+    @Description("HTTP status code, 0 if no response was received")
+    int statusCode;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Served From Cache")
+    @Description("Whether the cached key set was kept after a 304 Not Modified response")
+    boolean cached;
+}
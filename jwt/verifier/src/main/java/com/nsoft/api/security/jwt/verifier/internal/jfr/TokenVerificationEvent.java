@@ -0,0 +1,29 @@
+package com.nsoft.api.security.jwt.verifier.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for every token whose signature and claims are verified, that is every processed token
+ * which was neither served from a cache nor rejected during the pre-check.
+ */
+@Name("com.nsoft.rsp4j.TokenVerification")
+@Label("Token Verification")
+@Category({"rsp4j", "JWT"})
+@Description("Verification of the signature and claims of a token")
+@StackTrace(false)
+final class TokenVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Key ID")
+    String keyId;
+
+    @Label("Outcome")
+    @Description("ACCEPTED, or the reason the token was rejected for")
+    String outcome;
+}
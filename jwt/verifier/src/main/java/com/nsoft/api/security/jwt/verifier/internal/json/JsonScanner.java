@@ -0,0 +1,773 @@
+package com.nsoft.api.security.jwt.verifier.internal.json;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal, allocation-light cursor over the top-level members of a UTF-8 encoded JSON object.
+ * <p>
+ * The scanner doesn't build a tree. It walks the members of the outermost object one at a time and
+ * only decodes the values the caller asks for; every other value, including nested objects and
+ * arrays, is skipped without being materialized. It is meant for reading a handful of members,
+ * such as {@code alg} and {@code kid} from a JOSE header or {@code exp} from a JWT payload, without
+ * paying for a full JSON parse.
+ * <p>
+ * Skipped values are validated just as strictly as decoded ones, so any value the scanner walked
+ * over can later be decoded from its {@link #valueOffset() offset}. Content following the
+ * outermost object is not inspected.
+ *
+ * <pre>{@code
+ * final JsonScanner scanner = new JsonScanner(json);
+ * while (scanner.nextMember()) {
+ *     if (scanner.nameEquals("exp")) {
+ *         exp = scanner.longValue();
+ *     }
+ * }
+ * }</pre>
+ */
+public final class JsonScanner {
+
+    private static final int MAXIMUM_DEPTH = 64;
+
+    private final byte[] json;
+    private final int end;
+
+    private int position;
+
+    private int nameStart;
+    private int nameEnd;
+    private boolean nameEscaped;
+
+    private int valueStart = -1;
+    private boolean valueConsumed = true;
+
+    private boolean started;
+    private boolean finished;
+
+    public JsonScanner(final byte[] json) {
+        this(json, 0, requireNonNull(json, "json must not be null").length);
+    }
+
+    public JsonScanner(final byte[] json, final int offset, final int length) {
+        this.json = requireNonNull(json, "json must not be null");
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Creates a scanner positioned on a value previously located with {@link #valueOffset()}.
+     * Only the value accessors may be used on the returned scanner.
+     *
+     * @param json   source document
+     * @param offset offset of the value
+     * @param end    exclusive end offset of the source document
+     * @return scanner positioned on the value
+     */
+    public static JsonScanner valueAt(final byte[] json, final int offset, final int end) {
+        final JsonScanner scanner = new JsonScanner(json, offset, end - offset);
+        scanner.valueStart = offset;
+        scanner.valueConsumed = false;
+        scanner.started = true;
+        scanner.finished = true;
+
+        return scanner;
+    }
+
+    /**
+     * Advances to the next top-level member, skipping the value of the current member if it was
+     * not read.
+     *
+     * @return {@code false} if there are no more members
+     * @throws ParseException if the document is not a well-formed JSON object
+     */
+    public boolean nextMember() throws ParseException {
+        if (finished) {
+            return false;
+        }
+
+        if (!started) {
+            skipWhitespace();
+            expect('{');
+            started = true;
+            skipWhitespace();
+
+            if (peek() == '}') {
+                position++;
+                finished = true;
+                return false;
+            }
+        } else {
+            if (!valueConsumed) {
+                skipValue();
+            }
+
+            skipWhitespace();
+            final byte separator = next();
+
+            if (separator == '}') {
+                finished = true;
+                return false;
+            }
+
+            if (separator != ',') {
+                throw error("Expected ',' or '}'");
+            }
+
+            skipWhitespace();
+        }
+
+        expect('"');
+        nameStart = position;
+        nameEscaped = skipStringContent();
+        nameEnd = position - 1;
+
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+
+        valueStart = position;
+        valueConsumed = false;
+
+        return true;
+    }
+
+    /**
+     * Returns whether the name of the current member equals the specified name.
+     *
+     * @param name name to compare with, must only contain ASCII characters
+     * @return {@code true} if the names are equal
+     * @throws ParseException if the member name is malformed
+     */
+    public boolean nameEquals(final String name) throws ParseException {
+        if (nameEscaped) {
+            return name.equals(decodeString(nameStart, nameEnd));
+        }
+
+        final int length = nameEnd - nameStart;
+
+        if (length != name.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (json[nameStart + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the name of the current member.
+     *
+     * @return member name
+     * @throws ParseException if the member name is malformed
+     */
+    public String name() throws ParseException {
+        return nameEscaped ? decodeString(nameStart, nameEnd)
+                : new String(json, nameStart, nameEnd - nameStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the canonical instance of the name of the current member if it is contained in the
+     * specified {@link NameTable}, or a newly decoded name otherwise.
+     *
+     * @param names table of well-known names
+     * @return member name
+     * @throws ParseException if the member name is malformed
+     */
+    public String name(final NameTable names) throws ParseException {
+        if (!nameEscaped) {
+            final String name = names.lookup(json, nameStart, nameEnd);
+
+            if (name != null) {
+                return name;
+            }
+        }
+
+        return name();
+    }
+
+    /**
+     * Returns the offset of the value of the current member, which can later be passed to
+     * {@link #valueAt(byte[], int, int)}.
+     *
+     * @return value offset
+     */
+    public int valueOffset() {
+        return valueStart;
+    }
+
+    /**
+     * Returns the type of the value of the current member.
+     *
+     * @return value type
+     * @throws ParseException if the value is malformed
+     */
+    public ValueType valueType() throws ParseException {
+        switch (json[valueStart]) {
+            case '"':
+                return ValueType.STRING;
+            case '{':
+                return ValueType.OBJECT;
+            case '[':
+                return ValueType.ARRAY;
+            case 't':
+            case 'f':
+                return ValueType.BOOLEAN;
+            case 'n':
+                return ValueType.NULL;
+            default:
+                if (json[valueStart] == '-' || isDigit(json[valueStart])) {
+                    return ValueType.NUMBER;
+                }
+
+                throw error("Unexpected value");
+        }
+    }
+
+    /**
+     * Reads the value of the current member as a string.
+     *
+     * @return string value, {@code null} if the value is JSON {@code null}
+     * @throws ParseException if the value is neither a string nor {@code null}
+     */
+    public String stringValue() throws ParseException {
+        position = valueStart;
+
+        if (peek() == 'n') {
+            skipValue();
+            return null;
+        }
+
+        expect('"');
+        final int start = position;
+        final boolean escaped = skipStringContent();
+        valueConsumed = true;
+
+        return escaped ? decodeString(start, position - 1)
+                : new String(json, start, position - 1 - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the value of the current member as a {@code long}. Fractional numbers are truncated.
+     *
+     * @return numeric value
+     * @throws ParseException if the value is not a number
+     */
+    public long longValue() throws ParseException {
+        position = valueStart;
+
+        final int start = position;
+        boolean negative = false;
+        boolean integral = true;
+        long value = 0;
+
+        if (peek() == '-') {
+            negative = true;
+            position++;
+        }
+
+        if (position >= end || !isDigit(json[position])) {
+            throw error("Expected a number");
+        }
+
+        while (position < end) {
+            final byte b = json[position];
+
+            if (isDigit(b)) {
+                if (value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                    integral = false;
+                }
+                value = value * 10 + (b - '0');
+            } else if (b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-') {
+                integral = false;
+            } else {
+                break;
+            }
+
+            position++;
+        }
+
+        valueConsumed = true;
+
+        if (integral) {
+            return negative ? -value : value;
+        }
+
+        try {
+            return (long) Double.parseDouble(
+                    new String(json, start, position - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw error("Malformed number");
+        }
+    }
+
+    /**
+     * Reads the value of the current member as a plain Java object. Strings are returned as
+     * {@link String}, integral numbers as {@link Long}, other numbers as {@link Double}, booleans as
+     * {@link Boolean}, objects as unmodifiable {@link Map} instances and arrays as unmodifiable
+     * {@link List} instances.
+     *
+     * @return decoded value, {@code null} if the value is JSON {@code null}
+     * @throws ParseException if the value is malformed
+     */
+    public Object value() throws ParseException {
+        position = valueStart;
+        final Object value = readValue(0);
+        valueConsumed = true;
+
+        return value;
+    }
+
+    private Object readValue(final int depth) throws ParseException {
+        if (depth > MAXIMUM_DEPTH) {
+            throw error("Maximum nesting depth exceeded");
+        }
+
+        skipWhitespace();
+        final int start = position;
+
+        switch (peek()) {
+            case '"':
+                position++;
+                final boolean escaped = skipStringContent();
+
+                return escaped ? decodeString(start + 1, position - 1)
+                        : new String(json, start + 1, position - 2 - start, StandardCharsets.UTF_8);
+            case '{':
+                return readObject(depth);
+            case '[':
+                return readArray(depth);
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject(final int depth) throws ParseException {
+        expect('{');
+        skipWhitespace();
+
+        final Map<String, Object> object = new LinkedHashMap<>();
+
+        if (peek() == '}') {
+            position++;
+            return Collections.unmodifiableMap(object);
+        }
+
+        do {
+            skipWhitespace();
+            expect('"');
+            final int start = position;
+            final boolean escaped = skipStringContent();
+            final String name = escaped ? decodeString(start, position - 1)
+                    : new String(json, start, position - 1 - start, StandardCharsets.UTF_8);
+
+            skipWhitespace();
+            expect(':');
+            object.put(name, readValue(depth + 1));
+            skipWhitespace();
+        } while (nextElement('}'));
+
+        return Collections.unmodifiableMap(object);
+    }
+
+    private List<Object> readArray(final int depth) throws ParseException {
+        expect('[');
+        skipWhitespace();
+
+        final List<Object> array = new ArrayList<>();
+
+        if (peek() == ']') {
+            position++;
+            return Collections.unmodifiableList(array);
+        }
+
+        do {
+            array.add(readValue(depth + 1));
+            skipWhitespace();
+        } while (nextElement(']'));
+
+        return Collections.unmodifiableList(array);
+    }
+
+    private boolean nextElement(final char closing) throws ParseException {
+        final byte separator = next();
+
+        if (separator == ',') {
+            return true;
+        }
+
+        if (separator != closing) {
+            throw error("Expected ',' or '" + closing + "'");
+        }
+
+        return false;
+    }
+
+    private Object readLiteral(final String literal, final Object value) throws ParseException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+        }
+
+        return value;
+    }
+
+    private Number readNumber() throws ParseException {
+        final int start = position;
+        boolean integral = true;
+
+        if (peek() == '-') {
+            position++;
+        }
+
+        if (position >= end || !isDigit(json[position])) {
+            throw error("Expected a number");
+        }
+
+        while (position < end) {
+            final byte b = json[position];
+
+            if (b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-') {
+                integral = false;
+            } else if (!isDigit(b)) {
+                break;
+            }
+
+            position++;
+        }
+
+        final String number = new String(json, start, position - start, StandardCharsets.US_ASCII);
+
+        try {
+            if (integral && position - start < 19) {
+                return Long.parseLong(number);
+            }
+
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw error("Malformed number");
+        }
+    }
+
+    /**
+     * Skips the value of the current member, validating it without decoding it.
+     *
+     * @throws ParseException if the value is malformed
+     */
+    public void skipValue() throws ParseException {
+        position = valueStart;
+        skipValue(0);
+        valueConsumed = true;
+    }
+
+    /**
+     * Mirrors {@link #readValue(int)} without materializing anything, so every value accepted here
+     * is accepted by {@link #value()} as well.
+     */
+    private void skipValue(final int depth) throws ParseException {
+        if (depth > MAXIMUM_DEPTH) {
+            throw error("Maximum nesting depth exceeded");
+        }
+
+        skipWhitespace();
+
+        switch (peek()) {
+            case '"':
+                position++;
+                skipValidatedStringContent();
+                break;
+            case '{':
+                skipObject(depth);
+                break;
+            case '[':
+                skipArray(depth);
+                break;
+            case 't':
+                readLiteral("true", null);
+                break;
+            case 'f':
+                readLiteral("false", null);
+                break;
+            case 'n':
+                readLiteral("null", null);
+                break;
+            default:
+                skipNumber();
+        }
+    }
+
+    private void skipObject(final int depth) throws ParseException {
+        expect('{');
+        skipWhitespace();
+
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+
+        do {
+            skipWhitespace();
+            expect('"');
+            skipValidatedStringContent();
+            skipWhitespace();
+            expect(':');
+            skipValue(depth + 1);
+            skipWhitespace();
+        } while (nextElement('}'));
+    }
+
+    private void skipArray(final int depth) throws ParseException {
+        expect('[');
+        skipWhitespace();
+
+        if (peek() == ']') {
+            position++;
+            return;
+        }
+
+        do {
+            skipValue(depth + 1);
+            skipWhitespace();
+        } while (nextElement(']'));
+    }
+
+    /**
+     * Skips a number conforming to the JSON number grammar.
+     */
+    private void skipNumber() throws ParseException {
+        if (peek() == '-') {
+            position++;
+        }
+
+        if (!skipDigits()) {
+            throw error("Expected a number");
+        }
+
+        if (position < end && json[position] == '.') {
+            position++;
+
+            if (!skipDigits()) {
+                throw error("Malformed number");
+            }
+        }
+
+        if (position < end && (json[position] == 'e' || json[position] == 'E')) {
+            position++;
+
+            if (position < end && (json[position] == '+' || json[position] == '-')) {
+                position++;
+            }
+
+            if (!skipDigits()) {
+                throw error("Malformed number");
+            }
+        }
+    }
+
+    private boolean skipDigits() {
+        final int start = position;
+
+        while (position < end && isDigit(json[position])) {
+            position++;
+        }
+
+        return position > start;
+    }
+
+    /**
+     * Advances past the closing quote of a string whose opening quote was already consumed,
+     * rejecting escape sequences which {@link #decodeString(int, int)} wouldn't accept.
+     */
+    private void skipValidatedStringContent() throws ParseException {
+        while (position < end) {
+            final byte b = json[position++];
+
+            if (b == '"') {
+                return;
+            }
+
+            if (b == '\\') {
+                skipEscapeSequence();
+            }
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private void skipEscapeSequence() throws ParseException {
+        switch (next()) {
+            case '"':
+            case '\\':
+            case '/':
+            case 'b':
+            case 'f':
+            case 'n':
+            case 'r':
+            case 't':
+                return;
+            case 'u':
+                for (int i = 0; i < 4; i++) {
+                    if (Character.digit(next(), 16) < 0) {
+                        throw error("Malformed unicode escape sequence");
+                    }
+                }
+                return;
+            default:
+                throw error("Malformed escape sequence");
+        }
+    }
+
+    /**
+     * Advances past the closing quote of a string whose opening quote was already consumed.
+     *
+     * @return whether the string contains escape sequences
+     */
+    private boolean skipStringContent() throws ParseException {
+        boolean escaped = false;
+
+        while (position < end) {
+            final byte b = json[position++];
+
+            if (b == '"') {
+                return escaped;
+            }
+
+            if (b == '\\') {
+                escaped = true;
+                position++;
+            }
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private String decodeString(final int start, final int stop) throws ParseException {
+        final String raw = new String(json, start, stop - start, StandardCharsets.UTF_8);
+        final StringBuilder builder = new StringBuilder(raw.length());
+
+        for (int i = 0; i < raw.length(); i++) {
+            final char c = raw.charAt(i);
+
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+
+            if (++i >= raw.length()) {
+                throw error("Malformed escape sequence");
+            }
+
+            final char escape = raw.charAt(i);
+
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append(escape);
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 >= raw.length()) {
+                        throw error("Malformed unicode escape sequence");
+                    }
+
+                    try {
+                        builder.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Malformed unicode escape sequence");
+                    }
+
+                    i += 4;
+                    break;
+                default:
+                    throw error("Malformed escape sequence");
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            final byte b = json[position];
+
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+
+            position++;
+        }
+    }
+
+    private byte peek() throws ParseException {
+        if (position >= end) {
+            throw error("Unexpected end of document");
+        }
+
+        return json[position];
+    }
+
+    private byte next() throws ParseException {
+        final byte b = peek();
+        position++;
+
+        return b;
+    }
+
+    private void expect(final char expected) throws ParseException {
+        if (next() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private ParseException error(final String message) {
+        return new ParseException(message, position);
+    }
+
+    private static boolean isDigit(final byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * JSON value types reported by {@link #valueType()}
+     */
+    public enum ValueType {
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        OBJECT,
+        ARRAY
+    }
+}
@@ -0,0 +1,94 @@
+package com.nsoft.api.security.jwt.verifier.internal.json;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A fixed table of canonical {@link String} instances which can be looked up directly by their
+ * encoded bytes.
+ * <p>
+ * Used by {@link JsonScanner} to return a shared instance for well-known member names instead of
+ * allocating a new {@link String} for every occurrence. Only ASCII names are supported.
+ */
+public final class NameTable {
+
+    private final String[] slots;
+    private final int mask;
+
+    public NameTable(final String... names) {
+        requireNonNull(names, "names must not be null");
+
+        final int capacity = Integer.highestOneBit(Math.max(names.length, 1) * 4 - 1) << 1;
+        this.slots = new String[capacity];
+        this.mask = capacity - 1;
+
+        for (String name : names) {
+            int slot = hash(name) & mask;
+
+            while (slots[slot] != null && !slots[slot].equals(name)) {
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = name;
+        }
+    }
+
+    /**
+     * Returns the canonical instance of the name encoded between the specified offsets.
+     *
+     * @param bytes source bytes
+     * @param start inclusive start offset
+     * @param end   exclusive end offset
+     * @return canonical name, {@code null} if the name is not in this table
+     */
+    public String lookup(final byte[] bytes, final int start, final int end) {
+        int slot = hash(bytes, start, end) & mask;
+
+        while (slots[slot] != null) {
+            if (matches(slots[slot], bytes, start, end)) {
+                return slots[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return null;
+    }
+
+    private static boolean matches(String name, byte[] bytes, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            if (bytes[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hash(String name) {
+        int hash = 0;
+
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + (byte) name.charAt(i);
+        }
+
+        return spread(hash);
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int hash = 0;
+
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+
+        return spread(hash);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
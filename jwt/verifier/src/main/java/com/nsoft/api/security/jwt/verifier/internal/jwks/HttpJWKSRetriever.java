@@ -0,0 +1,171 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static com.nsoft.api.security.jwt.verifier.internal.util.HttpUtil.drain;
+import static com.nsoft.api.security.jwt.verifier.internal.util.HttpUtil.read;
+
+import com.nsoft.api.security.jwt.verifier.internal.jfr.FlightRecorderEvents;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link JWKSRetriever} which uses HTTP conditional requests and honours {@code Cache-Control}.
+ * <p>
+ * The {@code ETag} and {@code Last-Modified} validators of the last successful response are sent
+ * back as {@code If-None-Match} and {@code If-Modified-Since}, so an unchanged key set is answered
+ * with an empty {@code 304 Not Modified} response and doesn't have to be parsed again. The
+ * {@code max-age} directive is reported to the caller, which uses it to schedule the next refresh.
+ * <p>
+ * Response bodies are always read to the end and closed, and connections are never explicitly
+ * disconnected, so the JDK keeps the underlying connections alive and reuses them for subsequent
+ * requests to the same server.
+ */
+public final class HttpJWKSRetriever implements JWKSRetriever {
+
+    private static final int MAXIMUM_CONTENT_LENGTH = 1024 * 1024;
+
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    // Keyed by the external form, URL.equals() and URL.hashCode() resolve the host name
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+
+    public HttpJWKSRetriever(final int connectTimeout, final int readTimeout) {
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException("connectTimeout must not be less than 0");
+        }
+
+        if (readTimeout < 0) {
+            throw new IllegalArgumentException("readTimeout must not be less than 0");
+        }
+
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Retrieves the key set, recording a {@code JWKSFetch} Flight Recorder event if enabled.
+     */
+    @Override
+    public JWKSResponse retrieve(final URL url, final boolean conditional) throws IOException {
+        final Object event = FlightRecorderEvents.beginJWKSFetch();
+        final URLConnection urlConnection = url.openConnection();
+
+        if (!(urlConnection instanceof HttpURLConnection)) {
+            throw new IOException("Unsupported JWKS URL protocol: " + url.getProtocol());
+        }
+
+        final HttpURLConnection connection = (HttpURLConnection) urlConnection;
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setUseCaches(false);
+        connection.setRequestProperty("Accept", "application/json, application/jwk-set+json");
+
+        final String key = url.toExternalForm();
+        final Validators previous = conditional ? validators.get(key) : null;
+
+        if (previous != null) {
+            if (previous.entityTag != null) {
+                connection.setRequestProperty("If-None-Match", previous.entityTag);
+            }
+
+            if (previous.lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", previous.lastModified);
+            }
+        }
+
+        int statusCode = 0;
+        final String content;
+
+        try {
+            statusCode = connection.getResponseCode();
+
+            if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && previous != null) {
+                drain(connection.getInputStream());
+                FlightRecorderEvents.commitJWKSFetch(event, url, statusCode, 0, true);
+
+                return JWKSResponse.notModified(
+                        parseMaxAge(connection.getHeaderField("Cache-Control")));
+            }
+
+            if (statusCode != HttpURLConnection.HTTP_OK) {
+                drain(connection.getErrorStream());
+                throw new IOException("Unexpected HTTP status code " + statusCode
+                        + " while retrieving JWKS from " + url);
+            }
+
+            content = read(connection.getInputStream(), MAXIMUM_CONTENT_LENGTH);
+        } catch (IOException e) {
+            FlightRecorderEvents.commitJWKSFetch(event, url, statusCode, 0, false);
+            throw e;
+        }
+
+        FlightRecorderEvents.commitJWKSFetch(event, url, statusCode,
+                event == null ? 0 : content.getBytes(StandardCharsets.UTF_8).length, false);
+
+        final long maxAge = parseMaxAge(connection.getHeaderField("Cache-Control"));
+        final String entityTag = connection.getHeaderField("ETag");
+        final String lastModified = connection.getHeaderField("Last-Modified");
+
+        if (entityTag == null && lastModified == null) {
+            validators.remove(key);
+        } else {
+            validators.put(key, new Validators(entityTag, lastModified));
+        }
+
+        return JWKSResponse.modified(content, maxAge);
+    }
+
+    /**
+     * Returns the {@code max-age} of the specified {@code Cache-Control} header in milliseconds.
+     * {@code no-cache}, {@code no-store} and a maximum age of 0 are treated as if no maximum age was
+     * specified, so such key sets are refreshed after the configured refresh interval instead of
+     * being fetched again every second.
+     */
+    static long parseMaxAge(final String cacheControl) {
+        if (cacheControl == null) {
+            return JWKSResponse.NO_MAX_AGE;
+        }
+
+        long maxAge = JWKSResponse.NO_MAX_AGE;
+
+        for (String directive : cacheControl.split(",")) {
+            final String normalized = directive.trim().toLowerCase(Locale.ROOT);
+
+            if (normalized.equals("no-cache") || normalized.equals("no-store")) {
+                return JWKSResponse.NO_MAX_AGE;
+            }
+
+            if (normalized.startsWith("max-age=")) {
+                try {
+                    final long seconds = Long.parseLong(
+                            normalized.substring("max-age=".length()).replace("\"", ""));
+
+                    maxAge = seconds <= 0 ? JWKSResponse.NO_MAX_AGE
+                            : seconds > Long.MAX_VALUE / 1000 ? Long.MAX_VALUE : seconds * 1000;
+                } catch (NumberFormatException e) {
+                    // Ignore malformed directives
+                }
+            }
+        }
+
+        return maxAge;
+    }
+
+    private static final class Validators {
+
+        private final String entityTag;
+        private final String lastModified;
+
+        private Validators(String entityTag, String lastModified) {
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+        }
+    }
+}
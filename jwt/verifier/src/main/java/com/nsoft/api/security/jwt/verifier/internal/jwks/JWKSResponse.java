@@ -0,0 +1,71 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The outcome of a {@link JWKSRetriever#retrieve(java.net.URL, boolean)} call.
+ */
+public final class JWKSResponse {
+
+    /**
+     * Returned by {@link #getMaxAge()} if the server didn't specify a maximum age
+     */
+    public static final long NO_MAX_AGE = -1;
+
+    private final String content;
+    private final long maxAge;
+
+    private JWKSResponse(String content, long maxAge) {
+        this.content = content;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Creates a response carrying the contents of the key set.
+     *
+     * @param content JSON Web Key Set, must not be {@code null}
+     * @param maxAge  maximum age in milliseconds specified by the server, or {@link #NO_MAX_AGE}
+     * @return response carrying the key set
+     */
+    public static JWKSResponse modified(final String content, final long maxAge) {
+        return new JWKSResponse(requireNonNull(content, "content must not be null"), maxAge);
+    }
+
+    /**
+     * Creates a response indicating that the key set didn't change since it was last retrieved.
+     *
+     * @param maxAge maximum age in milliseconds specified by the server, or {@link #NO_MAX_AGE}
+     * @return not modified response
+     */
+    public static JWKSResponse notModified(final long maxAge) {
+        return new JWKSResponse(null, maxAge);
+    }
+
+    /**
+     * Returns whether the key set didn't change since it was last retrieved.
+     *
+     * @return {@code true} if the key set didn't change
+     */
+    public boolean isNotModified() {
+        return content == null;
+    }
+
+    /**
+     * Returns the retrieved key set, {@code null} if it {@link #isNotModified() didn't change}.
+     *
+     * @return JSON Web Key Set
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the maximum age, in milliseconds, for which the server allows the key set to be
+     * cached.
+     *
+     * @return maximum age, {@link #NO_MAX_AGE} if not specified
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+}
@@ -0,0 +1,24 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Retrieves the contents of a JSON Web Key Set. Implementations may use conditional requests and
+ * report that the key set didn't change since it was last retrieved.
+ */
+@FunctionalInterface
+public interface JWKSRetriever {
+
+    /**
+     * Retrieves the JSON Web Key Set located at the specified URL.
+     *
+     * @param url         JSON Web Key Set URL
+     * @param conditional whether the caller holds a previously retrieved key set, in which case a
+     *                    {@link JWKSResponse#notModified(long) not modified} response may be
+     *                    returned
+     * @return retrieved key set, or an indication that it didn't change
+     * @throws IOException if the key set couldn't be retrieved
+     */
+    JWKSResponse retrieve(URL url, boolean conditional) throws IOException;
+}
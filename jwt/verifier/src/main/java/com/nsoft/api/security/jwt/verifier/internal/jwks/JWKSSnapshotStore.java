@@ -0,0 +1,194 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static java.util.Objects.requireNonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Persists the last retrieved JSON Web Key Set to a local file, so it can be used immediately
+ * after a restart instead of waiting for the key set to be retrieved again.
+ * <p>
+ * The file consists of a short header followed by the key set exactly as it was retrieved. The
+ * header records the JWKS URL, the time the key set was retrieved at and a SHA-256 checksum of
+ * both and of the key set. A snapshot is only loaded if its checksum matches, if it was retrieved
+ * from the same URL and if it isn't older than the configured maximum age. Snapshots are written
+ * to a temporary file which then atomically replaces the previous snapshot, so a crash while
+ * writing never leaves a truncated snapshot behind.
+ */
+public final class JWKSSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JWKSSnapshotStore.class);
+
+    private static final String FORMAT_HEADER = "rsp4j-jwks-snapshot 1";
+
+    private final Path file;
+    private final String jwksUrl;
+    private final long maximumAge;
+
+    public JWKSSnapshotStore(final Path file, final URL jwksUrl, final long maximumAge) {
+        this.file = requireNonNull(file, "file must not be null").toAbsolutePath();
+        this.jwksUrl = requireNonNull(jwksUrl, "jwksUrl must not be null").toString();
+
+        if (maximumAge <= 0) {
+            throw new IllegalArgumentException("maximumAge must be greater than 0");
+        }
+
+        this.maximumAge = maximumAge;
+    }
+
+    /**
+     * Returns the maximum age, in milliseconds, of a snapshot which may be loaded.
+     */
+    public long getMaximumAge() {
+        return maximumAge;
+    }
+
+    /**
+     * Loads the snapshot, if one exists and can be used.
+     *
+     * @param now current time in milliseconds
+     * @return the snapshot, or {@code null} if there is no usable snapshot
+     */
+    public JWKSSnapshot load(final long now) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        final String text;
+
+        try {
+            text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Couldn't read JWKS snapshot {}", file, e);
+            return null;
+        }
+
+        final String[] lines = text.split("\n", 5);
+
+        if (lines.length != 5 || !FORMAT_HEADER.equals(lines[0])) {
+            logger.warn("Ignoring JWKS snapshot {} with an unknown format", file);
+            return null;
+        }
+
+        final String url = lines[1];
+        final String checksum = lines[3];
+        final String content = lines[4];
+        final long fetchedAt;
+
+        try {
+            fetchedAt = Long.parseLong(lines[2]);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring JWKS snapshot {} with an unknown format", file);
+            return null;
+        }
+
+        if (!checksum.equals(checksum(url, fetchedAt, content))) {
+            logger.warn("Ignoring corrupted JWKS snapshot {}", file);
+            return null;
+        }
+
+        if (!jwksUrl.equals(url)) {
+            logger.info("Ignoring JWKS snapshot {} of another JWKS URL {}", file, url);
+            return null;
+        }
+
+        if (now - fetchedAt > maximumAge) {
+            logger.info("Ignoring JWKS snapshot {} older than {} ms", file, maximumAge);
+            return null;
+        }
+
+        return new JWKSSnapshot(content, fetchedAt);
+    }
+
+    /**
+     * Replaces the snapshot with the specified key set.
+     *
+     * @param content   key set, as retrieved
+     * @param fetchedAt time the key set was retrieved at
+     * @throws IOException if the snapshot couldn't be written
+     */
+    public void save(final String content, final long fetchedAt) throws IOException {
+        final String text = FORMAT_HEADER + '\n'
+                + jwksUrl + '\n'
+                + fetchedAt + '\n'
+                + checksum(jwksUrl, fetchedAt, content) + '\n'
+                + content;
+
+        final Path directory = file.getParent();
+
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+
+        final Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(),
+                ".tmp");
+
+        try {
+            Files.write(temporaryFile, text.getBytes(StandardCharsets.UTF_8));
+
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static String checksum(final String url, final long fetchedAt, final String content) {
+        final MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        digest.update((url + '\n' + fetchedAt + '\n').getBytes(StandardCharsets.UTF_8));
+        digest.update(content.getBytes(StandardCharsets.UTF_8));
+
+        final StringBuilder hex = new StringBuilder(64);
+
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+
+    /**
+     * A key set loaded from a snapshot.
+     */
+    public static final class JWKSSnapshot {
+
+        private final String content;
+        private final long fetchedAt;
+
+        private JWKSSnapshot(String content, long fetchedAt) {
+            this.content = content;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+    }
+}
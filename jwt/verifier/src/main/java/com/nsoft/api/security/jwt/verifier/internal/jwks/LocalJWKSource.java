@@ -0,0 +1,371 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nsoft.api.security.jwt.verifier.internal.crypto.VerifierFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link VerificationKeySource} which reads verification keys from a local file and reloads
+ * them whenever the file changes.
+ * <p>
+ * The file may contain either:
+ * <ul>
+ *     <li>a JSON Web Key Set</li>
+ *     <li>one or more PEM encoded RSA or EC public keys or X.509 certificates</li>
+ *     <li>a symmetric secret, used as is except for trailing line terminators</li>
+ * </ul>
+ * PEM encoded keys and secrets don't carry a key ID, so the file name without its extension is
+ * used as their key ID. Tokens without a key ID are verified with any key matching their
+ * algorithm.
+ * <p>
+ * Changes are detected using a {@link WatchService} registered for the parent directory of the
+ * file, so replacing the file by renaming another file over it, or swapping a symbolic link, is
+ * detected as well. A changed file is parsed completely before the new keys replace the old ones.
+ * If the file can't be read or parsed, for example because it is still being written, the
+ * previous keys are kept until the next change.
+ */
+public final class LocalJWKSource implements VerificationKeySource {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalJWKSource.class);
+
+    private static final Pattern PEM_OBJECT = Pattern.compile(
+            "-----BEGIN ([A-Z0-9 ]+)-----([A-Za-z0-9+/=\\s]+)-----END \\1-----");
+
+    private final Path path;
+    private final String defaultKeyId;
+    private final VerifierFactory verifierFactory;
+
+    private final Object loadLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    public LocalJWKSource(final Path path) {
+        this(path, VerifierFactory.DEFAULT);
+    }
+
+    public LocalJWKSource(final Path path, final VerifierFactory verifierFactory) {
+        this.path = requireNonNull(path, "path must not be null").toAbsolutePath();
+        this.defaultKeyId = toKeyId(this.path);
+        this.verifierFactory = requireNonNull(verifierFactory, "verifierFactory must not be null");
+
+        try {
+            load();
+        } catch (KeySourceException e) {
+            logger.warn("Couldn't load verification keys from {}", this.path, e);
+        }
+
+        FileWatcher.INSTANCE.register(this);
+    }
+
+    @Override
+    public VerificationKeySet getKeySet(final String keyId) throws KeySourceException {
+        final Snapshot current = snapshot;
+
+        if (current != null) {
+            return current.keySet;
+        }
+
+        return load();
+    }
+
+    @Override
+    public VerificationKeySet getCachedKeySet(final String keyId) {
+        final Snapshot current = snapshot;
+
+        return current == null ? null : current.keySet;
+    }
+
+    /**
+     * Reads and parses the file, replacing the current keys if the file content changed.
+     */
+    private VerificationKeySet load() throws KeySourceException {
+        synchronized (loadLock) {
+            final byte[] content;
+
+            try {
+                content = Files.readAllBytes(path);
+            } catch (IOException e) {
+                throw new KeySourceException(
+                        "Couldn't read verification keys from " + path + ": " + e.getMessage(), e);
+            }
+
+            final Snapshot current = snapshot;
+
+            if (current != null && Arrays.equals(current.content, content)) {
+                return current.keySet;
+            }
+
+            final JWKSet jwkSet;
+
+            try {
+                jwkSet = parse(content, defaultKeyId);
+            } catch (ParseException | GeneralSecurityException | JOSEException e) {
+                throw new KeySourceException(
+                        "Couldn't parse verification keys from " + path + ": " + e.getMessage(), e);
+            }
+
+            final VerificationKeySet keySet = current != null && current.keySet.hasSameKeys(jwkSet)
+                    ? current.keySet
+                    : VerificationKeySet.from(jwkSet, verifierFactory);
+
+            snapshot = new Snapshot(content, keySet);
+
+            return keySet;
+        }
+    }
+
+    private void reload() {
+        try {
+            load();
+        } catch (KeySourceException e) {
+            logger.warn("Keeping previous verification keys, reloading {} failed", path, e);
+        }
+    }
+
+    static JWKSet parse(final byte[] content, final String defaultKeyId)
+            throws ParseException, GeneralSecurityException, JOSEException {
+        final String text = new String(content, StandardCharsets.UTF_8);
+        final String trimmed = text.trim();
+
+        if (trimmed.startsWith("{")) {
+            return JWKSet.parse(trimmed);
+        }
+
+        if (trimmed.startsWith("-----BEGIN ")) {
+            return new JWKSet(parsePem(trimmed, defaultKeyId));
+        }
+
+        int length = content.length;
+
+        while (length > 0 && (content[length - 1] == '\n' || content[length - 1] == '\r')) {
+            length--;
+        }
+
+        if (length == 0) {
+            throw new ParseException("Key file is empty", 0);
+        }
+
+        return new JWKSet(new OctetSequenceKey.Builder(Arrays.copyOf(content, length))
+                .keyID(defaultKeyId)
+                .keyUse(KeyUse.SIGNATURE)
+                .build());
+    }
+
+    private static List<JWK> parsePem(final String pem, final String keyId)
+            throws ParseException, GeneralSecurityException, JOSEException {
+        final List<JWK> keys = new ArrayList<>();
+        final Matcher matcher = PEM_OBJECT.matcher(pem);
+
+        while (matcher.find()) {
+            final byte[] der;
+
+            try {
+                der = Base64.getMimeDecoder().decode(matcher.group(2));
+            } catch (IllegalArgumentException e) {
+                throw new ParseException("Invalid PEM encoded " + matcher.group(1), 0);
+            }
+
+            switch (matcher.group(1)) {
+                case "PUBLIC KEY":
+                    keys.add(toJWK(parsePublicKey(der), keyId));
+                    break;
+                case "CERTIFICATE":
+                    final X509Certificate certificate = X509CertUtils.parse(der);
+
+                    if (certificate == null) {
+                        throw new ParseException("Invalid PEM encoded CERTIFICATE", 0);
+                    }
+
+                    keys.add(toJWK(certificate.getPublicKey(), keyId));
+                    break;
+                default:
+                    throw new ParseException(
+                            "Unsupported PEM object type " + matcher.group(1), 0);
+            }
+        }
+
+        if (keys.isEmpty()) {
+            throw new ParseException("No PEM encoded public keys found", 0);
+        }
+
+        return keys;
+    }
+
+    private static PublicKey parsePublicKey(final byte[] der) throws GeneralSecurityException {
+        final X509EncodedKeySpec keySpec = new X509EncodedKeySpec(der);
+
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(keySpec);
+        } catch (GeneralSecurityException e) {
+            return KeyFactory.getInstance("EC").generatePublic(keySpec);
+        }
+    }
+
+    private static JWK toJWK(final PublicKey publicKey, final String keyId)
+            throws ParseException {
+        if (publicKey instanceof RSAPublicKey) {
+            return new RSAKey.Builder((RSAPublicKey) publicKey)
+                    .keyID(keyId)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .build();
+        }
+
+        if (publicKey instanceof ECPublicKey) {
+            final ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            final Curve curve = Curve.forECParameterSpec(ecPublicKey.getParams());
+
+            if (curve == null) {
+                throw new ParseException("Unsupported EC curve", 0);
+            }
+
+            return new ECKey.Builder(curve, ecPublicKey)
+                    .keyID(keyId)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .build();
+        }
+
+        throw new ParseException("Unsupported public key algorithm " + publicKey.getAlgorithm(), 0);
+    }
+
+    private static String toKeyId(final Path path) {
+        final String fileName = path.getFileName().toString();
+        final int extensionStart = fileName.lastIndexOf('.');
+
+        return extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName;
+    }
+
+    private static final class Snapshot {
+
+        private final byte[] content;
+        private final VerificationKeySet keySet;
+
+        private Snapshot(byte[] content, VerificationKeySet keySet) {
+            this.content = content;
+            this.keySet = keySet;
+        }
+    }
+
+    /**
+     * Watches the directories of every {@link LocalJWKSource} on a shared daemon thread. Sources
+     * are referenced weakly, and directories are no longer watched once their sources are garbage
+     * collected.
+     */
+    private static final class FileWatcher implements Runnable {
+
+        private static final FileWatcher INSTANCE = new FileWatcher();
+
+        private final Map<WatchKey, List<WeakReference<LocalJWKSource>>> sources =
+                new ConcurrentHashMap<>();
+
+        private volatile WatchService watchService;
+
+        private synchronized void register(LocalJWKSource source) {
+            try {
+                if (watchService == null) {
+                    watchService = FileSystems.getDefault().newWatchService();
+
+                    final Thread thread = new Thread(this, "rsp4j-jwks-file-watch");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+
+                final WatchKey key = source.path.getParent().register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+
+                sources.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>())
+                        .add(new WeakReference<>(source));
+            } catch (IOException | UnsupportedOperationException e) {
+                logger.warn("Couldn't watch {} for changes, keys won't be reloaded",
+                        source.path, e);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final WatchKey key;
+
+                try {
+                    key = watchService.take();
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+
+                // Every event in the directory triggers a reload, since the file may have been
+                // replaced through a renamed file or a swapped symbolic link
+                key.pollEvents();
+
+                final List<WeakReference<LocalJWKSource>> keySources = sources.get(key);
+
+                if (keySources != null) {
+                    for (WeakReference<LocalJWKSource> reference : keySources) {
+                        final LocalJWKSource source = reference.get();
+
+                        if (source == null) {
+                            keySources.remove(reference);
+                        } else {
+                            source.reload();
+                        }
+                    }
+
+                    if (keySources.isEmpty()) {
+                        removeIfUnused(key);
+                    }
+                }
+
+                key.reset();
+            }
+        }
+
+        private synchronized void removeIfUnused(WatchKey key) {
+            final List<WeakReference<LocalJWKSource>> keySources = sources.get(key);
+
+            if (keySources != null && keySources.isEmpty()) {
+                sources.remove(key);
+                key.cancel();
+            }
+        }
+    }
+}
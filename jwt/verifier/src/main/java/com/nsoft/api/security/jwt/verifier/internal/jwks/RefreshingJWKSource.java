@@ -0,0 +1,529 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nsoft.api.security.jwt.verifier.internal.crypto.VerifierFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link JWKSource} which keeps a remote JSON Web Key Set up to date in the background.
+ * <p>
+ * The key set is fetched once when the source is constructed and then refreshed periodically in the
+ * background. Refreshes are timed by a shared daemon thread and run on a pool of daemon threads, so
+ * a slow or unresponsive issuer doesn't delay refreshing the key sets of other issuers. Every
+ * refresh is scheduled after the configured refresh interval, shifted
+ * by a random jitter, so that many instances started at the same time don't refresh in lockstep.
+ * <p>
+ * Request threads only ever read the last successfully fetched key set. If refreshing fails, the
+ * last good key set keeps being served until it becomes older than the maximum staleness, at which
+ * point the next request attempts to fetch the key set inline. Request threads also fetch inline if
+ * no key set was fetched yet.
+ * <p>
+ * When a token references a key ID which isn't present in the cached key set, the key set is
+ * fetched again, since the issuer may have rotated its keys. Such fetches are coalesced: while one
+ * is in flight, every other thread waits for its outcome instead of issuing its own request. A
+ * minimum interval is enforced between consecutive fetches, so tokens carrying unknown (possibly
+ * forged) key IDs are rejected immediately instead of causing a fetch storm against the issuer.
+ * <p>
+ * Every fetched key set is converted into a {@link VerificationKeySet}. The conversion is skipped
+ * if the fetched key set contains the same keys as the previous one, and parsing is skipped as well
+ * if the {@link JWKSRetriever} reports that the key set didn't change. If the server specifies a
+ * maximum age for the key set, the key set is refreshed shortly before that age is reached instead
+ * of after the configured refresh interval.
+ * <p>
+ * A refresh is skipped if the key set was fetched by a request thread since the refresh was
+ * scheduled, and the next refresh is scheduled relative to that fetch instead.
+ * <p>
+ * If a {@link JWKSSnapshotStore} is specified, a key set persisted by a previous instance is
+ * loaded when the source is constructed and served until it is due to be refreshed, so requests
+ * don't wait on the remote key set after a restart. Retrieved key sets are persisted on
+ * the refresh thread whenever they change, and periodically while they don't, so the snapshot
+ * doesn't exceed its maximum age.
+ */
+public final class RefreshingJWKSource implements JWKSource<SecurityContext>,
+        VerificationKeySource {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingJWKSource.class);
+
+    private static final long FAILED_REFRESH_RETRY_DELAY = 10_000;
+    private static final long MINIMUM_MAX_AGE_REFRESH_DELAY = 1_000;
+
+    private final URL jwksUrl;
+    private final JWKSRetriever retriever;
+
+    private final long refreshInterval;
+    private final long refreshJitter;
+    private final long maximumStaleness;
+    private final long minimumRefetchInterval;
+
+    private final JWKSSnapshotStore snapshotStore;
+    private final VerifierFactory verifierFactory;
+
+    // Not a monitor, blocking on the remote key set while holding it mustn't pin virtual threads
+    private final ReentrantLock fetchLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    private volatile boolean fetching;
+    private volatile long lastFetchAttempt;
+    private volatile int completedFetches;
+    private volatile RemoteKeySourceException lastFetchFailure;
+    private volatile long maxAge = JWKSResponse.NO_MAX_AGE;
+
+    // Guarded by fetchLock
+    private String persistedContent;
+    private long persistedAt;
+
+    public RefreshingJWKSource(final URL jwksUrl, final ResourceRetriever resourceRetriever,
+            final long refreshInterval, final long refreshJitter, final long maximumStaleness,
+            final long minimumRefetchInterval) {
+        this(jwksUrl, toJWKSRetriever(resourceRetriever), refreshInterval, refreshJitter,
+                maximumStaleness, minimumRefetchInterval);
+    }
+
+    public RefreshingJWKSource(final URL jwksUrl, final JWKSRetriever retriever,
+            final long refreshInterval, final long refreshJitter, final long maximumStaleness,
+            final long minimumRefetchInterval) {
+        this(jwksUrl, retriever, refreshInterval, refreshJitter, maximumStaleness,
+                minimumRefetchInterval, null);
+    }
+
+    public RefreshingJWKSource(final URL jwksUrl, final JWKSRetriever retriever,
+            final long refreshInterval, final long refreshJitter, final long maximumStaleness,
+            final long minimumRefetchInterval, final JWKSSnapshotStore snapshotStore) {
+        this(jwksUrl, retriever, refreshInterval, refreshJitter, maximumStaleness,
+                minimumRefetchInterval, snapshotStore, VerifierFactory.DEFAULT);
+    }
+
+    public RefreshingJWKSource(final URL jwksUrl, final JWKSRetriever retriever,
+            final long refreshInterval, final long refreshJitter, final long maximumStaleness,
+            final long minimumRefetchInterval, final JWKSSnapshotStore snapshotStore,
+            final VerifierFactory verifierFactory) {
+        this.jwksUrl = requireNonNull(jwksUrl, "jwksUrl must not be null");
+        this.retriever = requireNonNull(retriever, "retriever must not be null");
+
+        if (refreshInterval <= 0) {
+            throw new IllegalArgumentException("refreshInterval must be greater than 0");
+        }
+
+        if (refreshJitter < 0 || refreshJitter >= refreshInterval) {
+            throw new IllegalArgumentException(
+                    "refreshJitter must not be less than 0 or greater than refreshInterval");
+        }
+
+        if (maximumStaleness < refreshInterval) {
+            throw new IllegalArgumentException(
+                    "maximumStaleness must not be less than refreshInterval");
+        }
+
+        if (minimumRefetchInterval < 0) {
+            throw new IllegalArgumentException("minimumRefetchInterval must not be less than 0");
+        }
+
+        this.refreshInterval = refreshInterval;
+        this.refreshJitter = refreshJitter;
+        this.maximumStaleness = maximumStaleness;
+        this.minimumRefetchInterval = minimumRefetchInterval;
+        this.snapshotStore = snapshotStore;
+        this.verifierFactory = requireNonNull(verifierFactory, "verifierFactory must not be null");
+
+        if (snapshotStore != null) {
+            loadPersistedSnapshot(snapshotStore);
+        }
+
+        final Snapshot loaded = snapshot;
+        RefreshTask.schedule(this, loaded, loaded == null ? 0 : nextRefreshDelay(loaded, true));
+    }
+
+    /**
+     * Serves the persisted key set as if it was fetched when it was persisted, so it doesn't outlive
+     * the maximum staleness. It is replaced by the first refresh.
+     */
+    private void loadPersistedSnapshot(final JWKSSnapshotStore store) {
+        final JWKSSnapshotStore.JWKSSnapshot persisted = store.load(System.currentTimeMillis());
+
+        if (persisted == null) {
+            return;
+        }
+
+        try {
+            final VerificationKeySet keySet =
+                    VerificationKeySet.from(JWKSet.parse(persisted.getContent()),
+                            verifierFactory);
+
+            fetchLock.lock();
+            try {
+                snapshot = new Snapshot(keySet, persisted.getFetchedAt());
+                persistedContent = persisted.getContent();
+                persistedAt = persisted.getFetchedAt();
+            } finally {
+                fetchLock.unlock();
+            }
+        } catch (ParseException e) {
+            logger.warn("Ignoring JWKS snapshot of {} which couldn't be parsed", jwksUrl, e);
+        }
+    }
+
+    private static JWKSRetriever toJWKSRetriever(final ResourceRetriever resourceRetriever) {
+        requireNonNull(resourceRetriever, "resourceRetriever must not be null");
+
+        return (url, conditional) -> JWKSResponse.modified(
+                resourceRetriever.retrieveResource(url).getContent(), JWKSResponse.NO_MAX_AGE);
+    }
+
+    @Override
+    public VerificationKeySet getKeySet(final String keyId) throws RemoteKeySourceException {
+        final Snapshot current = currentSnapshot();
+
+        if (keyId == null || current.keySet.containsKeyId(keyId)) {
+            return current.keySet;
+        }
+
+        return refetchForUnknownKey(current).keySet;
+    }
+
+    @Override
+    public VerificationKeySet getCachedKeySet(final String keyId) {
+        final Snapshot current = snapshot;
+
+        if (current == null || current.isOlderThan(maximumStaleness, System.currentTimeMillis())) {
+            return null;
+        }
+
+        if (keyId == null || current.keySet.containsKeyId(keyId)
+                || (!fetching && isRefetchRateLimited())) {
+            return current.keySet;
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<JWK> get(final JWKSelector jwkSelector, final SecurityContext context)
+            throws RemoteKeySourceException {
+        final Snapshot current = currentSnapshot();
+
+        final List<JWK> matches = jwkSelector.select(current.keySet.getJWKSet());
+
+        if (!matches.isEmpty() || jwkSelector.getMatcher().getKeyIDs() == null
+                || jwkSelector.getMatcher().getKeyIDs().isEmpty()) {
+            return matches;
+        }
+
+        final Snapshot refetched = refetchForUnknownKey(current);
+
+        return refetched == current ? matches
+                : jwkSelector.select(refetched.keySet.getJWKSet());
+    }
+
+    private Snapshot currentSnapshot() throws RemoteKeySourceException {
+        final Snapshot current = snapshot;
+
+        if (current == null || current.isOlderThan(maximumStaleness, System.currentTimeMillis())) {
+            return fetchInline();
+        }
+
+        return current;
+    }
+
+    /**
+     * Returns the last successfully fetched key set, or {@code null} if no key set was fetched
+     * yet.
+     *
+     * @return last fetched key set
+     */
+    public JWKSet getCachedJWKSet() {
+        final Snapshot current = snapshot;
+        return current == null ? null : current.keySet.getJWKSet();
+    }
+
+    private Snapshot fetchInline() throws RemoteKeySourceException {
+        final int observedFetches = completedFetches;
+
+        fetchLock.lock();
+        try {
+            final Snapshot current = snapshot;
+
+            // Another thread completed a fetch while we were waiting
+            if (current != null
+                    && !current.isOlderThan(maximumStaleness, System.currentTimeMillis())) {
+                return current;
+            }
+
+            // Share the outcome of a failed fetch we were waiting on instead of repeating it
+            final RemoteKeySourceException failure = lastFetchFailure;
+            if (completedFetches != observedFetches && failure != null) {
+                throw new RemoteKeySourceException(failure.getMessage(), failure.getCause());
+            }
+
+            return fetch();
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private Snapshot refetchForUnknownKey(final Snapshot observed) {
+        // Fail fast without contending for the lock if no fetch is in flight and one is not allowed
+        if (!fetching && isRefetchRateLimited()) {
+            return observed;
+        }
+
+        fetchLock.lock();
+        try {
+            final Snapshot current = snapshot;
+
+            if (current != observed || isRefetchRateLimited()) {
+                return current;
+            }
+
+            try {
+                return fetch();
+            } catch (RemoteKeySourceException e) {
+                logger.debug("Failed to refetch JWKS from {} for unknown key ID", jwksUrl, e);
+                return current;
+            }
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private boolean isRefetchRateLimited() {
+        return System.currentTimeMillis() - lastFetchAttempt < minimumRefetchInterval;
+    }
+
+    /**
+     * Refreshes the key set unless it was replaced since the observed snapshot, in which case a
+     * request thread fetched it in the meantime.
+     */
+    private boolean refresh(final Snapshot observed) {
+        fetchLock.lock();
+        try {
+            final Snapshot current = snapshot;
+
+            if (current != null && current != observed) {
+                return true;
+            }
+
+            try {
+                fetch();
+                return true;
+            } catch (RemoteKeySourceException e) {
+                logger.warn("Failed to refresh JWKS from {}, serving last known key set",
+                        jwksUrl, e);
+                return false;
+            }
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private Snapshot fetch() throws RemoteKeySourceException {
+        fetching = true;
+        lastFetchAttempt = System.currentTimeMillis();
+
+        try {
+            final Snapshot previous = snapshot;
+            final JWKSResponse response;
+            final JWKSet jwkSet;
+
+            try {
+                response = retriever.retrieve(jwksUrl, previous != null);
+
+                if (response.isNotModified() && previous == null) {
+                    throw new IOException("Key set reported as not modified before retrieval");
+                }
+
+                jwkSet = response.isNotModified() ? null : JWKSet.parse(response.getContent());
+            } catch (IOException | ParseException e) {
+                final RemoteKeySourceException failure = new RemoteKeySourceException(
+                        "Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+                lastFetchFailure = failure;
+                throw failure;
+            }
+
+            final VerificationKeySet keySet;
+
+            if (jwkSet == null || previous != null && previous.keySet.hasSameKeys(jwkSet)) {
+                keySet = previous.keySet;
+            } else {
+                keySet = VerificationKeySet.from(jwkSet, verifierFactory);
+            }
+
+            maxAge = response.getMaxAge();
+
+            final Snapshot fetched = new Snapshot(keySet, System.currentTimeMillis());
+            snapshot = fetched;
+            lastFetchFailure = null;
+
+            if (snapshotStore != null) {
+                persist(response.isNotModified() ? null : response.getContent(), fetched.fetchedAt);
+            }
+
+            return fetched;
+        } finally {
+            completedFetches++;
+            fetching = false;
+        }
+    }
+
+    /**
+     * Persists the fetched key set if it changed, or if the persisted snapshot is about to exceed
+     * its maximum age. Must be called while holding the fetch lock.
+     */
+    private void persist(final String content, final long fetchedAt) {
+        final boolean changed = content != null && !content.equals(persistedContent);
+        final String persisted = changed ? content : persistedContent;
+
+        if (persisted == null
+                || !changed && fetchedAt - persistedAt < snapshotStore.getMaximumAge() / 2) {
+            return;
+        }
+
+        persistedContent = persisted;
+        persistedAt = fetchedAt;
+
+        // Don't block request threads which fetched inline on file system I/O
+        Scheduler.REFRESHERS.execute(() -> {
+            try {
+                snapshotStore.save(persisted, fetchedAt);
+            } catch (IOException e) {
+                logger.warn("Couldn't persist JWKS snapshot of {}", jwksUrl, e);
+            }
+        });
+    }
+
+    /**
+     * Returns the delay until the given snapshot is due to be refreshed.
+     */
+    private long nextRefreshDelay(Snapshot current, boolean refreshed) {
+        final long serverMaxAge = maxAge;
+        final long delay;
+
+        if (serverMaxAge == JWKSResponse.NO_MAX_AGE) {
+            delay = refreshInterval + (refreshJitter == 0 ? 0
+                    : ThreadLocalRandom.current().nextLong(-refreshJitter, refreshJitter + 1));
+        } else {
+            // Refresh before the key set expires, never after it
+            final long lifetime = Math.min(
+                    Math.max(serverMaxAge, MINIMUM_MAX_AGE_REFRESH_DELAY), maximumStaleness);
+            final long jitter = Math.min(refreshJitter, lifetime / 2);
+
+            delay = lifetime - (jitter == 0 ? 0
+                    : ThreadLocalRandom.current().nextLong(jitter + 1));
+        }
+
+        if (!refreshed) {
+            return Math.min(delay, FAILED_REFRESH_RETRY_DELAY);
+        }
+
+        return current == null ? delay
+                : Math.max(0, delay - (System.currentTimeMillis() - current.fetchedAt));
+    }
+
+    private static final class Snapshot {
+
+        private final VerificationKeySet keySet;
+        private final long fetchedAt;
+
+        private Snapshot(VerificationKeySet keySet, long fetchedAt) {
+            this.keySet = keySet;
+            this.fetchedAt = fetchedAt;
+        }
+
+        private boolean isOlderThan(long age, long now) {
+            return now - fetchedAt > age;
+        }
+    }
+
+    /**
+     * Periodically refreshes a {@link RefreshingJWKSource}. The source is only weakly referenced so
+     * that discarded processors stop being refreshed once they are garbage collected.
+     */
+    private static final class RefreshTask implements Runnable {
+
+        private final WeakReference<RefreshingJWKSource> source;
+        private final Snapshot observed;
+
+        private RefreshTask(RefreshingJWKSource source, Snapshot observed) {
+            this.source = new WeakReference<>(source);
+            this.observed = observed;
+        }
+
+        private static void schedule(RefreshingJWKSource source, Snapshot observed, long delay) {
+            final RefreshTask task = new RefreshTask(source, observed);
+
+            Scheduler.INSTANCE.schedule(() -> Scheduler.REFRESHERS.execute(task), delay,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            final RefreshingJWKSource refreshingSource = source.get();
+
+            if (refreshingSource == null) {
+                return;
+            }
+
+            final boolean refreshed = refreshingSource.refresh(observed);
+            final Snapshot current = refreshingSource.snapshot;
+
+            schedule(refreshingSource, current,
+                    refreshingSource.nextRefreshDelay(current, refreshed));
+        }
+    }
+
+    /**
+     * Only times refreshes, which block on the remote key set and therefore run on
+     * {@link #REFRESHERS}. Every source has at most one refresh in flight, so the pool doesn't grow
+     * beyond the number of sources, and idle threads are discarded.
+     */
+    private static final class Scheduler {
+
+        private static final ScheduledExecutorService INSTANCE = createScheduler();
+        private static final ExecutorService REFRESHERS = createRefreshers();
+
+        private static ScheduledExecutorService createScheduler() {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "rsp4j-jwks-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.setRemoveOnCancelPolicy(true);
+
+            return executor;
+        }
+
+        private static ExecutorService createRefreshers() {
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "rsp4j-jwks-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private Scheduler() {
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nsoft.api.security.jwt.verifier.internal.crypto.VerifierFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link JWKSet} which was converted into ready-to-use {@link JWSVerifier} instances, indexed by
+ * key ID.
+ * <p>
+ * Converting a JWK into a {@link java.security.Key} and constructing a verifier for it is done once
+ * per key when the set is created, instead of once per processed token. Instances are immutable and
+ * are meant to be replaced as a whole whenever the contents of the underlying JWKS change.
+ */
+public final class VerificationKeySet {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerificationKeySet.class);
+
+    private final JWKSet jwkSet;
+
+    private final Map<String, List<VerificationKey>> keysById;
+    private final Map<JWSAlgorithm, List<JWSVerifier>> verifiersByAlgorithm;
+
+    private VerificationKeySet(final JWKSet jwkSet, final List<VerificationKey> keys) {
+        this.jwkSet = jwkSet;
+
+        final Map<String, List<VerificationKey>> idIndex = new HashMap<>();
+        final Map<JWSAlgorithm, List<JWSVerifier>> algorithmIndex = new HashMap<>();
+
+        for (VerificationKey key : keys) {
+            if (key.jwk.getKeyID() != null) {
+                idIndex.computeIfAbsent(key.jwk.getKeyID(), id -> new ArrayList<>(1)).add(key);
+            }
+
+            for (JWSAlgorithm algorithm : key.verifier.supportedJWSAlgorithms()) {
+                if (key.supports(algorithm)) {
+                    algorithmIndex.computeIfAbsent(algorithm, alg -> new ArrayList<>(1))
+                            .add(key.verifier);
+                }
+            }
+        }
+
+        algorithmIndex.replaceAll(
+                (algorithm, verifiers) -> Collections.unmodifiableList(verifiers));
+
+        this.keysById = idIndex;
+        this.verifiersByAlgorithm = algorithmIndex;
+    }
+
+    /**
+     * Creates a new {@link VerificationKeySet} from the signature verification keys contained in
+     * the specified {@link JWKSet}. Keys which can't be used for signature verification are
+     * skipped.
+     *
+     * @param jwkSet source key set, must not be {@code null}
+     * @return converted key set
+     */
+    public static VerificationKeySet from(final JWKSet jwkSet) {
+        return from(jwkSet, VerifierFactory.DEFAULT);
+    }
+
+    /**
+     * Creates a new {@link VerificationKeySet} from the signature verification keys contained in
+     * the specified {@link JWKSet}, with verifiers created by the specified factory. Keys which
+     * can't be used for signature verification are skipped.
+     *
+     * @param jwkSet          source key set, must not be {@code null}
+     * @param verifierFactory factory creating the verifier of each key, must not be {@code null}
+     * @return converted key set
+     */
+    public static VerificationKeySet from(final JWKSet jwkSet,
+            final VerifierFactory verifierFactory) {
+        requireNonNull(jwkSet, "jwkSet must not be null");
+        requireNonNull(verifierFactory, "verifierFactory must not be null");
+
+        final List<VerificationKey> keys = new ArrayList<>(jwkSet.getKeys().size());
+
+        for (JWK jwk : jwkSet.getKeys()) {
+            if (jwk.getKeyUse() != null && !KeyUse.SIGNATURE.equals(jwk.getKeyUse())) {
+                continue;
+            }
+
+            try {
+                final JWSVerifier verifier = verifierFactory.create(jwk);
+
+                if (verifier != null) {
+                    keys.add(new VerificationKey(jwk, verifier));
+                }
+            } catch (JOSEException | LinkageError e) {
+                logger.warn("Skipping JWK {} which can't be used for signature verification",
+                        jwk.getKeyID(), e);
+            }
+        }
+
+        return new VerificationKeySet(jwkSet, keys);
+    }
+
+    /**
+     * Returns the verifiers that may be used to verify a token with the specified header.
+     * <p>
+     * If the header contains a key ID, only keys with the same key ID are considered. Otherwise,
+     * every key compatible with the header algorithm is considered. Keys are indexed by both key ID
+     * and algorithm, so keys of other algorithms are never looked at.
+     *
+     * @param header header of the token being verified, must not be {@code null}
+     * @return candidate verifiers, empty if none match
+     */
+    public List<JWSVerifier> select(final JWSHeader header) {
+        final String keyId = header.getKeyID();
+        final JWSAlgorithm algorithm = header.getAlgorithm();
+
+        if (keyId == null) {
+            final List<JWSVerifier> verifiers = verifiersByAlgorithm.get(algorithm);
+            return verifiers == null ? Collections.emptyList() : verifiers;
+        }
+
+        final List<VerificationKey> candidates = keysById.get(keyId);
+
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+
+        // The common case is a single key per key ID, avoid allocating a new list for it
+        if (candidates.size() == 1) {
+            final VerificationKey candidate = candidates.get(0);
+            return candidate.supports(algorithm)
+                    ? Collections.singletonList(candidate.verifier)
+                    : Collections.emptyList();
+        }
+
+        final List<JWSVerifier> verifiers = new ArrayList<>(candidates.size());
+
+        for (VerificationKey candidate : candidates) {
+            if (candidate.supports(algorithm)) {
+                verifiers.add(candidate.verifier);
+            }
+        }
+
+        return verifiers;
+    }
+
+    /**
+     * Returns whether the set contains a verification key with the specified key ID.
+     *
+     * @param keyId key ID to look up
+     * @return {@code true} if a key with the specified key ID exists
+     */
+    public boolean containsKeyId(final String keyId) {
+        return keysById.containsKey(keyId);
+    }
+
+    /**
+     * Returns whether this set was created from a {@link JWKSet} containing the same keys as the
+     * specified one.
+     *
+     * @param other key set to compare with
+     * @return {@code true} if both key sets contain the same keys
+     */
+    public boolean hasSameKeys(final JWKSet other) {
+        return other != null && jwkSet.getKeys().equals(other.getKeys());
+    }
+
+    /**
+     * Returns the {@link JWKSet} this set was created from.
+     *
+     * @return source key set
+     */
+    public JWKSet getJWKSet() {
+        return jwkSet;
+    }
+
+    private static final class VerificationKey {
+
+        private final JWK jwk;
+        private final JWSVerifier verifier;
+
+        private VerificationKey(JWK jwk, JWSVerifier verifier) {
+            this.jwk = jwk;
+            this.verifier = verifier;
+        }
+
+        private boolean supports(final JWSAlgorithm algorithm) {
+            return (jwk.getAlgorithm() == null || jwk.getAlgorithm().equals(algorithm))
+                    && verifier.supportedJWSAlgorithms().contains(algorithm);
+        }
+    }
+}
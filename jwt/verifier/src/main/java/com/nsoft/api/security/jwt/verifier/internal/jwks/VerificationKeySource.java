@@ -0,0 +1,31 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import com.nimbusds.jose.KeySourceException;
+
+/**
+ * A source of {@link VerificationKeySet} instances used during signature verification.
+ */
+public interface VerificationKeySource {
+
+    /**
+     * Returns the current {@link VerificationKeySet}. If a key ID is specified and the current set
+     * doesn't contain it, implementations may attempt to retrieve an updated set before returning.
+     *
+     * @param keyId key ID referenced by the token being verified, may be {@code null}
+     * @return current verification key set
+     * @throws KeySourceException if no verification key set could be retrieved
+     */
+    VerificationKeySet getKeySet(String keyId) throws KeySourceException;
+
+    /**
+     * Returns the current {@link VerificationKeySet} if it can be returned without retrieving the
+     * key set, or {@code null} if {@link #getKeySet(String)} might have to retrieve it first. Used
+     * to decide whether a token can be verified without blocking.
+     *
+     * @param keyId key ID referenced by the token being verified, may be {@code null}
+     * @return current verification key set, {@code null} if it isn't immediately available
+     */
+    default VerificationKeySet getCachedKeySet(String keyId) {
+        return null;
+    }
+}
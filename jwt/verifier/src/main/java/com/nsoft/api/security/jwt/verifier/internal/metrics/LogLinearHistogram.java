@@ -0,0 +1,137 @@
+package com.nsoft.api.security.jwt.verifier.internal.metrics;
+
+import com.nsoft.api.security.jwt.verifier.LatencyHistogram;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link LatencyHistogram} with log-linear buckets, recorded without locking.
+ * <p>
+ * Every power of two is split into eight linear buckets, so a bucket is at most 12.5% wider than
+ * its lower bound, and all non-negative {@code long} values fit into less than 500 buckets.
+ * Recording a value increments a single bucket of an {@link AtomicLongArray}, which compiles to an
+ * atomic add rather than a compare-and-swap loop on most platforms.
+ */
+public final class LogLinearHistogram implements LatencyHistogram {
+
+    // Number of bits, besides the leading one, which select the linear bucket within a power of two
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKET_COUNT = indexOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration. Negative durations, which may be measured if the clock goes backwards,
+     * are recorded as 0.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0);
+
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        totalTime.add(value);
+        maximum.accumulate(value);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    @Override
+    public long getMaximum() {
+        return maximum.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket containing the value at the specified percentile,
+     * capped at the maximum recorded value.
+     */
+    @Override
+    public long getValueAtPercentile(double percentile) {
+        return getValueAtPercentile(Collections.singleton(this), percentile);
+    }
+
+    /**
+     * Returns the value at the specified percentile of the durations recorded by all the specified
+     * histograms together, as if they had been recorded into a single histogram.
+     */
+    public static long getValueAtPercentile(Collection<LogLinearHistogram> histograms,
+            double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        long maximum = 0;
+
+        for (LogLinearHistogram histogram : histograms) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                final long bucketCount = histogram.buckets.get(i);
+
+                counts[i] += bucketCount;
+                total += bucketCount;
+            }
+
+            maximum = Math.max(maximum, histogram.getMaximum());
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maximum);
+            }
+        }
+
+        return maximum;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket =
+                (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+
+        return lowerBound + ((1L << shift) - 1);
+    }
+}
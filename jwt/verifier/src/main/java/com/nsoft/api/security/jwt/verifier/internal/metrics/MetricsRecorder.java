@@ -0,0 +1,121 @@
+package com.nsoft.api.security.jwt.verifier.internal.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nsoft.api.security.jwt.verifier.CacheStatistics;
+import com.nsoft.api.security.jwt.verifier.LatencyHistogram;
+import com.nsoft.api.security.jwt.verifier.ProcessingStage;
+import com.nsoft.api.security.jwt.verifier.ProcessorMetrics;
+import com.nsoft.api.security.jwt.verifier.RejectionReason;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.JWKSResponse;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.JWKSRetriever;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link ProcessorMetrics} of a processor with metrics enabled. Counters are {@link LongAdder
+ * long adders} and durations are recorded into {@link LogLinearHistogram log-linear histograms},
+ * so recording never blocks and rarely contends.
+ */
+public final class MetricsRecorder implements ProcessorMetrics {
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder[] rejected = new LongAdder[RejectionReason.values().length];
+    private final LongAdder jwksFetches = new LongAdder();
+    private final LongAdder jwksFetchFailures = new LongAdder();
+    private final LogLinearHistogram[] latencies =
+            new LogLinearHistogram[ProcessingStage.values().length];
+
+    private CacheStatistics tokenCacheStatistics = CacheStatistics.disabled();
+    private CacheStatistics rejectionCacheStatistics = CacheStatistics.disabled();
+
+    public MetricsRecorder() {
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LogLinearHistogram();
+        }
+    }
+
+    /**
+     * Sets the caches whose statistics are reported. Must be invoked before the recorder is
+     * published to other threads.
+     */
+    public void setCacheStatistics(final CacheStatistics tokenCacheStatistics,
+            final CacheStatistics rejectionCacheStatistics) {
+        this.tokenCacheStatistics = requireNonNull(tokenCacheStatistics);
+        this.rejectionCacheStatistics = requireNonNull(rejectionCacheStatistics);
+    }
+
+    public void accepted() {
+        accepted.increment();
+    }
+
+    public void rejected(final RejectionReason reason) {
+        rejected[reason.ordinal()].increment();
+    }
+
+    public void record(final ProcessingStage stage, final long nanos) {
+        latencies[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Returns a {@link JWKSRetriever} counting the successful and failed retrievals of the
+     * specified retriever.
+     */
+    public JWKSRetriever instrument(final JWKSRetriever retriever) {
+        requireNonNull(retriever, "retriever must not be null");
+
+        return (url, conditional) -> {
+            final JWKSResponse response;
+
+            try {
+                response = retriever.retrieve(url, conditional);
+            } catch (IOException | RuntimeException e) {
+                jwksFetchFailures.increment();
+                throw e;
+            }
+
+            jwksFetches.increment();
+            return response;
+        };
+    }
+
+    @Override
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    @Override
+    public long getRejectedCount(final RejectionReason reason) {
+        return rejected[reason.ordinal()].sum();
+    }
+
+    @Override
+    public long getJWKSFetchCount() {
+        return jwksFetches.sum();
+    }
+
+    @Override
+    public long getJWKSFetchFailureCount() {
+        return jwksFetchFailures.sum();
+    }
+
+    @Override
+    public CacheStatistics getTokenCacheStatistics() {
+        return tokenCacheStatistics;
+    }
+
+    @Override
+    public CacheStatistics getRejectionCacheStatistics() {
+        return rejectionCacheStatistics;
+    }
+
+    @Override
+    public LatencyHistogram getLatency(final ProcessingStage stage) {
+        return latencies[stage.ordinal()];
+    }
+}
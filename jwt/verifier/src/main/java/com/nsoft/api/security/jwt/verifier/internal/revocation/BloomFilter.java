@@ -0,0 +1,118 @@
+package com.nsoft.api.security.jwt.verifier.internal.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter over 64-bit hashes, sized for a false positive probability of about 1%.
+ * <p>
+ * Bits are only ever set, by a single writer at a time, while any number of threads may test for
+ * membership concurrently. The bit array is an {@link AtomicLongArray}, so a hash added by the
+ * writer is guaranteed to be visible to readers once {@link #add(long)} returns.
+ */
+final class BloomFilter {
+
+    // Bits per element and number of probes yielding a false positive probability of about 1%
+    private static final int BITS_PER_ELEMENT = 10;
+    private static final int PROBES = 7;
+
+    private static final int MINIMUM_BITS = 1 << 10;
+
+    private final AtomicLongArray words;
+    private final long mask;
+    private final int capacity;
+
+    /**
+     * Creates an empty filter which keeps its false positive probability for up to {@code
+     * capacity} elements.
+     */
+    BloomFilter(int capacity) {
+        final long requiredBits = Math.max((long) capacity * BITS_PER_ELEMENT, MINIMUM_BITS);
+        final long bits = Long.highestOneBit(requiredBits - 1) << 1;
+
+        if (bits > (long) Integer.MAX_VALUE * Long.SIZE) {
+            throw new IllegalArgumentException("capacity is too large: " + capacity);
+        }
+
+        this.words = new AtomicLongArray((int) (bits / Long.SIZE));
+        this.mask = bits - 1;
+        this.capacity = capacity;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    void add(long hash) {
+        final long increment = increment(hash);
+        long index = hash;
+
+        for (int i = 0; i < PROBES; i++) {
+            final int word = (int) ((index & mask) >>> 6);
+            final long bit = 1L << index;
+
+            final long value = words.get(word);
+
+            if ((value & bit) == 0) {
+                words.set(word, value | bit);
+            }
+
+            index += increment;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        final long increment = increment(hash);
+        long index = hash;
+
+        for (int i = 0; i < PROBES; i++) {
+            if ((words.get((int) ((index & mask) >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+
+            index += increment;
+        }
+
+        return true;
+    }
+
+    /**
+     * Derives the distance between probes from the upper half of the hash, as proposed by Kirsch
+     * and Mitzenmacher. The distance is odd, so probes never repeat within a power of two.
+     */
+    private static long increment(long hash) {
+        return (hash >>> 32) | 1;
+    }
+
+    /**
+     * Hashes a string, seeded with a type tag so equal strings of different types don't collide.
+     */
+    static long hash(int type, String value) {
+        long hash = 0xcbf29ce484222325L ^ type;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+
+        return mix(hash);
+    }
+
+    /**
+     * Hashes a string and a number, seeded with a type tag.
+     */
+    static long hash(int type, String value, long number) {
+        return mix(hash(type, value) ^ number * 0x9e3779b97f4a7c15L);
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer, spreading every input bit over the whole hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,134 @@
+package com.nsoft.api.security.jwt.verifier.internal.revocation;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The set of revoked tokens, identified either by their JWT ID or by their subject together with
+ * their issued at time.
+ * <p>
+ * Membership is first tested against a {@link BloomFilter}, which rules out almost every token
+ * which isn't revoked with a few bit probes and without allocating. Only tokens passing the filter
+ * are looked up in the exact set of revocations, so false positives of the filter never cause a
+ * token to be rejected.
+ * <p>
+ * Revocations are added and removed by a single writer at a time while readers test for
+ * membership concurrently. Removed revocations stay in the filter, and only make lookups of the
+ * affected tokens slightly more expensive until the list is rebuilt.
+ */
+final class RevocationList {
+
+    static final long NO_ISSUE_TIME = Long.MIN_VALUE;
+
+    private final BloomFilter filter;
+    private final Set<Revocation> revocations = ConcurrentHashMap.newKeySet();
+
+    // Updated by the writer after applying a delta
+    private volatile long version;
+
+    RevocationList(long version, int capacity) {
+        this.version = version;
+        this.filter = new BloomFilter(capacity);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    int size() {
+        return revocations.size();
+    }
+
+    int getCapacity() {
+        return filter.getCapacity();
+    }
+
+    Collection<Revocation> getRevocations() {
+        return revocations;
+    }
+
+    /**
+     * Returns whether the token with the specified claims is revoked.
+     *
+     * @param jwtId     JWT ID of the token, may be {@code null}
+     * @param subject   subject of the token, may be {@code null}
+     * @param issueTime issued at time of the token in seconds, {@link #NO_ISSUE_TIME} if absent
+     */
+    boolean isRevoked(String jwtId, String subject, long issueTime) {
+        if (jwtId != null && filter.mightContain(BloomFilter.hash(Revocation.JWT_ID, jwtId))
+                && revocations.contains(Revocation.ofJWTId(jwtId))) {
+            return true;
+        }
+
+        return subject != null && issueTime != NO_ISSUE_TIME
+                && filter.mightContain(BloomFilter.hash(Revocation.SUBJECT, subject, issueTime))
+                && revocations.contains(Revocation.ofSubject(subject, issueTime));
+    }
+
+    void add(Revocation revocation) {
+        // Added to the exact set first, so a reader passing the filter always finds the entry
+        revocations.add(revocation);
+        filter.add(revocation.hash());
+    }
+
+    void remove(Revocation revocation) {
+        revocations.remove(revocation);
+    }
+
+    /**
+     * A revoked token, identified by its JWT ID or by its subject and issued at time.
+     */
+    static final class Revocation {
+
+        static final int JWT_ID = 1;
+        static final int SUBJECT = 2;
+
+        private final int type;
+        private final String value;
+        private final long issueTime;
+
+        private Revocation(int type, String value, long issueTime) {
+            this.type = type;
+            this.value = value;
+            this.issueTime = issueTime;
+        }
+
+        static Revocation ofJWTId(String jwtId) {
+            return new Revocation(JWT_ID, jwtId, 0);
+        }
+
+        static Revocation ofSubject(String subject, long issueTime) {
+            return new Revocation(SUBJECT, subject, issueTime);
+        }
+
+        long hash() {
+            return type == JWT_ID
+                    ? BloomFilter.hash(JWT_ID, value)
+                    : BloomFilter.hash(SUBJECT, value, issueTime);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Revocation)) {
+                return false;
+            }
+
+            final Revocation that = (Revocation) o;
+            return type == that.type && issueTime == that.issueTime && value.equals(that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * type + value.hashCode()) * 31 + Long.hashCode(issueTime);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.nsoft.api.security.jwt.verifier.internal.revocation;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nsoft.api.security.jwt.verifier.internal.revocation.RevocationList.Revocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link RevocationList} loaded from a local snapshot file, and any delta files
+ * following it, up to date.
+ * <p>
+ * The snapshot file is a UTF-8 text file starting with a header line which contains its version,
+ * followed by one revocation per line:
+ * <pre>
+ * rsp4j-revocations 1 41
+ * jti 4f1c9d2e-8b3a-4c55-a1f0-7d2b9e6c3a10
+ * sub 1602500000 user@nsoft.com
+ * </pre>
+ * A {@code jti} line revokes the token with the specified JWT ID, and a {@code sub} line revokes
+ * the token of the specified subject issued at the specified time, in seconds. Empty lines and
+ * lines starting with {@code #} are ignored.
+ * <p>
+ * Delta files are named after the snapshot file followed by {@code .delta.} and their version, for
+ * example {@code revocations.txt.delta.42}, and start with a {@code rsp4j-revocations-delta 1 42}
+ * header. Their lines have the same format, and a line prefixed with {@code -} removes a
+ * revocation instead. Deltas are applied in order of their versions, starting from the version
+ * following the snapshot, and stop at the first missing version.
+ * <p>
+ * Files are read through a memory mapping, so large snapshots don't have to be copied onto the heap
+ * before being parsed. The snapshot is reloaded whenever its size or modification time changes.
+ * Files should be replaced atomically, for example by renaming a temporary file. If a file can't
+ * be read or parsed, the current revocations are kept until the next refresh.
+ */
+public final class RevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationStore.class);
+
+    private static final String SNAPSHOT_HEADER = "rsp4j-revocations 1 ";
+    private static final String DELTA_HEADER = "rsp4j-revocations-delta 1 ";
+    private static final String DELTA_INFIX = ".delta.";
+
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    private final Path snapshotFile;
+    private final long refreshInterval;
+
+    private final Object refreshLock = new Object();
+
+    private volatile RevocationList list = new RevocationList(0, MINIMUM_CAPACITY);
+
+    // Guarded by refreshLock
+    private Object loadedSnapshotKey;
+
+    public RevocationStore(final Path snapshotFile, final long refreshInterval) {
+        this.snapshotFile = requireNonNull(snapshotFile, "snapshotFile must not be null")
+                .toAbsolutePath();
+
+        if (refreshInterval <= 0) {
+            throw new IllegalArgumentException("refreshInterval must be greater than 0");
+        }
+
+        this.refreshInterval = refreshInterval;
+
+        refresh();
+        RefreshTask.schedule(this, refreshInterval);
+    }
+
+    /**
+     * Returns whether the token with the specified claims is revoked. Tokens which aren't revoked
+     * are almost always confirmed with a few bit probes, without allocating.
+     *
+     * @param jwtId     JWT ID of the token, may be {@code null}
+     * @param subject   subject of the token, may be {@code null}
+     * @param issueTime issued at time of the token in milliseconds, {@link Long#MIN_VALUE} if
+     *                  absent
+     * @return {@code true} if the token is revoked
+     */
+    public boolean isRevoked(final String jwtId, final String subject, final long issueTime) {
+        return list.isRevoked(jwtId, subject,
+                issueTime == Long.MIN_VALUE ? RevocationList.NO_ISSUE_TIME : issueTime / 1000);
+    }
+
+    /**
+     * Returns the version of the last applied snapshot or delta file, 0 if none was applied.
+     */
+    public long getVersion() {
+        return list.getVersion();
+    }
+
+    /**
+     * Reloads the snapshot if it changed, and applies any new delta files.
+     */
+    void refresh() {
+        synchronized (refreshLock) {
+            try {
+                final BasicFileAttributes attributes =
+                        Files.readAttributes(snapshotFile, BasicFileAttributes.class);
+                final Object snapshotKey = attributes.lastModifiedTime().toMillis() + ":"
+                        + attributes.size() + ":" + attributes.fileKey();
+
+                if (!snapshotKey.equals(loadedSnapshotKey)) {
+                    list = loadSnapshot();
+                    loadedSnapshotKey = snapshotKey;
+
+                    logger.debug("Loaded {} revocations of version {} from {}", list.size(),
+                            list.getVersion(), snapshotFile);
+                }
+            } catch (NoSuchFileException e) {
+                logger.warn("Revocation snapshot {} doesn't exist", snapshotFile);
+                return;
+            } catch (IOException | ParseException e) {
+                logger.warn("Keeping current revocations, loading {} failed", snapshotFile, e);
+                return;
+            }
+
+            applyDeltas();
+        }
+    }
+
+    private RevocationList loadSnapshot() throws IOException, ParseException {
+        final List<String> lines = readLines(snapshotFile);
+        final long version = parseHeader(lines, SNAPSHOT_HEADER);
+        final RevocationList loaded = new RevocationList(version,
+                Math.max(lines.size() * 2, MINIMUM_CAPACITY));
+
+        for (int i = 1; i < lines.size(); i++) {
+            final String line = lines.get(i);
+
+            if (!isIgnored(line)) {
+                loaded.add(parseRevocation(line, i));
+            }
+        }
+
+        return loaded;
+    }
+
+    private void applyDeltas() {
+        while (true) {
+            final long version = list.getVersion() + 1;
+            final Path deltaFile = snapshotFile.resolveSibling(
+                    snapshotFile.getFileName() + DELTA_INFIX + version);
+
+            if (!Files.exists(deltaFile)) {
+                return;
+            }
+
+            final List<Revocation> added = new ArrayList<>();
+            final List<Revocation> removed = new ArrayList<>();
+
+            try {
+                final List<String> lines = readLines(deltaFile);
+
+                if (parseHeader(lines, DELTA_HEADER) != version) {
+                    throw new ParseException("Delta version doesn't match its file name", 0);
+                }
+
+                for (int i = 1; i < lines.size(); i++) {
+                    final String line = lines.get(i);
+
+                    if (isIgnored(line)) {
+                        continue;
+                    }
+
+                    if (line.charAt(0) == '-') {
+                        removed.add(parseRevocation(line.substring(1), i));
+                    } else {
+                        added.add(parseRevocation(line, i));
+                    }
+                }
+            } catch (IOException | ParseException e) {
+                logger.warn("Stopping at revocation delta {} which couldn't be loaded", deltaFile,
+                        e);
+                return;
+            }
+
+            list = apply(list, version, added, removed);
+
+            logger.debug("Applied revocation delta {}, {} revocations added and {} removed",
+                    deltaFile, added.size(), removed.size());
+        }
+    }
+
+    /**
+     * Applies a delta. The list is updated in place unless it would exceed the capacity of its
+     * filter, in which case a larger list is built instead.
+     */
+    private static RevocationList apply(RevocationList current, long version,
+            List<Revocation> added, List<Revocation> removed) {
+        final int size = current.size() + added.size();
+        final RevocationList target;
+
+        if (size > current.getCapacity()) {
+            target = new RevocationList(version, size * 2);
+
+            for (Revocation revocation : current.getRevocations()) {
+                target.add(revocation);
+            }
+        } else {
+            target = current;
+        }
+
+        for (Revocation revocation : removed) {
+            target.remove(revocation);
+        }
+
+        for (Revocation revocation : added) {
+            target.add(revocation);
+        }
+
+        target.setVersion(version);
+
+        return target;
+    }
+
+    private static long parseHeader(List<String> lines, String header) throws ParseException {
+        if (lines.isEmpty() || !lines.get(0).startsWith(header)) {
+            throw new ParseException("Missing '" + header.trim() + "' header", 0);
+        }
+
+        try {
+            return Long.parseLong(lines.get(0).substring(header.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new ParseException("Invalid version in header", 0);
+        }
+    }
+
+    private static boolean isIgnored(String line) {
+        return line.isEmpty() || line.charAt(0) == '#';
+    }
+
+    private static Revocation parseRevocation(String line, int lineNumber) throws ParseException {
+        if (line.startsWith("jti ") && line.length() > 4) {
+            return Revocation.ofJWTId(line.substring(4));
+        }
+
+        if (line.startsWith("sub ")) {
+            final int separator = line.indexOf(' ', 4);
+
+            if (separator > 4 && separator < line.length() - 1) {
+                try {
+                    return Revocation.ofSubject(line.substring(separator + 1),
+                            Long.parseLong(line.substring(4, separator)));
+                } catch (NumberFormatException e) {
+                    // Reported below
+                }
+            }
+        }
+
+        throw new ParseException("Invalid revocation on line " + (lineNumber + 1), lineNumber);
+    }
+
+    /**
+     * Reads the lines of a file through a memory mapping, without line terminators.
+     */
+    private static List<String> readLines(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large: " + size + " bytes");
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final List<String> lines = new ArrayList<>();
+
+            byte[] line = new byte[128];
+            int length = 0;
+
+            while (buffer.hasRemaining()) {
+                final byte b = buffer.get();
+
+                if (b == '\n') {
+                    lines.add(toLine(line, length));
+                    length = 0;
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+
+                    line[length++] = b;
+                }
+            }
+
+            if (length > 0) {
+                lines.add(toLine(line, length));
+            }
+
+            return lines;
+        }
+    }
+
+    private static String toLine(byte[] line, int length) {
+        final int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+
+        return new String(line, 0, end, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Periodically refreshes a {@link RevocationStore}. The store is only weakly referenced so
+     * that discarded processors stop being refreshed once they are garbage collected.
+     */
+    private static final class RefreshTask implements Runnable {
+
+        private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+        private final WeakReference<RevocationStore> store;
+
+        private RefreshTask(RevocationStore store) {
+            this.store = new WeakReference<>(store);
+        }
+
+        private static void schedule(RevocationStore store, long delay) {
+            SCHEDULER.schedule(new RefreshTask(store), delay, TimeUnit.MILLISECONDS);
+        }
+
+        private static ScheduledExecutorService createScheduler() {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "rsp4j-revocation-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.setRemoveOnCancelPolicy(true);
+
+            return executor;
+        }
+
+        @Override
+        public void run() {
+            final RevocationStore revocationStore = store.get();
+
+            if (revocationStore == null) {
+                return;
+            }
+
+            try {
+                revocationStore.refresh();
+            } finally {
+                schedule(revocationStore, revocationStore.refreshInterval);
+            }
+        }
+    }
+}
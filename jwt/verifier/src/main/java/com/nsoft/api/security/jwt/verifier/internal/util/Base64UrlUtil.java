@@ -0,0 +1,90 @@
+package com.nsoft.api.security.jwt.verifier.internal.util;
+
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * Decodes Base64URL encoded segments of a compact serialized token directly from the token
+ * {@link String}, without copying the segment into an intermediate {@link String} or byte array.
+ */
+public final class Base64UrlUtil {
+
+    private static final byte[] DECODING_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(DECODING_TABLE, (byte) -1);
+
+        final String alphabet =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODING_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private Base64UrlUtil() {
+    }
+
+    /**
+     * Decodes the unpadded Base64URL encoded characters between the specified offsets.
+     *
+     * @param encoded source characters
+     * @param start   inclusive start offset
+     * @param end     exclusive end offset
+     * @return decoded bytes
+     * @throws ParseException if the characters are not valid unpadded Base64URL
+     */
+    public static byte[] decode(final CharSequence encoded, final int start, final int end)
+            throws ParseException {
+        final int length = end - start;
+
+        if (length % 4 == 1) {
+            throw new ParseException("Invalid Base64URL length", end);
+        }
+
+        final byte[] decoded = new byte[length * 3 / 4];
+
+        int position = start;
+        int target = 0;
+
+        while (end - position >= 4) {
+            final int bits = sextet(encoded, position) << 18
+                    | sextet(encoded, position + 1) << 12
+                    | sextet(encoded, position + 2) << 6
+                    | sextet(encoded, position + 3);
+
+            decoded[target++] = (byte) (bits >> 16);
+            decoded[target++] = (byte) (bits >> 8);
+            decoded[target++] = (byte) bits;
+            position += 4;
+        }
+
+        final int remaining = end - position;
+
+        if (remaining >= 2) {
+            final int bits = sextet(encoded, position) << 18
+                    | sextet(encoded, position + 1) << 12
+                    | (remaining == 3 ? sextet(encoded, position + 2) << 6 : 0);
+
+            decoded[target++] = (byte) (bits >> 16);
+
+            if (remaining == 3) {
+                decoded[target] = (byte) (bits >> 8);
+            }
+        }
+
+        return decoded;
+    }
+
+    private static int sextet(final CharSequence encoded, final int index)
+            throws ParseException {
+        final char c = encoded.charAt(index);
+        final int value = c < 128 ? DECODING_TABLE[c] : -1;
+
+        if (value < 0) {
+            throw new ParseException("Invalid Base64URL character", index);
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.nsoft.api.security.jwt.verifier.internal.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads HTTP response bodies so that the underlying connections can be reused.
+ * <p>
+ * The JDK only returns a connection to its keep-alive cache once the response body was read to
+ * the end and closed, so every response body has to be either {@link #read(InputStream, int) read}
+ * or {@link #drain(InputStream) drained}, including error responses.
+ */
+public final class HttpUtil {
+
+    private HttpUtil() {
+    }
+
+    /**
+     * Reads a response body as UTF-8 and closes it.
+     *
+     * @param inputStream   response body
+     * @param maximumLength maximum length of the body in bytes
+     * @return response body
+     * @throws IOException if the body couldn't be read or exceeds the maximum length
+     */
+    public static String read(final InputStream inputStream, final int maximumLength)
+            throws IOException {
+        try (InputStream input = inputStream) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
+            final byte[] buffer = new byte[4096];
+
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                if (output.size() + read > maximumLength) {
+                    throw new IOException("Response exceeds the maximum size of "
+                            + maximumLength + " bytes");
+                }
+
+                output.write(buffer, 0, read);
+            }
+
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads the remaining response body and closes it, which allows the connection to be reused.
+     *
+     * @param inputStream response body, may be {@code null}
+     * @throws IOException if the body couldn't be read
+     */
+    public static void drain(final InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return;
+        }
+
+        try (InputStream input = inputStream) {
+            final byte[] buffer = new byte[1024];
+
+            while (input.read(buffer) != -1) {
+                // discard
+            }
+        }
+    }
+}
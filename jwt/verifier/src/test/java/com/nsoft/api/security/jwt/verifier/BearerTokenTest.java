@@ -0,0 +1,31 @@
+package com.nsoft.api.security.jwt.verifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+final class BearerTokenTest {
+
+    @Test
+    void extract() {
+        assertEquals("abc.def.ghi", BearerToken.extract("Bearer abc.def.ghi"));
+        assertEquals("abc.def.ghi", BearerToken.extract("bearer abc.def.ghi"));
+        assertEquals("abc.def.ghi", BearerToken.extract("BEARER abc.def.ghi"));
+        assertEquals("abc.def.ghi", BearerToken.extract("  Bearer \t abc.def.ghi  "));
+        assertEquals("a-b_c~d+e/f==", BearerToken.extract("Bearer a-b_c~d+e/f=="));
+    }
+
+    @Test
+    void extractInvalid() {
+        assertNull(BearerToken.extract(null));
+        assertNull(BearerToken.extract(""));
+        assertNull(BearerToken.extract("Bearer"));
+        assertNull(BearerToken.extract("Bearer   "));
+        assertNull(BearerToken.extract("Bearerabc.def.ghi"));
+        assertNull(BearerToken.extract("Basic dXNlcjpwYXNz"));
+        assertNull(BearerToken.extract("Bearer abc def"));
+        assertNull(BearerToken.extract("Bearer abc=def"));
+        assertNull(BearerToken.extract("Bearer abc,def"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.nsoft.api.security.jwt.verifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nsoft.api.security.test_support.LocalProcessorConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+final class ProcessorExecutorsTest {
+
+    private static final boolean JAVA_21_OR_LATER = !System.getProperty(
+            "java.specification.version").startsWith("1.")
+            && Integer.parseInt(System.getProperty("java.specification.version")) >= 21;
+
+    @Test
+    void isVirtualThreadSupported() {
+        assertEquals(JAVA_21_OR_LATER, ProcessorExecutors.isVirtualThreadSupported());
+
+        if (!JAVA_21_OR_LATER) {
+            assertThrows(UnsupportedOperationException.class,
+                    ProcessorExecutors::newVirtualThreadExecutor);
+        }
+    }
+
+    @Test
+    void newVirtualThreadExecutorOrCachedThreadPool() throws Exception {
+        final ExecutorService executor =
+                ProcessorExecutors.newVirtualThreadExecutorOrCachedThreadPool();
+
+        try {
+            assertEquals(42, (int) executor.submit(() -> 42).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void defaultExecutor() throws Exception {
+        final Executor executor = ProcessorExecutors.defaultExecutor();
+
+        assertNotSame(ForkJoinPool.commonPool(), executor);
+        assertEquals(42, (int) CompletableFuture.supplyAsync(() -> 42, executor)
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void configurationExecutors() {
+        final LocalProcessorConfiguration configuration = new LocalProcessorConfiguration();
+
+        assertSame(ProcessorExecutors.defaultExecutor(), configuration.getExecutor());
+        assertSame(ProcessorExecutors.defaultExecutor(), configuration.getAsyncExecutor());
+
+        final Executor executor = Runnable::run;
+
+        configuration.setExecutor(executor);
+        configuration.setAsyncExecutor(executor);
+
+        assertSame(executor, configuration.getExecutor());
+        assertSame(executor, configuration.getAsyncExecutor());
+        assertThrows(NullPointerException.class, () -> configuration.setExecutor(null));
+        assertThrows(NullPointerException.class, () -> configuration.setAsyncExecutor(null));
+    }
+}
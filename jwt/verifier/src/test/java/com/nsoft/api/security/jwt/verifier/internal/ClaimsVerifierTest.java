@@ -0,0 +1,150 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jwt.proc.BadJWTException;
+import com.nsoft.api.security.jwt.verifier.ClaimPolicy;
+import com.nsoft.api.security.test_support.LocalProcessorConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+final class ClaimsVerifierTest {
+
+    private static final long NOW = 1_600_000_000_000L;
+
+    @Test
+    void verifyTimeClaims() {
+        final ClaimsVerifier verifier = verifier(ClaimPolicy.builder().clockSkew(1000).build(),
+                null);
+
+        assertAccepted(verifier, "{\"exp\":1600000001}");
+        assertAccepted(verifier, "{\"exp\":1600000000}");
+        assertRejected(verifier, "{\"exp\":1599999999}", "Expired JWT");
+        assertAccepted(verifier, "{\"nbf\":1600000001}");
+        assertRejected(verifier, "{\"nbf\":1600000002}", "JWT before use time");
+        assertAccepted(verifier, "{}");
+
+        // Timestamps overflowing when converted to milliseconds
+        assertAccepted(verifier, "{\"exp\":" + Long.MAX_VALUE / 100 + "}");
+        assertAccepted(verifier, "{\"nbf\":" + Long.MIN_VALUE / 100 + "}");
+        assertRejected(verifier, "{\"exp\":" + Long.MIN_VALUE / 100 + "}", "Expired JWT");
+        assertRejected(verifier, "{\"nbf\":" + Long.MAX_VALUE / 100 + "}", "JWT before use time");
+    }
+
+    @Test
+    void verifyIssuer() {
+        final ClaimsVerifier verifier = verifier(ClaimPolicy.builder()
+                .allowedIssuers("https://a.example", "https://b.example")
+                .build(), null);
+
+        assertAccepted(verifier, "{\"iss\":\"https://a.example\"}");
+        assertAccepted(verifier, "{\"iss\":\"https://b.example\"}");
+        assertRejected(verifier, "{\"iss\":\"https://c.example\"}", "Invalid token issuer");
+        assertRejected(verifier, "{}", "Invalid token issuer");
+
+        // The configured issuer applies in addition to the allowed issuers
+        final ClaimsVerifier restricted = verifier(ClaimPolicy.builder()
+                .allowedIssuers("https://a.example", "https://b.example")
+                .build(), "https://a.example");
+
+        assertAccepted(restricted, "{\"iss\":\"https://a.example\"}");
+        assertRejected(restricted, "{\"iss\":\"https://b.example\"}", "Invalid token issuer");
+    }
+
+    @Test
+    void verifyAudience() {
+        final ClaimsVerifier verifier = verifier(ClaimPolicy.builder()
+                .acceptedAudiences("orders", "payments")
+                .build(), null);
+
+        assertAccepted(verifier, "{\"aud\":\"orders\"}");
+        assertAccepted(verifier, "{\"aud\":[\"users\",\"payments\"]}");
+        assertRejected(verifier, "{\"aud\":[\"users\"]}", "Invalid token audience");
+        assertRejected(verifier, "{}", "Invalid token audience");
+    }
+
+    @Test
+    void verifyRequiredClaims() {
+        final ClaimsVerifier verifier = verifier(ClaimPolicy.builder()
+                .requiredClaims("sub", "exp")
+                .build(), null);
+
+        assertAccepted(verifier, "{\"sub\":\"user\",\"exp\":1600000060}");
+        assertRejected(verifier, "{\"sub\":\"user\"}", "Missing required claim exp");
+        assertRejected(verifier, "{\"exp\":1600000060}", "Missing required claim sub");
+    }
+
+    @Test
+    void verifyTokenAge() {
+        final ClaimsVerifier verifier = verifier(ClaimPolicy.builder()
+                .maximumTokenAge(60_000)
+                .clockSkew(0)
+                .build(), null);
+
+        assertAccepted(verifier, "{\"iat\":1599999940}");
+        assertRejected(verifier, "{\"iat\":1599999939}", "JWT too old");
+        assertRejected(verifier, "{}", "Missing issue time");
+
+        // Issue times overflowing when converted to milliseconds
+        assertRejected(verifier, "{\"iat\":" + Long.MIN_VALUE / 100 + "}", "JWT too old");
+    }
+
+    @Test
+    void getExpirationTime() throws Exception {
+        final ClaimsVerifier unlimited = verifier(ClaimPolicy.DEFAULT, null);
+        final ClaimsVerifier limited = verifier(ClaimPolicy.builder()
+                .maximumTokenAge(60_000)
+                .build(), null);
+
+        assertEquals(1_600_000_600_000L,
+                unlimited.getExpirationTime(parse("{\"iat\":1600000000,\"exp\":1600000600}")));
+        assertEquals(LazyJWTClaimsSet.ABSENT,
+                unlimited.getExpirationTime(parse("{\"iat\":1600000000}")));
+        assertEquals(1_600_000_060_000L,
+                limited.getExpirationTime(parse("{\"iat\":1600000000,\"exp\":1600000600}")));
+        assertEquals(1_600_000_060_000L,
+                limited.getExpirationTime(parse("{\"iat\":1600000000}")));
+        assertEquals(1_600_000_030_000L,
+                limited.getExpirationTime(parse("{\"iat\":1600000000,\"exp\":1600000030}")));
+    }
+
+    @Test
+    void builderRejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ClaimPolicy.builder().maximumTokenAge(0));
+        assertThrows(IllegalArgumentException.class, () -> ClaimPolicy.builder().clockSkew(-1));
+        assertThrows(NullPointerException.class,
+                () -> ClaimPolicy.builder().requiredClaims("sub", null));
+    }
+
+    private static ClaimsVerifier verifier(ClaimPolicy policy, String issuer) {
+        final LocalProcessorConfiguration configuration = new LocalProcessorConfiguration() {
+
+            @Override
+            public Optional<String> getIssuer() {
+                return Optional.ofNullable(issuer);
+            }
+        };
+
+        configuration.setClaimPolicy(policy);
+
+        return new ClaimsVerifier(configuration);
+    }
+
+    private static void assertAccepted(ClaimsVerifier verifier, String payload) {
+        assertDoesNotThrow(() -> verifier.verify(parse(payload), NOW));
+    }
+
+    private static void assertRejected(ClaimsVerifier verifier, String payload, String message) {
+        assertEquals(message, assertThrows(BadJWTException.class,
+                () -> verifier.verify(parse(payload), NOW)).getMessage());
+    }
+
+    private static LazyJWTClaimsSet parse(String payload) throws Exception {
+        return LazyJWTClaimsSet.parse(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
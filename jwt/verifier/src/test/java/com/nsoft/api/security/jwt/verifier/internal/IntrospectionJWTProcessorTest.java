@@ -0,0 +1,150 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nsoft.api.security.jwt.verifier.ClaimPolicy;
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import com.nsoft.api.security.test_support.LocalProcessorConfiguration;
+import com.nsoft.api.security.test_support.TestTokens;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class IntrospectionJWTProcessorTest {
+
+    @Test
+    void coalescesConcurrentIntrospections() throws Exception {
+        final AtomicInteger introspections = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final IntrospectionJWTProcessor processor = new IntrospectionJWTProcessor(
+                configuration(), token -> {
+                    introspections.incrementAndGet();
+
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+
+                    return Optional.of(claimsSet(TestTokens.claims().build()));
+                });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            final List<CompletableFuture<Optional<JWTClaimsSet>>> results = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                results.add(CompletableFuture.supplyAsync(
+                        () -> processor.process("opaque-token"), executor));
+            }
+
+            // Give every caller the chance to join the pending introspection
+            TimeUnit.MILLISECONDS.sleep(200);
+            release.countDown();
+
+            for (CompletableFuture<Optional<JWTClaimsSet>> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, introspections.get());
+        assertTrue(processor.process("opaque-token").isPresent());
+        assertEquals(1, introspections.get());
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        final IntrospectionJWTProcessor processor = new IntrospectionJWTProcessor(
+                configuration(), token -> Optional.of(claimsSet(TestTokens.claims()
+                        .expirationTime(new Date(System.currentTimeMillis() - 1000))
+                        .build())));
+
+        assertFalse(processor.process("opaque-token").isPresent());
+    }
+
+    @Test
+    void verifiesClaims() {
+        final AtomicInteger introspections = new AtomicInteger();
+        final AtomicReference<com.nimbusds.jwt.JWTClaimsSet> response = new AtomicReference<>();
+
+        final LocalProcessorConfiguration configuration = configuration();
+        configuration.setClaimPolicy(ClaimPolicy.builder().acceptedAudiences("orders").build());
+
+        final IntrospectionJWTProcessor processor = new IntrospectionJWTProcessor(
+                configuration, token -> {
+                    introspections.incrementAndGet();
+                    return Optional.of(claimsSet(response.get()));
+                });
+
+        response.set(TestTokens.claims().audience("orders").build());
+        assertTrue(processor.process("accepted-token").isPresent());
+
+        response.set(TestTokens.claims().audience("users").build());
+        assertFalse(processor.process("other-audience-token").isPresent());
+
+        response.set(TestTokens.claims().issuer("https://other.example").audience("orders")
+                .build());
+        assertFalse(processor.process("other-issuer-token").isPresent());
+        assertFalse(processor.process("other-issuer-token").isPresent());
+
+        // Tokens which are not valid yet are introspected again
+        response.set(TestTokens.claims().audience("orders")
+                .notBeforeTime(new Date(System.currentTimeMillis() + 3_600_000)).build());
+        assertFalse(processor.process("premature-token").isPresent());
+        assertFalse(processor.process("premature-token").isPresent());
+
+        assertEquals(5, introspections.get());
+    }
+
+    @Test
+    void introspectsEveryTokenWithoutCache() {
+        final AtomicInteger introspections = new AtomicInteger();
+
+        final LocalProcessorConfiguration configuration = configuration();
+        configuration.setIntrospectionCacheSize(0);
+
+        final IntrospectionJWTProcessor processor = new IntrospectionJWTProcessor(
+                configuration, token -> {
+                    introspections.incrementAndGet();
+                    return Optional.empty();
+                });
+
+        assertFalse(processor.process("opaque-token").isPresent());
+        assertFalse(processor.process("opaque-token").isPresent());
+        assertEquals(2, introspections.get());
+    }
+
+    private static LocalProcessorConfiguration configuration() {
+        final LocalProcessorConfiguration configuration = new LocalProcessorConfiguration();
+        configuration.setIntrospectionUrl("http://localhost:18081/oauth2/introspect");
+
+        return configuration;
+    }
+
+    private static LazyJWTClaimsSet claimsSet(com.nimbusds.jwt.JWTClaimsSet claimsSet) {
+        try {
+            return LazyJWTClaimsSet.parse(claimsSet.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
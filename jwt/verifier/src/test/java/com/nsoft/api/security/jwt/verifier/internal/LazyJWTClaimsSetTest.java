@@ -0,0 +1,116 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Collections;
+
+final class LazyJWTClaimsSetTest {
+
+    private static final String PAYLOAD = "{\"iss\":\"http://localhost:8080\","
+            + "\"sub\":\"test@local.host\",\"aud\":[\"a\",\"b\"],\"exp\":1894051442,"
+            + "\"nbf\":1578691442,\"iat\":1578691442,\"jti\":\"id\",\"scope\":\"read write\","
+            + "\"roles\":[\"admin\",\"user\"],\"count\":42,\"ratio\":0.5,\"active\":true,"
+            + "\"website\":\"https://nsoft.com\",\"updated_at\":1578691442,"
+            + "\"address\":{\"country\":\"HR\"},\"mixed\":[1,\"a\"]}";
+
+    @Test
+    void matchesNimbusClaimsSet() throws Exception {
+        final JWTClaimsSet lazy = parse(PAYLOAD);
+        final JWTClaimsSet nimbus = new ImmutableJWTClaimsSet(
+                com.nimbusds.jwt.JWTClaimsSet.parse(PAYLOAD));
+
+        assertEquals(nimbus.getIssuer(), lazy.getIssuer());
+        assertEquals(nimbus.getSubject(), lazy.getSubject());
+        assertEquals(nimbus.getAudience(), lazy.getAudience());
+        assertEquals(nimbus.getExpirationTime(), lazy.getExpirationTime());
+        assertEquals(nimbus.getNotBeforeTime(), lazy.getNotBeforeTime());
+        assertEquals(nimbus.getIssueTime(), lazy.getIssueTime());
+        assertEquals(nimbus.getJWTId(), lazy.getJWTId());
+
+        assertEquals(nimbus.getStringClaim("scope"), lazy.getStringClaim("scope"));
+        assertEquals(nimbus.getStringListClaim("roles"), lazy.getStringListClaim("roles"));
+        assertArrayEquals(nimbus.getStringArrayClaim("roles"), lazy.getStringArrayClaim("roles"));
+        assertEquals(nimbus.getIntegerClaim("count"), lazy.getIntegerClaim("count"));
+        assertEquals(nimbus.getLongClaim("count"), lazy.getLongClaim("count"));
+        assertEquals(nimbus.getFloatClaim("ratio"), lazy.getFloatClaim("ratio"));
+        assertEquals(nimbus.getDoubleClaim("ratio"), lazy.getDoubleClaim("ratio"));
+        assertEquals(nimbus.getBooleanClaim("active"), lazy.getBooleanClaim("active"));
+        assertEquals(nimbus.getURIClaim("website"), lazy.getURIClaim("website"));
+        assertEquals(nimbus.getDateClaim("updated_at"), lazy.getDateClaim("updated_at"));
+        assertEquals(nimbus.getClaim("address"), lazy.getClaim("address"));
+        assertEquals(nimbus.getClaims().keySet(), lazy.getClaims().keySet());
+
+        assertNull(lazy.getClaim("missing"));
+        assertNull(lazy.getStringClaim("missing"));
+        assertNull(lazy.getLongClaim("missing"));
+    }
+
+    @Test
+    void memoizesConversions() throws Exception {
+        final JWTClaimsSet claimsSet = parse(PAYLOAD);
+
+        assertSame(claimsSet.getClaim("address"), claimsSet.getClaim("address"));
+        assertSame(claimsSet.getStringListClaim("roles"), claimsSet.getStringListClaim("roles"));
+        assertSame(claimsSet.getURIClaim("website"), claimsSet.getURIClaim("website"));
+        assertSame(claimsSet.getClaims(), claimsSet.getClaims());
+    }
+
+    @Test
+    void internsIssuerAndClaimNames() throws Exception {
+        final JWTClaimsSet first = parse(PAYLOAD);
+        final JWTClaimsSet second = parse(PAYLOAD);
+
+        assertSame(first.getIssuer(), second.getIssuer());
+        assertSame(first.getClaims().keySet().iterator().next(),
+                second.getClaims().keySet().iterator().next());
+    }
+
+    @Test
+    void singleAudience() throws Exception {
+        assertEquals(Collections.singletonList("a"), parse("{\"aud\":\"a\"}").getAudience());
+        assertTrue(parse("{}").getAudience().isEmpty());
+    }
+
+    @Test
+    void invalidClaimTypes() throws Exception {
+        assertThrows(ParseException.class, () -> parse("{\"exp\":\"tomorrow\"}"));
+        assertThrows(ParseException.class, () -> parse("{\"iss\":42}"));
+        assertThrows(ParseException.class, () -> parse("{\"aud\":{}}"));
+        assertThrows(ParseException.class, () -> parse("[]"));
+
+        final JWTClaimsSet claimsSet = parse(PAYLOAD);
+
+        assertThrows(ParseException.class, () -> claimsSet.getStringClaim("count"));
+        assertThrows(ParseException.class, () -> claimsSet.getStringListClaim("mixed"));
+        assertThrows(ParseException.class, () -> claimsSet.getLongClaim("scope"));
+        assertThrows(ParseException.class, () -> claimsSet.getBooleanClaim("scope"));
+    }
+
+    @Test
+    void rejectsMalformedUnknownClaims() {
+        assertThrows(ParseException.class, () -> parse("{\"sub\":\"x\",\"foo\":tru}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":nul}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":1.}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":1e}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":-}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":\"\\x\"}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":\"\\u12\"}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":[1,]}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":{\"a\" 1}}"));
+        assertThrows(ParseException.class, () -> parse("{\"foo\":{\"a\":[x]}}"));
+    }
+
+    private static JWTClaimsSet parse(String payload) throws ParseException {
+        return LazyJWTClaimsSet.parse(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,134 @@
+package com.nsoft.api.security.jwt.verifier.internal;
+
+import static com.nsoft.api.security.test_support.TestTokens.claims;
+import static com.nsoft.api.security.test_support.TestTokens.ecKey;
+import static com.nsoft.api.security.test_support.TestTokens.rsaKey;
+import static com.nsoft.api.security.test_support.TestTokens.sign;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nsoft.api.security.jwt.verifier.RejectionReason;
+import com.nsoft.api.security.jwt.verifier.internal.jwks.VerificationKeySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+
+final class TokenPrecheckTest {
+
+    private static final RSAKey RSA_KEY = rsaKey("rsa");
+
+    private static final VerificationKeySet KEY_SET =
+            VerificationKeySet.from(new JWKSet(RSA_KEY.toPublicJWK()));
+
+    private final TokenPrecheck precheck = new TokenPrecheck(4096,
+            Collections.singleton("RS256"), keyId -> KEY_SET, 60_000);
+
+    @Test
+    void check() {
+        final long now = System.currentTimeMillis();
+
+        assertNull(precheck.check(sign(RSA_KEY, JWSAlgorithm.RS256, claims().build()), now));
+    }
+
+    @Test
+    void checkMalformed() {
+        final long now = System.currentTimeMillis();
+        final String token = sign(RSA_KEY, JWSAlgorithm.RS256, claims().build());
+        final String[] segments = token.split("\\.");
+
+        assertEquals(RejectionReason.MALFORMED, precheck.check("", now));
+        assertEquals(RejectionReason.MALFORMED, precheck.check("not a token", now));
+        assertEquals(RejectionReason.MALFORMED,
+                precheck.check(segments[0] + "." + segments[1], now));
+        assertEquals(RejectionReason.MALFORMED,
+                precheck.check(segments[0] + "." + segments[1] + ".", now));
+        assertEquals(RejectionReason.MALFORMED, precheck.check(token + ".abc.def", now));
+        assertEquals(RejectionReason.MALFORMED,
+                precheck.check("e30!." + segments[1] + "." + segments[2], now));
+        assertEquals(RejectionReason.MALFORMED,
+                precheck.check("e30." + segments[1] + "." + segments[2], now));
+    }
+
+    @Test
+    void checkOversized() {
+        final String token = sign(RSA_KEY, JWSAlgorithm.RS256, claims()
+                .claim("padding", new String(new char[4096]).replace('\0', 'a'))
+                .build());
+
+        assertEquals(RejectionReason.MALFORMED, precheck.check(token, System.currentTimeMillis()));
+    }
+
+    @Test
+    void checkAlgorithmAndKeyId() {
+        final long now = System.currentTimeMillis();
+
+        assertEquals(RejectionReason.NO_MATCHING_KEY, precheck.check(
+                sign(ecKey("rsa"), JWSAlgorithm.ES256, claims().build()), now));
+        assertEquals(RejectionReason.NO_MATCHING_KEY, precheck.check(
+                sign(rsaKey("unknown"), JWSAlgorithm.RS256, claims().build()), now));
+    }
+
+    @Test
+    void checkMultipleAlgorithms() {
+        final long now = System.currentTimeMillis();
+        final ECKey ecKey = ecKey("ec");
+
+        final TokenPrecheck multiAlgorithmPrecheck = new TokenPrecheck(4096,
+                new HashSet<>(Arrays.asList("RS256", "ES256")),
+                keyId -> VerificationKeySet.from(
+                        new JWKSet(Arrays.asList(RSA_KEY.toPublicJWK(), ecKey.toPublicJWK()))),
+                60_000);
+
+        assertNull(multiAlgorithmPrecheck.check(
+                sign(RSA_KEY, JWSAlgorithm.RS256, claims().build()), now));
+        assertNull(multiAlgorithmPrecheck.check(
+                sign(ecKey, JWSAlgorithm.ES256, claims().build()), now));
+        assertEquals(RejectionReason.NO_MATCHING_KEY, multiAlgorithmPrecheck.check(
+                sign(RSA_KEY, JWSAlgorithm.PS256, claims().build()), now));
+    }
+
+    @Test
+    void checkKeySourceUnavailable() {
+        final TokenPrecheck failingPrecheck = new TokenPrecheck(4096,
+                Collections.singleton("RS256"), keyId -> {
+                    throw new KeySourceException("unavailable");
+                }, 60_000);
+
+        assertEquals(RejectionReason.KEY_SOURCE_UNAVAILABLE, failingPrecheck.check(
+                sign(RSA_KEY, JWSAlgorithm.RS256, claims().build()), System.currentTimeMillis()));
+    }
+
+    @Test
+    void checkTimestamps() {
+        final long now = System.currentTimeMillis();
+
+        assertEquals(RejectionReason.INVALID_CLAIMS, precheck.check(sign(RSA_KEY,
+                JWSAlgorithm.RS256, claims().expirationTime(new Date(now - 120_000)).build()),
+                now));
+        assertEquals(RejectionReason.INVALID_CLAIMS, precheck.check(sign(RSA_KEY,
+                JWSAlgorithm.RS256, claims().notBeforeTime(new Date(now + 120_000)).build()),
+                now));
+
+        // Within the allowed clock skew
+        assertNull(precheck.check(sign(RSA_KEY, JWSAlgorithm.RS256,
+                claims().expirationTime(new Date(now - 30_000)).build()), now));
+        assertNull(precheck.check(sign(RSA_KEY, JWSAlgorithm.RS256,
+                claims().notBeforeTime(new Date(now + 30_000)).build()), now));
+
+        // Timestamps overflowing when converted to milliseconds
+        assertNull(precheck.check(sign(RSA_KEY, JWSAlgorithm.RS256,
+                claims().claim("exp", Long.MAX_VALUE / 100).build()), now));
+        assertNull(precheck.check(sign(RSA_KEY, JWSAlgorithm.RS256,
+                claims().claim("nbf", Long.MIN_VALUE / 100).build()), now));
+        assertEquals(RejectionReason.INVALID_CLAIMS, precheck.check(sign(RSA_KEY,
+                JWSAlgorithm.RS256, claims().claim("exp", Long.MIN_VALUE / 100).build()), now));
+    }
+}
@@ -0,0 +1,61 @@
+package com.nsoft.api.security.jwt.verifier.internal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+final class TokenCacheTest {
+
+    @Test
+    void fingerprint() {
+        assertEquals(TokenFingerprint.of("a.b.c"), TokenFingerprint.of("a.b.c"));
+        assertEquals(TokenFingerprint.of("a.b.c").hashCode(), TokenFingerprint.of("a.b.c").hashCode());
+        assertNotEquals(TokenFingerprint.of("a.b.c"), TokenFingerprint.of("a.b.d"));
+    }
+
+    @Test
+    void getAndPut() {
+        final TokenCache<String> cache = new TokenCache<>(16);
+        final TokenFingerprint fingerprint = TokenFingerprint.of("a.b.c");
+
+        assertNull(cache.get(fingerprint, 0));
+
+        cache.put(fingerprint, "claims", 100);
+
+        assertEquals("claims", cache.get(fingerprint, 99));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void expiration() {
+        final TokenCache<String> cache = new TokenCache<>(16);
+        final TokenFingerprint fingerprint = TokenFingerprint.of("a.b.c");
+
+        cache.put(fingerprint, "claims", 100);
+
+        assertNull(cache.get(fingerprint, 100));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void eviction() {
+        final TokenCache<Integer> cache = new TokenCache<>(64, 4);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(TokenFingerprint.of("token-" + i), i, Long.MAX_VALUE);
+        }
+
+        assertTrue(cache.getSize() <= 64);
+        assertEquals(1000 - cache.getSize(), cache.getEvictionCount());
+    }
+
+    @Test
+    void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenCache<>(0));
+    }
+}
@@ -0,0 +1,135 @@
+package com.nsoft.api.security.jwt.verifier.internal.crypto;
+
+import static com.nsoft.api.security.test_support.TestTokens.claims;
+import static com.nsoft.api.security.test_support.TestTokens.secretKey;
+import static com.nsoft.api.security.test_support.TestTokens.sign;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeyLengthException;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+final class HMACVerifierTest {
+
+    @Test
+    void verify() throws Exception {
+        final OctetSequenceKey key = secretKey("hmac");
+        final HMACVerifier verifier = new HMACVerifier(key.toByteArray());
+        final MACVerifier reference = new MACVerifier(key);
+
+        for (JWSAlgorithm algorithm : MACSigner.SUPPORTED_ALGORITHMS) {
+            final SignedJWT jwt = SignedJWT.parse(sign(key, algorithm, claims().build()));
+
+            assertTrue(jwt.verify(verifier));
+            assertTrue(jwt.verify(reference));
+        }
+    }
+
+    @Test
+    void verifyConcurrently() throws Exception {
+        final OctetSequenceKey key = secretKey("hmac");
+        final HMACVerifier verifier = new HMACVerifier(key.toByteArray());
+        final List<String> tokens = new ArrayList<>();
+
+        for (JWSAlgorithm algorithm : MACSigner.SUPPORTED_ALGORITHMS) {
+            tokens.add(sign(key, algorithm, claims().build()));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int i = 0; i < 1000; i++) {
+                final String token = tokens.get(i % tokens.size());
+
+                results.add(executor.submit(() -> SignedJWT.parse(token).verify(verifier)));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void verifyRejectsInvalidSignatures() throws Exception {
+        final OctetSequenceKey key = secretKey("hmac");
+        final HMACVerifier verifier = new HMACVerifier(key.toByteArray());
+
+        final String[] segments = sign(key, JWSAlgorithm.HS256, claims().build()).split("\\.");
+        final String signature = segments[2];
+        final String tampered = signature.substring(0, signature.length() - 1)
+                + (signature.endsWith("A") ? "B" : "A");
+
+        assertFalse(SignedJWT.parse(segments[0] + "." + segments[1] + "." + tampered)
+                .verify(verifier));
+        assertFalse(SignedJWT.parse(segments[0] + "." + segments[1] + "." + signature + "AA")
+                .verify(verifier));
+        assertFalse(SignedJWT.parse(segments[0] + "." + segments[1] + "."
+                + signature.substring(4)).verify(verifier));
+
+        // Signed with another key
+        assertFalse(SignedJWT.parse(sign(secretKey("hmac"), JWSAlgorithm.HS256, claims().build()))
+                .verify(verifier));
+    }
+
+    @Test
+    void verifyRejectsCriticalHeaderParameters() throws Exception {
+        final OctetSequenceKey key = secretKey("hmac");
+        final JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+                .criticalParams(Collections.singleton("exp"))
+                .customParam("exp", 0)
+                .build();
+        final SignedJWT jwt = new SignedJWT(header, claims().build());
+        jwt.sign(new MACSigner(key));
+
+        assertFalse(jwt.verify(new HMACVerifier(key.toByteArray())));
+    }
+
+    @Test
+    void matches() {
+        final Random random = new Random(42);
+
+        for (int length = 1; length <= 66; length++) {
+            final byte[] mac = new byte[length];
+            random.nextBytes(mac);
+
+            final String encoded = Base64URL.encode(mac).toString();
+
+            assertTrue(HMACVerifier.matches(mac, encoded));
+
+            mac[length - 1] ^= 1;
+            assertFalse(HMACVerifier.matches(mac, encoded));
+        }
+
+        // Every Base64URL character
+        final String alphabet =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+        assertTrue(HMACVerifier.matches(new Base64URL(alphabet).decode(), alphabet));
+    }
+
+    @Test
+    void rejectsShortSecrets() {
+        assertThrows(KeyLengthException.class, () -> new HMACVerifier(new byte[16]));
+    }
+}
@@ -0,0 +1,85 @@
+package com.nsoft.api.security.jwt.verifier.internal.crypto;
+
+import static com.nsoft.api.security.test_support.TestTokens.ecKey;
+import static com.nsoft.api.security.test_support.TestTokens.rsaKey;
+import static com.nsoft.api.security.test_support.TestTokens.secretKey;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+final class VerifierFactoryTest {
+
+    @Test
+    void createUsesConfiguredProviders() throws Exception {
+        final Provider provider = Security.getProviders()[0];
+        final Map<JWSAlgorithm.Family, Provider> providers =
+                new EnumMap<>(JWSAlgorithm.Family.class);
+        providers.put(JWSAlgorithm.Family.RSA, provider);
+        providers.put(JWSAlgorithm.Family.EC, provider);
+        providers.put(JWSAlgorithm.Family.HMAC, provider);
+
+        final VerifierFactory factory = new VerifierFactory(providers);
+
+        assertSame(provider, factory.create(rsaKey("rsa").toPublicJWK()).getJCAContext()
+                .getProvider());
+        assertSame(provider, factory.create(ecKey("ec").toPublicJWK()).getJCAContext()
+                .getProvider());
+        assertSame(provider, factory.create(secretKey("hmac")).getJCAContext().getProvider());
+
+        assertNull(VerifierFactory.DEFAULT.create(rsaKey("rsa").toPublicJWK()).getJCAContext()
+                .getProvider());
+    }
+
+    @Test
+    void createEdDSAVerifier() throws Exception {
+        final Provider[] ed25519Providers = Security.getProviders("Signature.Ed25519");
+        assumeTrue(ed25519Providers != null, "No Ed25519 provider available");
+
+        final Provider provider = ed25519Providers[0];
+        final KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519", provider).generateKeyPair();
+        final byte[] encoded = keyPair.getPublic().getEncoded();
+        final OctetKeyPair key = new OctetKeyPair.Builder(Curve.Ed25519,
+                Base64URL.encode(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)))
+                .keyID("ed")
+                .build();
+
+        final Map<JWSAlgorithm.Family, Provider> providers =
+                new EnumMap<>(JWSAlgorithm.Family.class);
+        providers.put(JWSAlgorithm.Family.EDDSA, provider);
+
+        final JWSVerifier verifier = new VerifierFactory(providers).create(key);
+
+        assertTrue(verifier instanceof JCAEd25519Verifier);
+
+        final JWSHeader header = new JWSHeader(com.nimbusds.jose.JWSAlgorithm.EdDSA);
+        final byte[] signingInput = "header.payload".getBytes(StandardCharsets.US_ASCII);
+        final Signature signer = Signature.getInstance("Ed25519", provider);
+        signer.initSign(keyPair.getPrivate());
+        signer.update(signingInput);
+        final Base64URL signature = Base64URL.encode(signer.sign());
+
+        assertTrue(verifier.verify(header, signingInput, signature));
+        assertFalse(verifier.verify(header,
+                "header.tampered".getBytes(StandardCharsets.US_ASCII), signature));
+    }
+}
@@ -0,0 +1,103 @@
+package com.nsoft.api.security.jwt.verifier.internal.jfr;
+
+import static com.nsoft.api.security.test_support.TestResources.THE_ALMIGHTY_KEY;
+import static com.nsoft.api.security.test_support.TestResources.THE_EVERLASTING_TOKEN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import com.nsoft.api.security.jwt.verifier.JWTProcessor;
+import com.nsoft.api.security.jwt.verifier.internal.DefaultJWTProcessor;
+import com.nsoft.api.security.test_support.LocalProcessorConfiguration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockserver.integration.ClientAndServer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+final class FlightRecorderEventsTest {
+
+    @Test
+    void disabledWithoutRecording() {
+        assertNull(FlightRecorderEvents.beginTokenVerification());
+        assertNull(FlightRecorderEvents.beginJWKSFetch());
+    }
+
+    @Test
+    void recordsVerificationAndFetchEvents(@TempDir Path directory) throws Exception {
+        final ClientAndServer clientAndServer = ClientAndServer.startClientAndServer(18083);
+        final Path recordingFile = directory.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.nsoft.rsp4j.TokenVerification");
+            recording.enable("com.nsoft.rsp4j.JWKSFetch");
+            recording.start();
+
+            clientAndServer
+                    .when(request()
+                            .withMethod("GET")
+                            .withPath("/.well-known/jwks.json"))
+                    .respond(response()
+                            .withStatusCode(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(THE_ALMIGHTY_KEY));
+
+            final JWTProcessor processor = new DefaultJWTProcessor(
+                    new LocalProcessorConfiguration() {
+
+                        @Override
+                        public String getJWKSUrl() {
+                            return "http://localhost:18083/.well-known/jwks.json";
+                        }
+                    });
+
+            assertTrue(processor.process(THE_EVERLASTING_TOKEN).isPresent());
+            assertFalse(processor.process(THE_EVERLASTING_TOKEN + "x").isPresent());
+
+            // Record the background refresh scheduled at startup, it must not fetch again
+            Thread.sleep(500);
+
+            recording.stop();
+            recording.dump(recordingFile);
+        } finally {
+            clientAndServer.stop();
+        }
+
+        final List<RecordedEvent> verifications = readEvents(recordingFile,
+                "com.nsoft.rsp4j.TokenVerification");
+
+        assertEquals(2, verifications.size());
+        assertEquals("RS256", verifications.get(0).getString("algorithm"));
+        assertEquals("ACCEPTED", verifications.get(0).getString("outcome"));
+        assertEquals("INVALID_SIGNATURE", verifications.get(1).getString("outcome"));
+
+        // Processors of other tests may still refresh their key sets in the background
+        final List<RecordedEvent> fetches = readEvents(recordingFile, "com.nsoft.rsp4j.JWKSFetch")
+                .stream()
+                .filter(event -> event.getString("url").startsWith("http://localhost:18083/"))
+                .collect(Collectors.toList());
+
+        assertEquals(1, fetches.size());
+        assertEquals(200, fetches.get(0).getInt("statusCode"));
+        assertEquals(THE_ALMIGHTY_KEY.getBytes(StandardCharsets.UTF_8).length,
+                fetches.get(0).getLong("bytes"));
+        assertFalse(fetches.get(0).getBoolean("cached"));
+    }
+
+    private static List<RecordedEvent> readEvents(Path recordingFile, String name)
+            throws Exception {
+        return RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,133 @@
+package com.nsoft.api.security.jwt.verifier.internal.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+
+final class JsonScannerTest {
+
+    @Test
+    void scan() throws Exception {
+        final JsonScanner scanner = scanner("{ \"iss\" : \"issuer\", \"aud\": [\"a\", {\"b\": 1}],"
+                + " \"nested\": {\"exp\": 1, \"s\": \"}\"}, \"exp\": 1894051442, \"nbf\": null }");
+
+        assertTrue(scanner.nextMember());
+        assertTrue(scanner.nameEquals("iss"));
+        assertEquals("issuer", scanner.stringValue());
+
+        assertTrue(scanner.nextMember());
+        assertEquals("aud", scanner.name());
+        assertEquals(JsonScanner.ValueType.ARRAY, scanner.valueType());
+
+        assertTrue(scanner.nextMember());
+        assertTrue(scanner.nameEquals("nested"));
+        assertEquals(JsonScanner.ValueType.OBJECT, scanner.valueType());
+
+        assertTrue(scanner.nextMember());
+        assertTrue(scanner.nameEquals("exp"));
+        assertEquals(1894051442L, scanner.longValue());
+
+        assertTrue(scanner.nextMember());
+        assertTrue(scanner.nameEquals("nbf"));
+        assertNull(scanner.stringValue());
+
+        assertFalse(scanner.nextMember());
+        assertFalse(scanner.nextMember());
+    }
+
+    @Test
+    void scanEmptyObject() throws Exception {
+        assertFalse(scanner(" {} ").nextMember());
+    }
+
+    @Test
+    void scanEscapedStrings() throws Exception {
+        final JsonScanner scanner = scanner("{\"k\\u0069d\": \"a\\\"b\\\\c\\u00e9\"}");
+
+        assertTrue(scanner.nextMember());
+        assertTrue(scanner.nameEquals("kid"));
+        assertEquals("a\"b\\cé", scanner.stringValue());
+    }
+
+    @Test
+    void scanNumbers() throws Exception {
+        final JsonScanner scanner = scanner("{\"a\": -5, \"b\": 1.5e3, \"c\": 12.9}");
+
+        scanner.nextMember();
+        assertEquals(-5, scanner.longValue());
+        scanner.nextMember();
+        assertEquals(1500, scanner.longValue());
+        scanner.nextMember();
+        assertEquals(12, scanner.longValue());
+    }
+
+    @Test
+    void scanValue() throws Exception {
+        final JsonScanner scanner = scanner("{\"a\": {\"b\": [1, 2.5, \"c\", true, null]}}");
+
+        assertTrue(scanner.nextMember());
+        assertEquals(Collections.singletonMap("b", Arrays.asList(1L, 2.5, "c", true, null)),
+                scanner.value());
+        assertFalse(scanner.nextMember());
+    }
+
+    @Test
+    void scanValueAt() throws Exception {
+        final byte[] json = "{\"a\": 1, \"b\": [\"c\"]}".getBytes(StandardCharsets.UTF_8);
+        final JsonScanner scanner = new JsonScanner(json);
+
+        scanner.nextMember();
+        scanner.nextMember();
+        final int offset = scanner.valueOffset();
+
+        assertEquals(Collections.singletonList("c"),
+                JsonScanner.valueAt(json, offset, json.length).value());
+    }
+
+    @Test
+    void nameTable() throws Exception {
+        final NameTable names = new NameTable("iss", "exp");
+        final JsonScanner scanner = scanner("{\"iss\": 1, \"other\": 2}");
+
+        scanner.nextMember();
+        assertSame("iss", scanner.name(names));
+        scanner.nextMember();
+        assertEquals("other", scanner.name(names));
+    }
+
+    @Test
+    void scanMalformed() {
+        assertThrows(ParseException.class, () -> scanAll("[1, 2]"));
+        assertThrows(ParseException.class, () -> scanAll("{\"a\" 1}"));
+        assertThrows(ParseException.class, () -> scanAll("{\"a\": 1"));
+        assertThrows(ParseException.class, () -> scanAll("{\"a\": \"b}"));
+        assertThrows(ParseException.class, () -> scanAll("{\"a\": [1, 2}"));
+        assertThrows(ParseException.class, () -> {
+            final JsonScanner scanner = scanner("{\"exp\": \"soon\"}");
+            scanner.nextMember();
+            scanner.longValue();
+        });
+    }
+
+    private static JsonScanner scanner(String json) {
+        return new JsonScanner(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void scanAll(String json) throws ParseException {
+        final JsonScanner scanner = scanner(json);
+
+        while (scanner.nextMember()) {
+            // skip every value
+        }
+    }
+}
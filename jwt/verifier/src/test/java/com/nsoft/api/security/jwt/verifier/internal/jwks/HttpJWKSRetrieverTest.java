@@ -0,0 +1,116 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static com.nsoft.api.security.test_support.TestResources.THE_ALMIGHTY_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.verify.VerificationTimes;
+
+import java.io.IOException;
+import java.net.URL;
+
+final class HttpJWKSRetrieverTest {
+
+    private static final String JWKS_PATH = "/.well-known/jwks.json";
+
+    private static ClientAndServer clientAndServer;
+
+    @BeforeAll
+    public static void setup() {
+        clientAndServer = ClientAndServer.startClientAndServer(18082);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        clientAndServer.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        clientAndServer.reset();
+    }
+
+    @Test
+    void retrieve() throws Exception {
+        clientAndServer
+                .when(request()
+                        .withMethod("GET")
+                        .withPath(JWKS_PATH)
+                        .withHeader("If-None-Match", "\"v1\""))
+                .respond(response()
+                        .withStatusCode(304)
+                        .withHeader("Cache-Control", "max-age=60"));
+
+        clientAndServer
+                .when(request()
+                        .withMethod("GET")
+                        .withPath(JWKS_PATH))
+                .respond(response()
+                        .withStatusCode(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withHeader("Cache-Control", "public, max-age=120")
+                        .withBody(THE_ALMIGHTY_KEY));
+
+        final HttpJWKSRetriever retriever = new HttpJWKSRetriever(1000, 1000);
+        final URL url = new URL("http://localhost:18082" + JWKS_PATH);
+
+        final JWKSResponse first = retriever.retrieve(url, true);
+
+        assertFalse(first.isNotModified());
+        assertEquals(THE_ALMIGHTY_KEY, first.getContent());
+        assertEquals(120_000, first.getMaxAge());
+
+        final JWKSResponse second = retriever.retrieve(url, true);
+
+        assertTrue(second.isNotModified());
+        assertEquals(60_000, second.getMaxAge());
+
+        final JWKSResponse unconditional = retriever.retrieve(url, false);
+
+        assertFalse(unconditional.isNotModified());
+
+        clientAndServer.verify(request()
+                .withPath(JWKS_PATH)
+                .withHeader("If-None-Match", "\"v1\""), VerificationTimes.once());
+    }
+
+    @Test
+    void retrieveFailure() throws Exception {
+        clientAndServer
+                .when(request()
+                        .withMethod("GET")
+                        .withPath(JWKS_PATH))
+                .respond(response()
+                        .withStatusCode(503));
+
+        final HttpJWKSRetriever retriever = new HttpJWKSRetriever(1000, 1000);
+
+        assertThrows(IOException.class, () -> retriever.retrieve(
+                new URL("http://localhost:18082" + JWKS_PATH), false));
+    }
+
+    @Test
+    void parseMaxAge() {
+        assertEquals(JWKSResponse.NO_MAX_AGE, HttpJWKSRetriever.parseMaxAge(null));
+        assertEquals(JWKSResponse.NO_MAX_AGE, HttpJWKSRetriever.parseMaxAge("public"));
+        assertEquals(300_000, HttpJWKSRetriever.parseMaxAge("public, max-age=300"));
+        assertEquals(300_000, HttpJWKSRetriever.parseMaxAge("Max-Age=\"300\""));
+        assertEquals(JWKSResponse.NO_MAX_AGE,
+                HttpJWKSRetriever.parseMaxAge("max-age=300, no-cache"));
+        assertEquals(JWKSResponse.NO_MAX_AGE, HttpJWKSRetriever.parseMaxAge("no-store"));
+        assertEquals(JWKSResponse.NO_MAX_AGE, HttpJWKSRetriever.parseMaxAge("max-age=0"));
+        assertEquals(Long.MAX_VALUE,
+                HttpJWKSRetriever.parseMaxAge("max-age=" + Long.MAX_VALUE / 100));
+        assertEquals(JWKSResponse.NO_MAX_AGE, HttpJWKSRetriever.parseMaxAge("max-age=abc"));
+    }
+}
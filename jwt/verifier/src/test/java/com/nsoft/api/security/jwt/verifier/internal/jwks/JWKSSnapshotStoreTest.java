@@ -0,0 +1,75 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static com.nsoft.api.security.test_support.TestResources.THE_ALMIGHTY_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class JWKSSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void saveAndLoad() throws Exception {
+        final Path file = directory.resolve("snapshots/jwks.snapshot");
+        final JWKSSnapshotStore store = new JWKSSnapshotStore(file, jwksUrl(), 60_000);
+
+        assertNull(store.load(System.currentTimeMillis()));
+
+        final long fetchedAt = System.currentTimeMillis();
+        store.save(THE_ALMIGHTY_KEY, fetchedAt);
+
+        final JWKSSnapshotStore.JWKSSnapshot snapshot = store.load(fetchedAt + 1000);
+
+        assertNotNull(snapshot);
+        assertEquals(THE_ALMIGHTY_KEY, snapshot.getContent());
+        assertEquals(fetchedAt, snapshot.getFetchedAt());
+    }
+
+    @Test
+    void ignoresUnusableSnapshots() throws Exception {
+        final Path file = directory.resolve("jwks.snapshot");
+        final JWKSSnapshotStore store = new JWKSSnapshotStore(file, jwksUrl(), 60_000);
+        final long fetchedAt = System.currentTimeMillis();
+
+        store.save(THE_ALMIGHTY_KEY, fetchedAt);
+
+        // Too old
+        assertNull(store.load(fetchedAt + 120_000));
+
+        // Another JWKS URL
+        assertNull(new JWKSSnapshotStore(file, new URL("http://localhost/other.json"), 60_000)
+                .load(fetchedAt));
+
+        // Corrupted
+        final String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, content.replace("\"keys\"", "\"kexs\"").getBytes(StandardCharsets.UTF_8));
+
+        assertNull(store.load(fetchedAt));
+
+        // Unknown format
+        Files.write(file, THE_ALMIGHTY_KEY.getBytes(StandardCharsets.UTF_8));
+
+        assertNull(store.load(fetchedAt));
+    }
+
+    @Test
+    void invalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JWKSSnapshotStore(directory.resolve("jwks.snapshot"), jwksUrl(), 0));
+    }
+
+    private static URL jwksUrl() throws Exception {
+        return new URL("http://localhost/.well-known/jwks.json");
+    }
+}
@@ -0,0 +1,142 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static com.nsoft.api.security.test_support.TestTokens.ecKey;
+import static com.nsoft.api.security.test_support.TestTokens.rsaKey;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Base64;
+
+final class LocalJWKSourceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsJWKSet() throws Exception {
+        final Path file = directory.resolve("jwks.json");
+        write(file, new JWKSet(rsaKey("rsa").toPublicJWK()).toString());
+
+        final LocalJWKSource source = new LocalJWKSource(file);
+
+        assertTrue(source.getKeySet(null).containsKeyId("rsa"));
+        assertSame(source.getKeySet(null), source.getCachedKeySet("rsa"));
+    }
+
+    @Test
+    void loadsPem() throws Exception {
+        final RSAKey rsaKey = rsaKey(null);
+        final ECKey ecKey = ecKey(null);
+        final Path file = directory.resolve("signing.pem");
+        write(file, pem("PUBLIC KEY", rsaKey.toPublicKey().getEncoded())
+                + pem("PUBLIC KEY", ecKey.toPublicKey().getEncoded()));
+
+        final VerificationKeySet keySet = new LocalJWKSource(file).getKeySet(null);
+
+        assertTrue(keySet.containsKeyId("signing"));
+        assertEquals(1, keySet.select(new JWSHeader(JWSAlgorithm.RS256)).size());
+        assertEquals(1, keySet.select(new JWSHeader(JWSAlgorithm.ES256)).size());
+        assertEquals(2, keySet.getJWKSet().getKeys().size());
+    }
+
+    @Test
+    void loadsSecret() throws Exception {
+        // A random secret could end with a line terminator, which would be stripped
+        final OctetSequenceKey secretKey = new OctetSequenceKey.Builder(
+                "a-shared-secret-which-is-long-enough-for-hmac-sha-256-and-more".getBytes(
+                        StandardCharsets.UTF_8))
+                .build();
+        final Path file = directory.resolve("secret");
+        Files.write(file, concat(secretKey.toByteArray(), "\n".getBytes(StandardCharsets.UTF_8)));
+
+        final VerificationKeySet keySet = new LocalJWKSource(file).getKeySet(null);
+
+        assertEquals(1, keySet.select(new JWSHeader(JWSAlgorithm.HS256)).size());
+        assertEquals(secretKey.getKeyValue(),
+                ((OctetSequenceKey) keySet.getJWKSet().getKeys().get(0)).getKeyValue());
+    }
+
+    @Test
+    void reloadsChangedFile() throws Exception {
+        final Path file = directory.resolve("jwks.json");
+        write(file, new JWKSet(rsaKey("first").toPublicJWK()).toString());
+
+        final LocalJWKSource source = new LocalJWKSource(file);
+
+        assertTrue(source.getKeySet(null).containsKeyId("first"));
+
+        // Malformed content keeps the previous keys
+        write(file, "{\"keys\":");
+        Thread.sleep(200);
+
+        assertTrue(source.getKeySet(null).containsKeyId("first"));
+
+        final Path replacement = directory.resolve("jwks.json.tmp");
+        write(replacement, new JWKSet(rsaKey("second").toPublicJWK()).toString());
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        final long deadline = System.currentTimeMillis() + 30_000;
+
+        while (!source.getKeySet(null).containsKeyId("second")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(source.getKeySet(null).containsKeyId("second"));
+    }
+
+    @Test
+    void missingFile() {
+        final LocalJWKSource source = new LocalJWKSource(directory.resolve("missing.json"));
+
+        assertThrows(KeySourceException.class, () -> source.getKeySet(null));
+        assertNull(source.getCachedKeySet(null));
+    }
+
+    @Test
+    void parseRejectsUnsupportedContent() throws Exception {
+        assertThrows(ParseException.class, () -> LocalJWKSource.parse(
+                pem("RSA PRIVATE KEY", new byte[16]).getBytes(StandardCharsets.UTF_8), "key"));
+        assertThrows(ParseException.class,
+                () -> LocalJWKSource.parse("\n".getBytes(StandardCharsets.UTF_8), "key"));
+        assertNotNull(LocalJWKSource.parse("secret".getBytes(StandardCharsets.UTF_8), "key"));
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.UTF_8))
+                .encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        final byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,421 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static com.nsoft.api.security.test_support.TestResources.THE_ALMIGHTY_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class RefreshingJWKSourceTest {
+
+    private static final JWKSelector ANY_RSA_KEY = new JWKSelector(new JWKMatcher.Builder()
+            .keyType(KeyType.RSA)
+            .build());
+
+    @Test
+    void refreshesInBackground() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> {
+                    fetches.incrementAndGet();
+                    return new Resource(THE_ALMIGHTY_KEY, "application/json");
+                },
+                50, 10, 60_000, 0);
+
+        assertEquals(1, source.get(ANY_RSA_KEY, null).size());
+
+        Thread.sleep(500);
+
+        assertEquals(1, source.get(ANY_RSA_KEY, null).size());
+        assertNotNull(source.getCachedJWKSet());
+        assertTrue(fetches.get() > 2);
+    }
+
+    @Test
+    void refreshesIndependentlyOfBlockedSources() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger fetches = new AtomicInteger();
+
+        final RefreshingJWKSource blocked = new RefreshingJWKSource(
+                new URL("http://localhost/blocked/jwks.json"),
+                url -> {
+                    await(release);
+                    return new Resource(THE_ALMIGHTY_KEY, "application/json");
+                },
+                50, 0, 60_000, 0);
+
+        try {
+            final RefreshingJWKSource source = new RefreshingJWKSource(
+                    new URL("http://localhost/.well-known/jwks.json"),
+                    url -> {
+                        fetches.incrementAndGet();
+                        return new Resource(THE_ALMIGHTY_KEY, "application/json");
+                    },
+                    50, 0, 60_000, 0);
+
+            Thread.sleep(500);
+
+            assertNotNull(source.getCachedJWKSet());
+            assertNull(blocked.getCachedJWKSet());
+            assertTrue(fetches.get() > 2);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void skipsRefreshAfterInlineFetch() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> {
+                    fetches.incrementAndGet();
+                    sleep(50);
+                    return new Resource(THE_ALMIGHTY_KEY, "application/json");
+                },
+                60_000, 0, 60_000, 0);
+
+        assertEquals(1, source.get(ANY_RSA_KEY, null).size());
+
+        Thread.sleep(200);
+
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void servesLastKnownKeySetWhenRefreshFails() throws Exception {
+        final AtomicBoolean available = new AtomicBoolean(true);
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> {
+                    if (!available.get()) {
+                        throw new IOException("unavailable");
+                    }
+
+                    return new Resource(THE_ALMIGHTY_KEY, "application/json");
+                },
+                50, 0, 60_000, 0);
+
+        assertEquals(1, source.get(ANY_RSA_KEY, null).size());
+
+        available.set(false);
+        Thread.sleep(200);
+
+        assertEquals(1, source.get(ANY_RSA_KEY, null).size());
+    }
+
+    @Test
+    void failsWhenNoKeySetIsAvailable() throws Exception {
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> {
+                    throw new IOException("unavailable");
+                },
+                60_000, 0, 60_000, 0);
+
+        assertThrows(RemoteKeySourceException.class, () -> source.get(ANY_RSA_KEY, null));
+    }
+
+    @Test
+    void coalescesUnknownKeyRefetches() throws Exception {
+        final String rotatedKeys = new JWKSet(new RSAKeyGenerator(2048).keyID("rotated")
+                .generate().toPublicJWK()).toString();
+
+        final AtomicReference<String> keys = new AtomicReference<>(THE_ALMIGHTY_KEY);
+        final AtomicInteger fetches = new AtomicInteger();
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> {
+                    fetches.incrementAndGet();
+                    sleep(200);
+                    return new Resource(keys.get(), "application/json");
+                },
+                60_000, 0, 60_000, 0);
+
+        awaitInitialFetch(source);
+        fetches.set(0);
+        keys.set(rotatedKeys);
+
+        final int threads = 16;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return source.get(keyWithId("rotated"), null).size();
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get());
+        }
+
+        executor.shutdown();
+
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void rateLimitsUnknownKeyRefetches() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> {
+                    fetches.incrementAndGet();
+                    return new Resource(THE_ALMIGHTY_KEY, "application/json");
+                },
+                60_000, 0, 60_000, 60_000);
+
+        awaitInitialFetch(source);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(source.get(keyWithId("forged-" + i), null).isEmpty());
+        }
+
+        assertEquals(1, fetches.get());
+        assertEquals(1, source.get(keyWithId("b08c207fc5c84c9eb404d125dc2be160"), null).size());
+    }
+
+    @Test
+    void reusesKeySetWhenKeysAreUnchanged() throws Exception {
+        final AtomicReference<String> keys = new AtomicReference<>(THE_ALMIGHTY_KEY);
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> new Resource(keys.get(), "application/json"),
+                50, 0, 60_000, 0);
+
+        final VerificationKeySet keySet = source.getKeySet(null);
+
+        Thread.sleep(200);
+
+        assertSame(keySet, source.getKeySet(null));
+
+        keys.set(new JWKSet(new RSAKeyGenerator(2048).keyID("rotated")
+                .generate().toPublicJWK()).toString());
+
+        assertTrue(source.getKeySet("rotated").containsKeyId("rotated"));
+    }
+
+    @Test
+    void getCachedKeySet() throws Exception {
+        final AtomicBoolean available = new AtomicBoolean(false);
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> {
+                    if (!available.get()) {
+                        throw new IOException("unavailable");
+                    }
+
+                    return new Resource(THE_ALMIGHTY_KEY, "application/json");
+                },
+                60_000, 0, 60_000, 0);
+
+        assertNull(source.getCachedKeySet(null));
+
+        available.set(true);
+        source.getKeySet(null);
+
+        assertNotNull(source.getCachedKeySet(null));
+        assertNotNull(source.getCachedKeySet("b08c207fc5c84c9eb404d125dc2be160"));
+        assertNull(source.getCachedKeySet("unknown"));
+    }
+
+    @Test
+    void reusesKeySetWhenNotModified() throws Exception {
+        final List<Boolean> requests = Collections.synchronizedList(new ArrayList<>());
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                (url, conditional) -> {
+                    requests.add(conditional);
+
+                    return requests.size() == 1
+                            ? JWKSResponse.modified(THE_ALMIGHTY_KEY, JWKSResponse.NO_MAX_AGE)
+                            : JWKSResponse.notModified(JWKSResponse.NO_MAX_AGE);
+                },
+                50, 0, 60_000, 0);
+
+        final VerificationKeySet keySet = source.getKeySet(null);
+
+        Thread.sleep(200);
+
+        assertSame(keySet, source.getKeySet(null));
+        assertTrue(requests.size() > 1);
+        assertEquals(Boolean.FALSE, requests.get(0));
+        assertEquals(Boolean.TRUE, requests.get(1));
+    }
+
+    @Test
+    void rejectsNotModifiedWithoutPreviousKeySet() throws Exception {
+        final RefreshingJWKSource source = new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                (url, conditional) -> JWKSResponse.notModified(JWKSResponse.NO_MAX_AGE),
+                1000, 0, 60_000, 0);
+
+        assertThrows(RemoteKeySourceException.class, () -> source.getKeySet(null));
+    }
+
+    @Test
+    void servesPersistedKeySet(@TempDir Path directory) throws Exception {
+        final URL jwksUrl = new URL("http://localhost/.well-known/jwks.json");
+        final JWKSSnapshotStore store =
+                new JWKSSnapshotStore(directory.resolve("jwks.snapshot"), jwksUrl, 60_000);
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(jwksUrl,
+                (url, conditional) -> JWKSResponse.modified(THE_ALMIGHTY_KEY,
+                        JWKSResponse.NO_MAX_AGE),
+                60_000, 0, 60_000, 0, store);
+
+        awaitInitialFetch(source);
+
+        final long deadline = System.currentTimeMillis() + 5_000;
+
+        while (store.load(System.currentTimeMillis()) == null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // A restarted instance serves the persisted key set while the JWKS is unavailable
+        final RefreshingJWKSource restarted = new RefreshingJWKSource(jwksUrl,
+                (url, conditional) -> {
+                    throw new IOException("unavailable");
+                },
+                60_000, 0, 60_000, 0, store);
+
+        assertNotNull(restarted.getCachedKeySet(null));
+        assertTrue(restarted.getKeySet(null).containsKeyId("b08c207fc5c84c9eb404d125dc2be160"));
+    }
+
+    @Test
+    void schedulesRefreshFromPersistedKeySetAge(@TempDir Path directory) throws Exception {
+        final URL jwksUrl = new URL("http://localhost/.well-known/jwks.json");
+        final JWKSSnapshotStore store =
+                new JWKSSnapshotStore(directory.resolve("jwks.snapshot"), jwksUrl, 60_000);
+        final AtomicInteger fetches = new AtomicInteger();
+        final JWKSRetriever retriever = (url, conditional) -> {
+            fetches.incrementAndGet();
+            return JWKSResponse.modified(THE_ALMIGHTY_KEY, JWKSResponse.NO_MAX_AGE);
+        };
+
+        store.save(THE_ALMIGHTY_KEY, System.currentTimeMillis());
+
+        final RefreshingJWKSource fresh =
+                new RefreshingJWKSource(jwksUrl, retriever, 10_000, 0, 20_000, 0, store);
+
+        Thread.sleep(200);
+
+        assertNotNull(fresh.getKeySet(null));
+        assertEquals(0, fetches.get());
+
+        store.save(THE_ALMIGHTY_KEY, System.currentTimeMillis() - 9_900);
+
+        final RefreshingJWKSource due =
+                new RefreshingJWKSource(jwksUrl, retriever, 10_000, 0, 20_000, 0, store);
+
+        final long deadline = System.currentTimeMillis() + 5_000;
+
+        while (fetches.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertNotNull(due.getCachedKeySet(null));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void expiresPersistedKeySetFromPersistenceTime(@TempDir Path directory) throws Exception {
+        final URL jwksUrl = new URL("http://localhost/.well-known/jwks.json");
+        final JWKSSnapshotStore store =
+                new JWKSSnapshotStore(directory.resolve("jwks.snapshot"), jwksUrl, 60_000);
+
+        store.save(THE_ALMIGHTY_KEY, System.currentTimeMillis() - 30_000);
+
+        final RefreshingJWKSource source = new RefreshingJWKSource(jwksUrl,
+                (url, conditional) -> {
+                    throw new IOException("unavailable");
+                },
+                10_000, 0, 20_000, 0, store);
+
+        assertNull(source.getCachedKeySet(null));
+        assertThrows(RemoteKeySourceException.class, () -> source.getKeySet(null));
+    }
+
+    @Test
+    void invalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> new Resource(THE_ALMIGHTY_KEY, "application/json"),
+                1000, 2000, 60_000, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> new RefreshingJWKSource(
+                new URL("http://localhost/.well-known/jwks.json"),
+                url -> new Resource(THE_ALMIGHTY_KEY, "application/json"),
+                1000, 0, 500, 0));
+    }
+
+    private static JWKSelector keyWithId(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder()
+                .keyID(keyId)
+                .build());
+    }
+
+    private static void awaitInitialFetch(RefreshingJWKSource source) throws InterruptedException {
+        while (source.getCachedJWKSet() == null) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.nsoft.api.security.jwt.verifier.internal.jwks;
+
+import static com.nsoft.api.security.test_support.TestTokens.claims;
+import static com.nsoft.api.security.test_support.TestTokens.ecKey;
+import static com.nsoft.api.security.test_support.TestTokens.rsaKey;
+import static com.nsoft.api.security.test_support.TestTokens.sign;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+final class VerificationKeySetTest {
+
+    private static final RSAKey RSA_KEY = rsaKey("rsa");
+    private static final ECKey EC_KEY = ecKey("ec");
+
+    private static final JWKSet JWK_SET = new JWKSet(
+            Arrays.asList(RSA_KEY.toPublicJWK(), EC_KEY.toPublicJWK()));
+
+    @Test
+    void select() throws Exception {
+        final VerificationKeySet keySet = VerificationKeySet.from(JWK_SET);
+
+        final SignedJWT rsaToken = SignedJWT
+                .parse(sign(RSA_KEY, JWSAlgorithm.RS256, claims().build()));
+        final SignedJWT ecToken = SignedJWT
+                .parse(sign(EC_KEY, JWSAlgorithm.ES256, claims().build()));
+
+        assertEquals(1, keySet.select(rsaToken.getHeader()).size());
+        assertTrue(rsaToken.verify(keySet.select(rsaToken.getHeader()).get(0)));
+
+        assertEquals(1, keySet.select(ecToken.getHeader()).size());
+        assertTrue(ecToken.verify(keySet.select(ecToken.getHeader()).get(0)));
+    }
+
+    @Test
+    void selectReusesVerifiers() {
+        final VerificationKeySet keySet = VerificationKeySet.from(JWK_SET);
+        final JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("rsa").build();
+
+        assertSame(keySet.select(header).get(0), keySet.select(header).get(0));
+    }
+
+    @Test
+    void selectIncompatibleKey() {
+        final VerificationKeySet keySet = VerificationKeySet.from(JWK_SET);
+
+        assertTrue(keySet.select(new JWSHeader.Builder(JWSAlgorithm.ES256).keyID("rsa").build())
+                .isEmpty());
+        assertTrue(keySet.select(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("unknown")
+                .build()).isEmpty());
+        assertEquals(1, keySet.select(new JWSHeader.Builder(JWSAlgorithm.RS256).build()).size());
+    }
+
+    @Test
+    void containsKeyId() {
+        final VerificationKeySet keySet = VerificationKeySet.from(JWK_SET);
+
+        assertTrue(keySet.containsKeyId("rsa"));
+        assertTrue(keySet.containsKeyId("ec"));
+        assertFalse(keySet.containsKeyId("unknown"));
+    }
+
+    @Test
+    void hasSameKeys() {
+        final VerificationKeySet keySet = VerificationKeySet.from(JWK_SET);
+
+        assertTrue(keySet.hasSameKeys(new JWKSet(
+                Arrays.asList(RSA_KEY.toPublicJWK(), EC_KEY.toPublicJWK()))));
+        assertFalse(keySet.hasSameKeys(new JWKSet(RSA_KEY.toPublicJWK())));
+    }
+}
@@ -0,0 +1,54 @@
+package com.nsoft.api.security.jwt.verifier.internal.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+final class LogLinearHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValue() {
+        long previousUpperBound = -1;
+
+        for (int index = 0; index <= LogLinearHistogram.indexOf(Long.MAX_VALUE); index++) {
+            final long upperBound = LogLinearHistogram.upperBoundOf(index);
+
+            assertEquals(index, LogLinearHistogram.indexOf(previousUpperBound + 1));
+            assertEquals(index, LogLinearHistogram.indexOf(upperBound));
+            assertTrue(upperBound - previousUpperBound - 1 <= (previousUpperBound + 1) / 8);
+
+            previousUpperBound = upperBound;
+        }
+
+        assertEquals(Long.MAX_VALUE, previousUpperBound);
+    }
+
+    @Test
+    void percentiles() {
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(500_500_000L, histogram.getTotalTime());
+        assertEquals(1_000_000L, histogram.getMaximum());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(1_000_000L, histogram.getValueAtPercentile(100));
+
+        final long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 * 1.125, "median: " + median);
+
+        final long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99: " + p99);
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+}
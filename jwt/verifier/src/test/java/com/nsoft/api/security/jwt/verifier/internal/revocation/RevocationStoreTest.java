@@ -0,0 +1,160 @@
+package com.nsoft.api.security.jwt.verifier.internal.revocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+final class RevocationStoreTest {
+
+    private static final long REFRESH_INTERVAL = 3_600_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsSnapshot() throws Exception {
+        final Path file = directory.resolve("revocations.txt");
+        write(file, "rsp4j-revocations 1 7\r\n"
+                + "# Revoked on request\n"
+                + "jti revoked-id\n"
+                + "\n"
+                + "sub 1600000000 user with spaces@nsoft.com");
+
+        final RevocationStore store = new RevocationStore(file, REFRESH_INTERVAL);
+
+        assertEquals(7, store.getVersion());
+        assertTrue(store.isRevoked("revoked-id", null, Long.MIN_VALUE));
+        assertTrue(store.isRevoked(null, "user with spaces@nsoft.com", 1_600_000_000_000L));
+        assertTrue(store.isRevoked("other-id", "user with spaces@nsoft.com", 1_600_000_000_999L));
+
+        assertFalse(store.isRevoked("other-id", null, Long.MIN_VALUE));
+        assertFalse(store.isRevoked(null, "user with spaces@nsoft.com", 1_600_000_001_000L));
+        assertFalse(store.isRevoked(null, "user with spaces@nsoft.com", Long.MIN_VALUE));
+        assertFalse(store.isRevoked("user with spaces@nsoft.com", null, Long.MIN_VALUE));
+    }
+
+    @Test
+    void appliesDeltas() throws Exception {
+        final Path file = directory.resolve("revocations.txt");
+        write(file, "rsp4j-revocations 1 1\njti first\njti second\n");
+        write(directory.resolve("revocations.txt.delta.1"),
+                "rsp4j-revocations-delta 1 1\njti ignored\n");
+        write(directory.resolve("revocations.txt.delta.2"),
+                "rsp4j-revocations-delta 1 2\njti third\n-jti first\n");
+        write(directory.resolve("revocations.txt.delta.4"),
+                "rsp4j-revocations-delta 1 4\njti after-gap\n");
+
+        final RevocationStore store = new RevocationStore(file, REFRESH_INTERVAL);
+
+        assertEquals(2, store.getVersion());
+        assertFalse(store.isRevoked("ignored", null, Long.MIN_VALUE));
+        assertFalse(store.isRevoked("first", null, Long.MIN_VALUE));
+        assertTrue(store.isRevoked("second", null, Long.MIN_VALUE));
+        assertTrue(store.isRevoked("third", null, Long.MIN_VALUE));
+        assertFalse(store.isRevoked("after-gap", null, Long.MIN_VALUE));
+
+        write(directory.resolve("revocations.txt.delta.3"),
+                "rsp4j-revocations-delta 1 3\nsub 1600000000 user\n");
+        store.refresh();
+
+        assertEquals(4, store.getVersion());
+        assertTrue(store.isRevoked(null, "user", 1_600_000_000_000L));
+        assertTrue(store.isRevoked("after-gap", null, Long.MIN_VALUE));
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() throws Exception {
+        final Path file = directory.resolve("revocations.txt");
+        write(file, "rsp4j-revocations 1 0\n");
+
+        final StringBuilder delta = new StringBuilder("rsp4j-revocations-delta 1 1\n");
+
+        for (int i = 0; i < 5000; i++) {
+            delta.append("jti id-").append(i).append('\n');
+        }
+
+        write(directory.resolve("revocations.txt.delta.1"), delta.toString());
+
+        final RevocationStore store = new RevocationStore(file, REFRESH_INTERVAL);
+
+        assertEquals(1, store.getVersion());
+
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(store.isRevoked("id-" + i, null, Long.MIN_VALUE));
+        }
+
+        assertFalse(store.isRevoked("id-5000", null, Long.MIN_VALUE));
+    }
+
+    @Test
+    void reloadsChangedSnapshot() throws Exception {
+        final Path file = directory.resolve("revocations.txt");
+        write(file, "rsp4j-revocations 1 1\njti first\n");
+
+        final RevocationStore store = new RevocationStore(file, REFRESH_INTERVAL);
+
+        assertTrue(store.isRevoked("first", null, Long.MIN_VALUE));
+
+        // Malformed snapshots keep the current revocations
+        replace(file, "rsp4j-revocations 1 2\nunknown second\n");
+        store.refresh();
+
+        assertEquals(1, store.getVersion());
+        assertTrue(store.isRevoked("first", null, Long.MIN_VALUE));
+
+        replace(file, "rsp4j-revocations 1 5\njti second\n");
+        store.refresh();
+
+        assertEquals(5, store.getVersion());
+        assertFalse(store.isRevoked("first", null, Long.MIN_VALUE));
+        assertTrue(store.isRevoked("second", null, Long.MIN_VALUE));
+    }
+
+    @Test
+    void missingSnapshot() {
+        final RevocationStore store =
+                new RevocationStore(directory.resolve("missing.txt"), REFRESH_INTERVAL);
+
+        assertEquals(0, store.getVersion());
+        assertFalse(store.isRevoked("id", "user", 0));
+    }
+
+    @Test
+    void bloomFilterFalsePositiveRate() {
+        final BloomFilter filter = new BloomFilter(10_000);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(BloomFilter.hash(RevocationList.Revocation.JWT_ID, "revoked-" + i));
+        }
+
+        int falsePositives = 0;
+
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(BloomFilter.hash(RevocationList.Revocation.JWT_ID,
+                    "valid-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void replace(Path file, String content) throws Exception {
+        final Path temporaryFile = Files.createTempFile(directory, "revocations", ".tmp");
+        write(temporaryFile, content);
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -5,7 +5,7 @@ import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
 
 import java.util.Optional;
 
-public final class LocalProcessorConfiguration extends AbstractJWTProcessorConfiguration {
+public class LocalProcessorConfiguration extends AbstractJWTProcessorConfiguration {
 
     @Override
     public String getJWKSUrl() {
@@ -5,6 +5,8 @@ import com.nsoft.api.security.spring.filter.error.ErrorHandler;
 import com.nsoft.api.security.spring.filter.exception.InvalidFilterConfigurationException;
 import com.nsoft.api.security.spring.filter.route.ProtectedRouteHandler;
 import com.nsoft.api.security.spring.filter.route.ProtectedRouteRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.filter.GenericFilterBean;
 
 import javax.servlet.FilterChain;
@@ -40,8 +42,15 @@ import java.io.IOException;
  */
 public abstract class AbstractProtectedRouteFilter extends GenericFilterBean {
 
+    private static final long MAXIMUM_WARMUP_RETRY_DELAY = 30_000;
+
+    // Unlike the inherited commons-logging logger, supports parameterized messages
+    private final Logger log = LoggerFactory.getLogger(AbstractProtectedRouteFilter.class);
+
     private ProtectedRouteHandler protectedRouteHandler;
 
+    private volatile boolean ready;
+
     private ProtectedRouteFilterConfiguration configuration = new ProtectedRouteFilterConfiguration();
 
     /**
@@ -93,6 +102,68 @@ public abstract class AbstractProtectedRouteFilter extends GenericFilterBean {
 
         protectedRouteHandler = new ProtectedRouteHandler(protectedRouteRegistry, processor,
                 errorHandler);
+
+        if (configuration.getWarmupIterations() > 0) {
+            startWarmup(processor, configuration.getWarmupIterations());
+        } else {
+            ready = true;
+        }
+    }
+
+    /**
+     * Returns whether the filter is ready to process requests. If warmup is enabled, the filter
+     * becomes ready once the warmup of its {@link JWTProcessor} completes. Otherwise, it is ready
+     * as soon as it is initialized.
+     * <p>
+     * Meant to be used as, or as a part of, the readiness check of the application.
+     *
+     * @return {@code true} if the filter is ready
+     * @see ProtectedRouteFilterConfiguration#setWarmupIterations(int)
+     * @since 2026-10-18
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void startWarmup(final JWTProcessor processor, final int iterations) {
+        final Thread thread = new Thread(() -> {
+            long retryDelay = 1000;
+
+            while (!warmUp(processor, iterations, retryDelay)) {
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                retryDelay = Math.min(retryDelay * 2, MAXIMUM_WARMUP_RETRY_DELAY);
+            }
+
+            ready = true;
+        }, "rsp4j-filter-warmup");
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs a single warmup attempt, treating an exception thrown by the processor as a failed
+     * attempt so that it is retried instead of ending the warmup thread.
+     */
+    private boolean warmUp(final JWTProcessor processor, final int iterations,
+            final long retryDelay) {
+        try {
+            if (processor.warmUp(iterations)) {
+                return true;
+            }
+
+            log.warn("JWTProcessor warmup failed, retrying in {} ms", retryDelay);
+        } catch (RuntimeException e) {
+            log.warn("JWTProcessor warmup failed, retrying in {} ms", retryDelay, e);
+        }
+
+        return false;
     }
 
     @Override
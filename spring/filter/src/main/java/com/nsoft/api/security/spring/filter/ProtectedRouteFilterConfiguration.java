@@ -7,6 +7,7 @@ import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
 import com.nsoft.api.security.spring.filter.error.ErrorHandler;
 
 import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -24,6 +25,8 @@ public final class ProtectedRouteFilterConfiguration {
 
     private boolean automaticTrailCompensation = true;
 
+    private int warmupIterations = 0;
+
     ProtectedRouteFilterConfiguration() {
     }
 
@@ -189,4 +192,51 @@ public final class ProtectedRouteFilterConfiguration {
 
         this.automaticTrailCompensation = supplier.getAsBoolean();
     }
+
+    protected int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    /**
+     * Sets the number of synthetic tokens verified per signing algorithm while warming up the
+     * {@link JWTProcessor} used by the {@link AbstractProtectedRouteFilter}.
+     * <p>
+     * If greater than 0, the filter warms up the processor on a background thread once it is
+     * initialized ({@link JWTProcessor#warmUp(int)}), retrying until the JSON Web Key Set could be
+     * retrieved. {@link AbstractProtectedRouteFilter#isReady()} reports whether the warmup
+     * completed, and can be used to report readiness to load balancers, so that no requests are
+     * routed to instances which haven't warmed up yet.
+     * <p>
+     * Warmup is disabled by default.
+     *
+     * @param warmupIterations number of synthetic tokens, 0 disables warmup
+     * @since 2026-10-18
+     */
+    public void setWarmupIterations(int warmupIterations) {
+        if (warmupIterations < 0) {
+            throw new IllegalArgumentException("warmupIterations must not be less than 0");
+        }
+
+        this.warmupIterations = warmupIterations;
+    }
+
+    /**
+     * Sets the number of synthetic tokens verified per signing algorithm while warming up the
+     * {@link JWTProcessor} used by the {@link AbstractProtectedRouteFilter}.
+     * <p>
+     * If greater than 0, the filter warms up the processor on a background thread once it is
+     * initialized ({@link JWTProcessor#warmUp(int)}), retrying until the JSON Web Key Set could be
+     * retrieved. {@link AbstractProtectedRouteFilter#isReady()} reports whether the warmup
+     * completed.
+     * <p>
+     * Warmup is disabled by default.
+     *
+     * @param supplier {@link IntSupplier}
+     * @since 2026-10-18
+     */
+    public void setWarmupIterations(final IntSupplier supplier) {
+        requireNonNull(supplier, "supplier must not be null");
+
+        setWarmupIterations(supplier.getAsInt());
+    }
 }
@@ -1,8 +1,8 @@
 package com.nsoft.api.security.spring.filter.route;
 
-import static com.nsoft.api.security.spring.filter.internal.util.HeaderUtil.extractBearerToken;
 import static java.util.Objects.requireNonNull;
 
+import com.nsoft.api.security.jwt.verifier.BearerToken;
 import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
 import com.nsoft.api.security.jwt.verifier.JWTProcessor;
 import com.nsoft.api.security.spring.filter.error.ErrorHandler;
@@ -121,14 +121,15 @@ public final class ProtectedRouteHandler {
         requireNonNull(request);
         requireNonNull(response);
 
-        final Optional<String> optionalToken = extractBearerToken(request);
+        final String token =
+                BearerToken.extract(request.getHeader(BearerToken.AUTHORIZATION_HEADER));
 
-        if (!optionalToken.isPresent()) {
+        if (token == null) {
             errorHandler.handleInvalidBearerTokenError(response);
             return false;
         }
 
-        final Optional<JWTClaimsSet> optionalClaims = jwtProcessor.process(optionalToken.get());
+        final Optional<JWTClaimsSet> optionalClaims = jwtProcessor.process(token);
 
         if (!optionalClaims.isPresent()) {
             errorHandler.handleJWTProcessingError(response);
@@ -2,10 +2,10 @@ package com.nsoft.api.security.spring.resolver;
 
 import static java.util.Objects.requireNonNull;
 
+import com.nsoft.api.security.jwt.verifier.BearerToken;
 import com.nsoft.api.security.jwt.verifier.JWTClaimsSet;
 import com.nsoft.api.security.jwt.verifier.JWTProcessor;
 import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
-import com.nsoft.api.security.spring.resolver.internal.util.HeaderUtil;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -44,8 +44,14 @@ public abstract class JWTClaimsSetArgumentResolverSupport {
      * @throws Exception if the bearer token is missing or invalid
      */
     protected String extractBearerToken(HttpServletRequest request) throws Exception {
-        return HeaderUtil.extractBearerToken(request)
-                .orElseThrow(() -> BEARER_TOKEN_EXCEPTION);
+        final String token =
+                BearerToken.extract(request.getHeader(BearerToken.AUTHORIZATION_HEADER));
+
+        if (token == null) {
+            throw BEARER_TOKEN_EXCEPTION;
+        }
+
+        return token;
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.nsoft.api.security.testkit;
+
+import java.util.Arrays;
+
+/**
+ * Records the latencies observed by a single load generating thread. Latencies are kept exactly,
+ * so percentiles computed over the merged recordings of all threads aren't approximated.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1 << 16];
+    private int count;
+
+    void record(long latency) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+
+        latencies[count++] = latency;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Merges the recordings of several threads into a single sorted array.
+     */
+    static long[] mergeSorted(Iterable<LatencyRecorder> recorders) {
+        int total = 0;
+
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.count;
+        }
+
+        final long[] merged = new long[total];
+        int position = 0;
+
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, merged, position, recorder.count);
+            position += recorder.count;
+        }
+
+        Arrays.sort(merged);
+
+        return merged;
+    }
+}
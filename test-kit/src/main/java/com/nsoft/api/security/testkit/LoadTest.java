@@ -0,0 +1,272 @@
+package com.nsoft.api.security.testkit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nsoft.api.security.jwt.verifier.BearerToken;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Measures the throughput and latency of a servlet {@link Filter}, usually an {@link
+ * com.nsoft.api.security.spring.filter.AbstractProtectedRouteFilter} implementation, running in an
+ * embedded Jetty container on the loopback interface.
+ * <p>
+ * Every request passing the filter is answered with {@code 204 No Content} by a servlet which
+ * does nothing else, so the measured cost is that of the container and the filter. Load is
+ * applied by a fixed number of client threads, each sending a request as soon as the previous one
+ * completed, with a Bearer token obtained from the token supplier, for example {@link
+ * TokenMinter#nextToken()}.
+ * <p>
+ * The client and the container share the machine, so results are only comparable between runs
+ * on the same machine, with the same number of threads.
+ *
+ * @since 2026-10-18
+ */
+public final class LoadTest {
+
+    private static final int DEFAULT_THREADS = 8;
+    private static final long DEFAULT_WARMUP = 5_000;
+    private static final long DEFAULT_DURATION = 30_000;
+    private static final String DEFAULT_PATH = "/api/resource";
+
+    private final Filter filter;
+    private final Supplier<String> tokenSupplier;
+
+    private int threads = DEFAULT_THREADS;
+    private long warmup = DEFAULT_WARMUP;
+    private long duration = DEFAULT_DURATION;
+    private String path = DEFAULT_PATH;
+
+    /**
+     * Creates a load test of the specified filter.
+     *
+     * @param filter        filter under test, must not be {@code null}
+     * @param tokenSupplier supplies the Bearer token of every request, must not be {@code null}
+     */
+    public LoadTest(final Filter filter, final Supplier<String> tokenSupplier) {
+        this.filter = requireNonNull(filter, "filter must not be null");
+        this.tokenSupplier = requireNonNull(tokenSupplier, "tokenSupplier must not be null");
+    }
+
+    /**
+     * Sets the number of concurrent client threads. Defaults to 8.
+     *
+     * @param threads number of client threads, must be greater than 0
+     * @return current {@link LoadTest} instance
+     */
+    public LoadTest setThreads(final int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be greater than 0");
+        }
+
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Sets the duration, in milliseconds, for which load is applied before the measurement
+     * starts. Defaults to 5 seconds.
+     *
+     * @param warmup warmup duration, must not be less than 0
+     * @return current {@link LoadTest} instance
+     */
+    public LoadTest setWarmup(final long warmup) {
+        if (warmup < 0) {
+            throw new IllegalArgumentException("warmup must not be less than 0");
+        }
+
+        this.warmup = warmup;
+        return this;
+    }
+
+    /**
+     * Sets the duration of the measurement, in milliseconds. Defaults to 30 seconds.
+     *
+     * @param duration measurement duration, must be greater than 0
+     * @return current {@link LoadTest} instance
+     */
+    public LoadTest setDuration(final long duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("duration must be greater than 0");
+        }
+
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Sets the path requested by the client threads. Defaults to {@code /api/resource}.
+     *
+     * @param path requested path, must not be {@code null}
+     * @return current {@link LoadTest} instance
+     */
+    public LoadTest setPath(final String path) {
+        this.path = requireNonNull(path, "path must not be null");
+        return this;
+    }
+
+    /**
+     * Starts the container, applies load for the warmup and the measurement duration, and stops
+     * the container again.
+     *
+     * @return result of the measurement
+     * @throws IOException if the container or the client couldn't be started
+     */
+    public LoadTestResult run() throws IOException {
+        final Server server = startServer();
+        final HttpClient client = new HttpClient();
+        client.setMaxConnectionsPerDestination(threads);
+
+        try {
+            client.start();
+
+            final String url = "http://127.0.0.1:"
+                    + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + path;
+
+            return applyLoad(client, url);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Unable to start the HTTP client", e);
+        } finally {
+            stop(client);
+            stop(server);
+        }
+    }
+
+    private LoadTestResult applyLoad(final HttpClient client, final String url) {
+        final long start = System.nanoTime();
+        final long measurementStart = start + TimeUnit.MILLISECONDS.toNanos(warmup);
+        final long end = measurementStart + TimeUnit.MILLISECONDS.toNanos(duration);
+
+        final LongAdder accepted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+
+        final List<LatencyRecorder> recorders = new ArrayList<>();
+        final List<Thread> clientThreads = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            final LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+
+            clientThreads.add(new Thread(() -> {
+                long requestStart;
+
+                while ((requestStart = System.nanoTime()) < end) {
+                    final int status = send(client, url);
+                    final long requestEnd = System.nanoTime();
+
+                    if (requestStart < measurementStart) {
+                        continue;
+                    }
+
+                    recorder.record(requestEnd - requestStart);
+
+                    if (status >= 200 && status < 300) {
+                        accepted.increment();
+                    } else if (status == HttpServletResponse.SC_UNAUTHORIZED) {
+                        rejected.increment();
+                    } else {
+                        failed.increment();
+                    }
+                }
+            }, "rsp4j-load-test-" + i));
+        }
+
+        clientThreads.forEach(Thread::start);
+
+        for (Thread thread : clientThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return new LoadTestResult(duration, accepted.sum(), rejected.sum(), failed.sum(),
+                LatencyRecorder.mergeSorted(recorders));
+    }
+
+    /**
+     * Sends a single request, returning its status code, or -1 if it failed without a response.
+     */
+    private int send(final HttpClient client, final String url) {
+        try {
+            final ContentResponse response = client.newRequest(url)
+                    .header(BearerToken.AUTHORIZATION_HEADER, "Bearer " + tokenSupplier.get())
+                    .timeout(10, TimeUnit.SECONDS)
+                    .send();
+
+            return response.getStatus();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private Server startServer() throws IOException {
+        final Server server = new Server();
+
+        final ServerConnector connector = new ServerConnector(server);
+        connector.setHost("127.0.0.1");
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        final ServletContextHandler context = new ServletContextHandler();
+        context.addFilter(new FilterHolder(filter), "/*", EnumSet.of(DispatcherType.REQUEST));
+        context.addServlet(new ServletHolder(new NoContentServlet()), "/*");
+        server.setHandler(context);
+
+        try {
+            server.start();
+        } catch (Exception e) {
+            stop(server);
+            throw new IOException("Unable to start the servlet container", e);
+        }
+
+        return server;
+    }
+
+    private static void stop(final org.eclipse.jetty.util.component.LifeCycle lifeCycle) {
+        try {
+            lifeCycle.stop();
+        } catch (Exception e) {
+            // Nothing left to measure
+        }
+    }
+
+    /**
+     * Answers every request passing the filter without doing any work.
+     */
+    private static final class NoContentServlet extends HttpServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        }
+    }
+}
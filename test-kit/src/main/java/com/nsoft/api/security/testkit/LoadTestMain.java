@@ -0,0 +1,202 @@
+package com.nsoft.api.security.testkit;
+
+import com.nsoft.api.security.jwt.verifier.AbstractJWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+import com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration;
+import com.nsoft.api.security.spring.filter.AbstractProtectedRouteFilter;
+import com.nsoft.api.security.spring.filter.ProtectedRouteFilterConfiguration;
+import com.nsoft.api.security.spring.filter.route.ProtectedRouteRegistry;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a {@link LoadTest} of an {@link AbstractProtectedRouteFilter} verifying tokens against a
+ * {@link StubJWKSServer}, entirely on the local machine. Run with:
+ * <pre>
+ * mvn -pl test-kit -am install -DskipTests
+ * mvn -pl test-kit exec:java -Dexec.mainClass=com.nsoft.api.security.testkit.LoadTestMain \
+ *     -Dexec.args="--threads=16 --duration=60000 --rotate-every=10000"
+ * </pre>
+ * Supported options, with their defaults:
+ * <ul>
+ *     <li>{@code --algorithm=RS256} signing algorithm of the tokens</li>
+ *     <li>{@code --threads=8} number of client threads</li>
+ *     <li>{@code --warmup=5000} warmup duration in milliseconds</li>
+ *     <li>{@code --duration=30000} measurement duration in milliseconds</li>
+ *     <li>{@code --pool=1000} number of distinct pre-minted tokens</li>
+ *     <li>{@code --padding=0} length of an additional claim inflating every token</li>
+ *     <li>{@code --token-cache=0} size of the verified token cache of the processor</li>
+ *     <li>{@code --rotate-every=0} interval in milliseconds at which the signing key is rotated,
+ *     0 to never rotate</li>
+ *     <li>{@code --jwks-delay=0} delay of every JWKS response in milliseconds</li>
+ *     <li>{@code --outage=NONE} {@link StubJWKSServer.Outage} starting with the measurement</li>
+ * </ul>
+ * Verifying {@code PS256}, {@code PS384} and {@code PS512} tokens requires a security provider
+ * supporting RSASSA-PSS under the names used by Nimbus, such as BouncyCastle, to be installed.
+ */
+public final class LoadTestMain {
+
+    private static final String ISSUER = "https://accounts.nsoft.com";
+
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> options = parseOptions(args);
+
+        final JWSAlgorithm algorithm = JWSAlgorithm.valueOf(option(options, "algorithm", "RS256"));
+        final int threads = Integer.parseInt(option(options, "threads", "8"));
+        final long warmup = Long.parseLong(option(options, "warmup", "5000"));
+        final long duration = Long.parseLong(option(options, "duration", "30000"));
+        final int pool = Integer.parseInt(option(options, "pool", "1000"));
+        final int padding = Integer.parseInt(option(options, "padding", "0"));
+        final int tokenCacheSize = Integer.parseInt(option(options, "token-cache", "0"));
+        final long rotationInterval = Long.parseLong(option(options, "rotate-every", "0"));
+        final long jwksDelay = Long.parseLong(option(options, "jwks-delay", "0"));
+        final StubJWKSServer.Outage outage =
+                StubJWKSServer.Outage.valueOf(option(options, "outage", "NONE"));
+
+        final AtomicInteger keyCounter = new AtomicInteger();
+        final SigningKey initialKey =
+                SigningKey.generate(algorithm, "key-" + keyCounter.getAndIncrement());
+        final TokenMinter minter =
+                new TokenMinter(initialKey, ISSUER, pool, TimeUnit.HOURS.toMillis(1), padding);
+
+        final ScheduledExecutorService scenario = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "rsp4j-load-test-scenario");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        try (StubJWKSServer jwksServer = new StubJWKSServer(initialKey)) {
+            jwksServer.setResponseDelay(jwksDelay);
+
+            final JWTProcessorConfiguration configuration =
+                    configuration(jwksServer.getJWKSUrl(), algorithm, tokenCacheSize,
+                            padding);
+
+            if (rotationInterval > 0) {
+                scenario.scheduleAtFixedRate(() -> {
+                    final SigningKey previousKey = minter.getSigningKey();
+                    final SigningKey nextKey =
+                            SigningKey.generate(algorithm, "key-" + keyCounter.getAndIncrement());
+
+                    // Publish the new key before using it, and retire the old one afterwards
+                    jwksServer.rotate(nextKey);
+                    minter.setSigningKey(nextKey);
+                    jwksServer.retire(previousKey);
+                }, rotationInterval, rotationInterval, TimeUnit.MILLISECONDS);
+            }
+
+            if (outage != StubJWKSServer.Outage.NONE) {
+                scenario.schedule(() -> jwksServer.setOutage(outage), warmup,
+                        TimeUnit.MILLISECONDS);
+            }
+
+            System.out.printf("Load testing %s tokens with %d threads for %d ms%n", algorithm,
+                    threads, duration);
+
+            final LoadTestResult result = new LoadTest(new LoadTestFilter(configuration),
+                    minter::nextToken)
+                    .setThreads(threads)
+                    .setWarmup(warmup)
+                    .setDuration(duration)
+                    .run();
+
+            System.out.println(result);
+            System.out.printf("JWKS requests=%d%n", jwksServer.getRequestCount());
+        } finally {
+            scenario.shutdownNow();
+        }
+    }
+
+    private static JWTProcessorConfiguration configuration(final String jwksUrl,
+            final JWSAlgorithm algorithm, final int tokenCacheSize, final int padding)
+            throws GeneralSecurityException {
+        final AbstractJWTProcessorConfiguration configuration =
+                new AbstractJWTProcessorConfiguration() {
+                    @Override
+                    public String getJWKSUrl() {
+                        return jwksUrl;
+                    }
+
+                    @Override
+                    public Optional<String> getIssuer() {
+                        return Optional.of(ISSUER);
+                    }
+
+                    @Override
+                    public JWSAlgorithm getSigningAlgorithm() {
+                        return algorithm;
+                    }
+                };
+
+        configuration.setTokenCacheSize(tokenCacheSize);
+        // Rotated keys are fetched as soon as the first token signed with them arrives
+        configuration.setJWKSMinimumRefetchInterval(100);
+        // Padding grows by a third when Base64URL encoded, leaving room for the other claims
+        configuration.setMaximumTokenLength(
+                Math.max(configuration.getMaximumTokenLength(), 2 * padding + 4096));
+
+        if (algorithm.getFamily() == JWSAlgorithm.Family.EDDSA) {
+            // Without a provider, EdDSA tokens are verified with the optional Tink library
+            configuration.setSecurityProviders(Collections.singletonMap(
+                    JWSAlgorithm.Family.EDDSA, Signature.getInstance("Ed25519").getProvider()));
+        }
+
+        return configuration;
+    }
+
+    private static Map<String, String> parseOptions(final String[] args) {
+        final Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            final int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return options;
+    }
+
+    private static String option(final Map<String, String> options, final String name,
+            final String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Protects every route under {@code /api}, verifying tokens with the specified configuration.
+     */
+    private static final class LoadTestFilter extends AbstractProtectedRouteFilter {
+
+        private final JWTProcessorConfiguration processorConfiguration;
+
+        private LoadTestFilter(final JWTProcessorConfiguration processorConfiguration) {
+            this.processorConfiguration = processorConfiguration;
+        }
+
+        @Override
+        protected void configureFilter(final ProtectedRouteFilterConfiguration configuration) {
+            configuration.setJWTProcessorConfiguration(processorConfiguration);
+        }
+
+        @Override
+        protected void registerProtectedRoutes(final ProtectedRouteRegistry registry) {
+            registry.registerRoute("/api/**");
+        }
+    }
+
+    private LoadTestMain() {
+    }
+}
@@ -0,0 +1,113 @@
+package com.nsoft.api.security.testkit;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link LoadTest}, covering only the requests sent during the measurement,
+ * after the warmup.
+ *
+ * @since 2026-10-18
+ */
+public final class LoadTestResult {
+
+    private final long duration;
+    private final long accepted;
+    private final long rejected;
+    private final long failed;
+    private final long[] sortedLatencies;
+
+    LoadTestResult(long duration, long accepted, long rejected, long failed,
+            long[] sortedLatencies) {
+        this.duration = duration;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.failed = failed;
+        this.sortedLatencies = sortedLatencies;
+    }
+
+    /**
+     * Returns the duration of the measurement, in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the number of requests answered with a 2xx status code.
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Returns the number of requests answered with {@code 401 Unauthorized}.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the number of requests which failed with any other status code, or without a
+     * response.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getRequests() {
+        return accepted + rejected + failed;
+    }
+
+    /**
+     * Returns the number of completed requests per second.
+     */
+    public double getThroughput() {
+        return duration == 0 ? 0 : getRequests() * 1000.0 / duration;
+    }
+
+    /**
+     * Returns the latency, in nanoseconds, which the specified fraction of requests didn't
+     * exceed, using the nearest-rank method.
+     *
+     * @param percentile between 0 and 100
+     * @return latency percentile in nanoseconds, 0 if no request completed
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+
+        final int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+
+        return sortedLatencies[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Returns the highest latency, in nanoseconds.
+     */
+    public long getMaximumLatency() {
+        return sortedLatencies.length == 0 ? 0 : sortedLatencies[sortedLatencies.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "requests=%d (accepted=%d, rejected=%d, failed=%d) in %d ms%n"
+                        + "throughput=%.1f req/s%n"
+                        + "latency p50=%s p90=%s p99=%s p99.9=%s max=%s",
+                getRequests(), accepted, rejected, failed, duration, getThroughput(),
+                format(getLatencyPercentile(50)), format(getLatencyPercentile(90)),
+                format(getLatencyPercentile(99)), format(getLatencyPercentile(99.9)),
+                format(getMaximumLatency()));
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.3f ms",
+                nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
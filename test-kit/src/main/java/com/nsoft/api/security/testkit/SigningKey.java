@@ -0,0 +1,195 @@
+package com.nsoft.api.security.testkit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Arrays;
+
+/**
+ * A freshly generated key used to sign tokens with a single {@link JWSAlgorithm}, together with
+ * the JSON Web Key a {@link com.nsoft.api.security.jwt.verifier.JWTProcessor} verifies them with.
+ * <p>
+ * Keys are generated in-process, so no key material needs to be provisioned. {@code PS256},
+ * {@code PS384} and {@code PS512} tokens are signed with the JCA {@code RSASSA-PSS} algorithm,
+ * available since Java 11, and {@code EdDSA} tokens with the JCA {@code Ed25519} algorithm,
+ * available since Java 15.
+ *
+ * @since 2026-10-18
+ */
+public final class SigningKey {
+
+    private final JWSAlgorithm algorithm;
+    private final String keyId;
+    private final JWK verificationKey;
+
+    private final JWSSigner nimbusSigner;
+    private final PrivateKey jcaKey;
+
+    private SigningKey(final JWSAlgorithm algorithm, final String keyId,
+            final JWK verificationKey, final JWSSigner nimbusSigner, final PrivateKey jcaKey) {
+        this.algorithm = algorithm;
+        this.keyId = keyId;
+        this.verificationKey = verificationKey;
+        this.nimbusSigner = nimbusSigner;
+        this.jcaKey = jcaKey;
+    }
+
+    /**
+     * Generates a new key for the specified algorithm. RSA keys are 2048 bits long, and HMAC
+     * secrets as long as the output of their hash function.
+     *
+     * @param algorithm the key will sign tokens with, must not be {@code null}
+     * @param keyId     key ID of the key, must not be {@code null}
+     * @return generated key
+     * @throws IllegalStateException if the running JVM doesn't support the algorithm
+     */
+    public static SigningKey generate(final JWSAlgorithm algorithm, final String keyId) {
+        requireNonNull(algorithm, "algorithm must not be null");
+        requireNonNull(keyId, "keyId must not be null");
+
+        try {
+            switch (algorithm) {
+                case HS256:
+                case HS384:
+                case HS512:
+                    final OctetSequenceKey secret = new OctetSequenceKeyGenerator(
+                            Integer.parseInt(algorithm.name().substring(2)))
+                            .keyID(keyId)
+                            .generate();
+
+                    return new SigningKey(algorithm, keyId, secret, new MACSigner(secret), null);
+                case RS256:
+                case RS384:
+                case RS512:
+                    final RSAKey rsaKey = new RSAKeyGenerator(2048).keyID(keyId).generate();
+
+                    return new SigningKey(algorithm, keyId, rsaKey.toPublicJWK(),
+                            new RSASSASigner(rsaKey), null);
+                case PS256:
+                case PS384:
+                case PS512:
+                    final RSAKey pssKey = new RSAKeyGenerator(2048).keyID(keyId).generate();
+
+                    return new SigningKey(algorithm, keyId, pssKey.toPublicJWK(), null,
+                            pssKey.toPrivateKey());
+                case ES256:
+                case ES384:
+                case ES512:
+                    final ECKey ecKey = new ECKeyGenerator(curve(algorithm)).keyID(keyId)
+                            .generate();
+
+                    return new SigningKey(algorithm, keyId, ecKey.toPublicJWK(),
+                            new ECDSASigner(ecKey), null);
+                default:
+                    final KeyPair keyPair =
+                            KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+
+                    return new SigningKey(algorithm, keyId, toOctetKeyPair(keyPair, keyId), null,
+                            keyPair.getPrivate());
+            }
+        } catch (JOSEException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate " + algorithm + " key", e);
+        }
+    }
+
+    public JWSAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Returns the JSON Web Key tokens signed with this key are verified with. For HMAC keys, this
+     * is the secret itself, otherwise the public key.
+     *
+     * @return verification key
+     */
+    public JWK getVerificationKey() {
+        return verificationKey;
+    }
+
+    /**
+     * Signs the specified JWS signing input, the Base64URL encoded header and payload separated by
+     * a period.
+     *
+     * @param header       header of the token
+     * @param signingInput ASCII bytes of the signing input
+     * @return signature
+     */
+    Base64URL sign(final JWSHeader header, final byte[] signingInput) {
+        try {
+            if (nimbusSigner != null) {
+                return nimbusSigner.sign(header, signingInput);
+            }
+
+            final Signature signature = jcaSignature();
+            signature.initSign(jcaKey);
+            signature.update(signingInput);
+
+            return Base64URL.encode(signature.sign());
+        } catch (JOSEException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign " + algorithm + " token", e);
+        }
+    }
+
+    private Signature jcaSignature() throws GeneralSecurityException {
+        if (algorithm == JWSAlgorithm.EdDSA) {
+            return Signature.getInstance("Ed25519");
+        }
+
+        // RFC 7518 requires MGF1 with the same hash function, and a salt as long as the hash
+        final String hash = "SHA-" + algorithm.name().substring(2);
+        final Signature signature = Signature.getInstance("RSASSA-PSS");
+        signature.setParameter(new PSSParameterSpec(hash, "MGF1", new MGF1ParameterSpec(hash),
+                Integer.parseInt(algorithm.name().substring(2)) / 8, 1));
+
+        return signature;
+    }
+
+    private static Curve curve(final JWSAlgorithm algorithm) {
+        switch (algorithm) {
+            case ES256:
+                return Curve.P_256;
+            case ES384:
+                return Curve.P_384;
+            default:
+                return Curve.P_521;
+        }
+    }
+
+    private static OctetKeyPair toOctetKeyPair(final KeyPair keyPair, final String keyId) {
+        // The raw public key makes up the last 32 bytes of its X.509 encoding
+        final byte[] encoded = keyPair.getPublic().getEncoded();
+
+        return new OctetKeyPair.Builder(Curve.Ed25519,
+                Base64URL.encode(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)))
+                .keyID(keyId)
+                .build();
+    }
+}
@@ -0,0 +1,278 @@
+package com.nsoft.api.security.testkit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the JSON Web Key Set endpoint of an authorization server, listening on an
+ * ephemeral port of the loopback interface.
+ * <p>
+ * The published keys can be replaced at any time to simulate key rotation. Responses can be
+ * delayed, and the endpoint can be taken down, either answering with {@code 503 Service
+ * Unavailable} or dropping connections without a response. Responses carry an {@code ETag} and
+ * honour {@code If-None-Match}, and optionally a {@code Cache-Control: max-age} directive.
+ *
+ * @since 2026-10-18
+ */
+public final class StubJWKSServer implements AutoCloseable {
+
+    /**
+     * Path the key set is served at
+     */
+    public static final String JWKS_PATH = "/.well-known/jwks.json";
+
+    /**
+     * The kinds of outages the stub can simulate.
+     */
+    public enum Outage {
+        /**
+         * The key set is served normally
+         */
+        NONE,
+
+        /**
+         * Every request is answered with {@code 503 Service Unavailable}
+         */
+        SERVICE_UNAVAILABLE,
+
+        /**
+         * Every connection is closed without sending a response
+         */
+        CONNECTION_DROPPED
+    }
+
+    private final Server server;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private volatile List<SigningKey> keys = Collections.emptyList();
+    private volatile byte[] body;
+    private volatile String entityTag;
+
+    private volatile long responseDelay;
+    private volatile long maxAge = -1;
+    private volatile Outage outage = Outage.NONE;
+
+    /**
+     * Starts the stub, publishing the specified keys.
+     *
+     * @param keys initially published keys, must not be {@code null}
+     * @throws IOException if the server couldn't be started
+     */
+    public StubJWKSServer(final SigningKey... keys) throws IOException {
+        publish(keys);
+
+        server = new Server();
+
+        final ServerConnector connector = new ServerConnector(server);
+        connector.setHost("127.0.0.1");
+        connector.setPort(0);
+
+        server.addConnector(connector);
+        server.setHandler(new JWKSHandler());
+
+        try {
+            server.start();
+        } catch (Exception e) {
+            throw new IOException("Unable to start the stub JWKS server", e);
+        }
+    }
+
+    /**
+     * Returns the URL the key set is served at, to be returned by {@link
+     * com.nsoft.api.security.jwt.verifier.JWTProcessorConfiguration#getJWKSUrl()}.
+     *
+     * @return JWKS URL
+     */
+    public String getJWKSUrl() {
+        return "http://127.0.0.1:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort()
+                + JWKS_PATH;
+    }
+
+    /**
+     * Replaces the published keys.
+     *
+     * @param keys keys to publish, must not be {@code null}
+     */
+    public synchronized void publish(final SigningKey... keys) {
+        requireNonNull(keys, "keys must not be null");
+
+        final List<JWK> verificationKeys = new ArrayList<>();
+
+        for (SigningKey key : keys) {
+            verificationKeys.add(key.getVerificationKey());
+        }
+
+        final byte[] encoded = new JWKSet(verificationKeys).toJSONObject(false).toJSONString()
+                .getBytes(StandardCharsets.UTF_8);
+
+        this.keys = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(keys)));
+        this.entityTag = "\"" + Integer.toHexString(Arrays.hashCode(encoded)) + "\"";
+        this.body = encoded;
+    }
+
+    /**
+     * Rotates to a new key the way authorization servers usually do: the new key is published
+     * next to the currently published keys, so that tokens signed with any of them keep being
+     * accepted. Call {@link #retire(SigningKey)} once tokens signed with an old key expired.
+     *
+     * @param key new key, must not be {@code null}
+     */
+    public synchronized void rotate(final SigningKey key) {
+        requireNonNull(key, "key must not be null");
+
+        final List<SigningKey> rotated = new ArrayList<>();
+        rotated.add(key);
+        rotated.addAll(keys);
+
+        publish(rotated.toArray(new SigningKey[0]));
+    }
+
+    /**
+     * Stops publishing the specified key.
+     *
+     * @param key key to retire, must not be {@code null}
+     */
+    public synchronized void retire(final SigningKey key) {
+        requireNonNull(key, "key must not be null");
+
+        final List<SigningKey> remaining = new ArrayList<>(keys);
+        remaining.remove(key);
+
+        publish(remaining.toArray(new SigningKey[0]));
+    }
+
+    public List<SigningKey> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Delays every response by the specified duration, in milliseconds. A delay longer than the
+     * read timeout of the {@link com.nsoft.api.security.jwt.verifier.JWTProcessor} simulates an
+     * endpoint which stopped responding.
+     *
+     * @param responseDelay delay in milliseconds, must not be less than 0
+     */
+    public void setResponseDelay(final long responseDelay) {
+        if (responseDelay < 0) {
+            throw new IllegalArgumentException("responseDelay must not be less than 0");
+        }
+
+        this.responseDelay = responseDelay;
+    }
+
+    /**
+     * Sets the {@code max-age} directive of the {@code Cache-Control} response header, in
+     * seconds. A negative value, the default, omits the header.
+     *
+     * @param maxAge max-age in seconds
+     */
+    public void setMaxAge(final long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Sets the simulated outage, {@link Outage#NONE} to serve the key set normally again.
+     *
+     * @param outage simulated outage, must not be {@code null}
+     */
+    public void setOutage(final Outage outage) {
+        this.outage = requireNonNull(outage, "outage must not be null");
+    }
+
+    /**
+     * Returns the number of requests received so far, including requests failed by an outage.
+     *
+     * @return number of received requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            server.stop();
+        } catch (Exception e) {
+            throw new IOException("Unable to stop the stub JWKS server", e);
+        }
+    }
+
+    private final class JWKSHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                HttpServletResponse response) throws IOException {
+            baseRequest.setHandled(true);
+            requestCount.incrementAndGet();
+
+            final long delay = responseDelay;
+
+            if (delay > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            switch (outage) {
+                case SERVICE_UNAVAILABLE:
+                    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    return;
+                case CONNECTION_DROPPED:
+                    baseRequest.getHttpChannel().getEndPoint().close();
+                    return;
+                default:
+                    break;
+            }
+
+            if (!JWKS_PATH.equals(target)) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+
+            // Read together, so the body always matches its entity tag
+            final byte[] content;
+            final String tag;
+
+            synchronized (StubJWKSServer.this) {
+                content = body;
+                tag = entityTag;
+            }
+
+            response.setHeader("ETag", tag);
+
+            if (maxAge >= 0) {
+                response.setHeader("Cache-Control", "max-age=" + maxAge);
+            }
+
+            if (tag.equals(request.getHeader("If-None-Match"))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType("application/json");
+            response.setContentLength(content.length);
+            response.getOutputStream().write(content);
+        }
+    }
+}
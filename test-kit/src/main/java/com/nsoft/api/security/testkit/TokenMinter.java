@@ -0,0 +1,147 @@
+package com.nsoft.api.security.testkit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mints signed tokens with the current {@link SigningKey}.
+ * <p>
+ * Signing, RSA in particular, is usually more expensive than verifying, so a load generator
+ * running on the same machine as the system under test shouldn't sign a token per request.
+ * Instead, the minter keeps a pool of pre-minted tokens, each with its own JWT ID, which {@link
+ * #nextToken()} hands out at random. The pool is minted again whenever the signing key is
+ * replaced, which allows simulating key rotation while load is applied.
+ *
+ * @since 2026-10-18
+ */
+public final class TokenMinter {
+
+    private final String issuer;
+    private final int poolSize;
+    private final long timeToLive;
+    private final int payloadPadding;
+
+    private volatile SigningKey signingKey;
+    private volatile String[] pool;
+
+    /**
+     * Creates a minter and mints its token pool.
+     *
+     * @param signingKey     key to sign tokens with, must not be {@code null}
+     * @param issuer         issuer claim of minted tokens, must not be {@code null}
+     * @param poolSize       number of pre-minted tokens, must be greater than 0
+     * @param timeToLive     lifetime of minted tokens in milliseconds, must be greater than 0
+     * @param payloadPadding length of an additional claim inflating the payload, must not be less
+     *                       than 0
+     */
+    public TokenMinter(final SigningKey signingKey, final String issuer, final int poolSize,
+            final long timeToLive, final int payloadPadding) {
+        this.issuer = requireNonNull(issuer, "issuer must not be null");
+
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize must be greater than 0");
+        }
+
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("timeToLive must be greater than 0");
+        }
+
+        if (payloadPadding < 0) {
+            throw new IllegalArgumentException("payloadPadding must not be less than 0");
+        }
+
+        this.poolSize = poolSize;
+        this.timeToLive = timeToLive;
+        this.payloadPadding = payloadPadding;
+
+        setSigningKey(signingKey);
+    }
+
+    public SigningKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Replaces the signing key and mints the token pool again with the new key.
+     *
+     * @param signingKey key to sign tokens with, must not be {@code null}
+     */
+    public synchronized void setSigningKey(final SigningKey signingKey) {
+        this.signingKey = requireNonNull(signingKey, "signingKey must not be null");
+
+        final String[] minted = new String[poolSize];
+
+        for (int i = 0; i < poolSize; i++) {
+            minted[i] = mint(claims().build());
+        }
+
+        this.pool = minted;
+    }
+
+    /**
+     * Returns a random token of the pool.
+     *
+     * @return pre-minted token
+     */
+    public String nextToken() {
+        final String[] tokens = pool;
+
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    /**
+     * Returns a claims builder prefilled with the claims of pooled tokens: the issuer, a subject,
+     * a random JWT ID, the issue and expiration time, and the padding claim if any.
+     *
+     * @return prefilled claims builder
+     */
+    public JWTClaimsSet.Builder claims() {
+        final long now = System.currentTimeMillis();
+        final JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject("load-test@nsoft.com")
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + timeToLive));
+
+        if (payloadPadding > 0) {
+            final char[] padding = new char[payloadPadding];
+            Arrays.fill(padding, 'x');
+
+            builder.claim("padding", new String(padding));
+        }
+
+        return builder;
+    }
+
+    /**
+     * Mints a token with the specified claims, signed with the current key.
+     *
+     * @param claimsSet claims of the token, must not be {@code null}
+     * @return serialized token
+     */
+    public String mint(final JWTClaimsSet claimsSet) {
+        requireNonNull(claimsSet, "claimsSet must not be null");
+
+        final SigningKey key = signingKey;
+        final JWSHeader header = new JWSHeader.Builder(
+                com.nimbusds.jose.JWSAlgorithm.parse(key.getAlgorithm().name()))
+                .keyID(key.getKeyId())
+                .build();
+
+        final String signingInput = header.toBase64URL() + "."
+                + Base64URL.encode(claimsSet.toString());
+
+        return signingInput + "."
+                + key.sign(header, signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+}
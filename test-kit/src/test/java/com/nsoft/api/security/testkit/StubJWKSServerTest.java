@@ -0,0 +1,114 @@
+package com.nsoft.api.security.testkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nsoft.api.security.jwt.verifier.AbstractJWTProcessorConfiguration;
+import com.nsoft.api.security.jwt.verifier.JWSAlgorithm;
+import com.nsoft.api.security.jwt.verifier.JWTProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+final class StubJWKSServerTest {
+
+    private static final String ISSUER = "https://accounts.nsoft.com";
+
+    @Test
+    void processWithRotatedKeys() throws Exception {
+        final SigningKey firstKey = SigningKey.generate(JWSAlgorithm.ES256, "first");
+        final SigningKey secondKey = SigningKey.generate(JWSAlgorithm.ES256, "second");
+        final TokenMinter minter = new TokenMinter(firstKey, ISSUER, 1, 60_000, 0);
+
+        try (StubJWKSServer server = new StubJWKSServer(firstKey)) {
+            final JWTProcessor processor =
+                    JWTProcessor.fromConfiguration(configuration(server.getJWKSUrl()));
+            final String firstToken = minter.nextToken();
+
+            assertTrue(processor.process(firstToken).isPresent());
+
+            server.rotate(secondKey);
+            minter.setSigningKey(secondKey);
+
+            assertTrue(processor.process(minter.nextToken()).isPresent());
+            assertTrue(processor.process(firstToken).isPresent());
+            assertEquals(2, server.getRequestCount());
+        }
+    }
+
+    @Test
+    void processDuringOutage() throws Exception {
+        final SigningKey key = SigningKey.generate(JWSAlgorithm.HS256, "key");
+        final SigningKey unknownKey = SigningKey.generate(JWSAlgorithm.HS256, "unknown");
+        final TokenMinter minter = new TokenMinter(key, ISSUER, 1, 60_000, 0);
+
+        try (StubJWKSServer server = new StubJWKSServer(key)) {
+            final JWTProcessor processor = JWTProcessor.fromConfiguration(
+                    configuration(server.getJWKSUrl(), JWSAlgorithm.HS256));
+
+            assertTrue(processor.process(minter.nextToken()).isPresent());
+
+            server.setOutage(StubJWKSServer.Outage.CONNECTION_DROPPED);
+
+            // Keys fetched before the outage keep being used
+            assertTrue(processor.process(minter.nextToken()).isPresent());
+
+            minter.setSigningKey(unknownKey);
+
+            assertFalse(processor.process(minter.nextToken()).isPresent());
+        }
+    }
+
+    @Test
+    void mintWithEveryAlgorithm() throws Exception {
+        for (JWSAlgorithm algorithm : new JWSAlgorithm[]{JWSAlgorithm.HS512, JWSAlgorithm.RS384,
+                JWSAlgorithm.ES512, JWSAlgorithm.EdDSA}) {
+            final SigningKey key = SigningKey.generate(algorithm, algorithm.name());
+            final TokenMinter minter = new TokenMinter(key, ISSUER, 1, 60_000, 512);
+
+            try (StubJWKSServer server = new StubJWKSServer(key)) {
+                final AbstractJWTProcessorConfiguration configuration =
+                        configuration(server.getJWKSUrl(), algorithm);
+
+                if (algorithm == JWSAlgorithm.EdDSA) {
+                    configuration.setSecurityProviders(java.util.Collections.singletonMap(
+                            JWSAlgorithm.Family.EDDSA,
+                            java.security.Signature.getInstance("Ed25519").getProvider()));
+                }
+
+                assertTrue(JWTProcessor.fromConfiguration(configuration)
+                        .process(minter.nextToken())
+                        .isPresent(), algorithm.name());
+            }
+        }
+    }
+
+    private static AbstractJWTProcessorConfiguration configuration(String jwksUrl) {
+        return configuration(jwksUrl, JWSAlgorithm.ES256);
+    }
+
+    private static AbstractJWTProcessorConfiguration configuration(String jwksUrl,
+            JWSAlgorithm algorithm) {
+        final AbstractJWTProcessorConfiguration configuration =
+                new AbstractJWTProcessorConfiguration() {
+                    @Override
+                    public String getJWKSUrl() {
+                        return jwksUrl;
+                    }
+
+                    @Override
+                    public Optional<String> getIssuer() {
+                        return Optional.of(ISSUER);
+                    }
+
+                    @Override
+                    public JWSAlgorithm getSigningAlgorithm() {
+                        return algorithm;
+                    }
+                };
+
+        configuration.setJWKSMinimumRefetchInterval(0);
+        return configuration;
+    }
+}